@@ -1,10 +1,12 @@
 package com.bank.aggregation;
 
+import com.bank.common.exception.GlobalExceptionHandler;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
 
 /**
  * 聚合服务启动类
@@ -14,6 +16,7 @@ import org.springframework.context.annotation.ComponentScan;
 @EnableDiscoveryClient
 @EnableFeignClients(basePackages = "com.bank.feign.client")
 @ComponentScan(basePackages = {"com.bank.aggregation", "com.bank.feign.client.fallback"})
+@Import(GlobalExceptionHandler.class)
 public class AggregationServiceApplication {
     /**
      * 主函数，启动聚合服务应用
@@ -0,0 +1,159 @@
+package com.bank.aggregation.batch;
+
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.service.HomePageSource;
+import com.bank.aggregation.service.RecommendationQuery;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
+import com.bank.common.model.User;
+import com.bank.common.response.ApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 首页板块加载器
+ * 开启微批后，把几毫秒内到达的单用户查询合并为一次批量调用；未开启时直接调用HomePageSource
+ */
+@Slf4j
+@Component
+public class BatchingHomePageLoader {
+
+    private final HomePageSource homePageSource;
+
+    // 以下字段在未开启微批时为null
+    private final ScheduledExecutorService scheduler;
+    private final MicroBatcher<Long, ApiResponse<User>> userBatcher;
+    private final MicroBatcher<Long, ApiResponse<Points>> pointsBatcher;
+    private final MicroBatcher<RecommendationQuery, ApiResponse<List<Product>>> productsBatcher;
+
+    /**
+     * 构造函数
+     * @param homePageSource 首页数据源
+     * @param properties 聚合服务配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public BatchingHomePageLoader(HomePageSource homePageSource, AggregationProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.homePageSource = homePageSource;
+        AggregationProperties.Batch batch = properties.getBatch();
+        if (batch.isEnabled()) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "homepage-micro-batcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long windowNanos = batch.getWindow().toNanos();
+            int maxBatchSize = batch.getMaxBatchSize();
+            this.userBatcher = new MicroBatcher<>("user", split(homePageSource::fetchUsers),
+                    scheduler, windowNanos, maxBatchSize, meterRegistry);
+            this.pointsBatcher = new MicroBatcher<>("points", split(homePageSource::fetchPointsBatch),
+                    scheduler, windowNanos, maxBatchSize, meterRegistry);
+            this.productsBatcher = new MicroBatcher<>("recommended_products",
+                    split(homePageSource::fetchRecommendedProductsBatch, RecommendationQuery::userId,
+                            RecommendedProductsBatch::productsOf),
+                    scheduler, windowNanos, maxBatchSize, meterRegistry);
+            log.info("首页板块微批已开启，收集窗口: {}, 最大批量: {}", batch.getWindow(), maxBatchSize);
+        } else {
+            this.scheduler = null;
+            this.userBatcher = null;
+            this.pointsBatcher = null;
+            this.productsBatcher = null;
+        }
+    }
+
+    /**
+     * 获取用户信息
+     * @param userId 用户ID
+     * @return 用户信息响应
+     */
+    public CompletableFuture<ApiResponse<User>> fetchUser(Long userId) {
+        return userBatcher != null ? userBatcher.load(userId) : homePageSource.fetchUser(userId);
+    }
+
+    /**
+     * 获取用户积分信息
+     * @param userId 用户ID
+     * @return 用户积分信息响应
+     */
+    public CompletableFuture<ApiResponse<Points>> fetchPoints(Long userId) {
+        return pointsBatcher != null ? pointsBatcher.load(userId) : homePageSource.fetchPoints(userId);
+    }
+
+    /**
+     * 获取推荐产品列表
+     * @param query 推荐产品查询条件
+     * @return 推荐产品列表响应
+     */
+    public CompletableFuture<ApiResponse<List<Product>>> fetchRecommendedProducts(RecommendationQuery query) {
+        return productsBatcher != null ? productsBatcher.load(query) : homePageSource.fetchRecommendedProducts(query);
+    }
+
+    /**
+     * 关闭微批调度器
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * 把批量调用适配为微批处理器需要的形式：批量响应按用户拆分为单条响应
+     * @param batchCall 批量调用
+     * @param <T> 单个用户的数据类型
+     * @return 微批处理器使用的批量调用
+     */
+    private static <T> Function<List<Long>, CompletableFuture<Map<Long, ApiResponse<T>>>> split(
+            Function<List<Long>, CompletableFuture<ApiResponse<Map<Long, T>>>> batchCall) {
+        return split(batchCall, userId -> userId, Map::get);
+    }
+
+    /**
+     * 把批量调用适配为微批处理器需要的形式，按给定方式从批量结果中取出单个用户的数据
+     * @param batchCall 批量调用
+     * @param userIdOf 查询键对应的用户ID
+     * @param extractor 从批量结果中取出单个用户数据的方法
+     * @param <K> 查询键类型
+     * @param <B> 批量结果类型
+     * @param <T> 单个用户的数据类型
+     * @return 微批处理器使用的批量调用
+     */
+    private static <K, B, T> Function<List<K>, CompletableFuture<Map<K, ApiResponse<T>>>> split(
+            Function<List<K>, CompletableFuture<ApiResponse<B>>> batchCall, Function<K, Long> userIdOf,
+            BiFunction<B, Long, T> extractor) {
+        return keys -> batchCall.apply(keys).thenApply(response -> {
+            Map<K, ApiResponse<T>> responses = new HashMap<>(keys.size() * 2);
+            for (K key : keys) {
+                responses.put(key, slice(response, userIdOf.apply(key), extractor));
+            }
+            return responses;
+        });
+    }
+
+    private static <B, T> ApiResponse<T> slice(ApiResponse<B> response, Long userId, BiFunction<B, Long, T> extractor) {
+        if (response == null) {
+            return null;
+        }
+        if (response.getCode() != 0) {
+            return ApiResponse.error(response.getCode(), response.getMessage());
+        }
+        T data = response.getData() != null ? extractor.apply(response.getData(), userId) : null;
+        if (data == null) {
+            return ApiResponse.error(404, "批量结果中不存在该用户: " + userId);
+        }
+        return response.isFallback() ? ApiResponse.fallback(data) : ApiResponse.success(data);
+    }
+}
@@ -0,0 +1,125 @@
+package com.bank.aggregation.batch;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 微批处理器（DataLoader风格）
+ * 收集时间窗口内到达的单条查询，合并为一次批量调用，再把批量结果拆分给各个调用方
+ * 窗口内重复的键只查询一次；达到最大批量时立即发出，不等待窗口结束
+ * @param <K> 查询键类型
+ * @param <V> 查询结果类型
+ */
+@Slf4j
+public class MicroBatcher<K, V> {
+
+    private final String name;
+    private final Function<List<K>, CompletableFuture<Map<K, V>>> batchLoader;
+    private final ScheduledExecutorService scheduler;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizeSummary;
+
+    private final Object lock = new Object();
+
+    // 当前窗口内等待发出的查询，受lock保护
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    // 当前窗口是否已安排定时发出，受lock保护
+    private boolean flushScheduled;
+
+    /**
+     * 构造函数
+     * @param name 批处理器名称，用于日志和指标
+     * @param batchLoader 批量调用，返回键到结果的映射，缺失的键对应结果为null
+     * @param scheduler 定时发出批次的调度器
+     * @param windowNanos 收集窗口（纳秒）
+     * @param maxBatchSize 最大批量
+     * @param meterRegistry 指标注册中心
+     */
+    public MicroBatcher(String name, Function<List<K>, CompletableFuture<Map<K, V>>> batchLoader,
+                        ScheduledExecutorService scheduler, long windowNanos, int maxBatchSize,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.batchLoader = batchLoader;
+        this.scheduler = scheduler;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizeSummary = DistributionSummary.builder("aggregation.batch.size")
+                .description("每次批量调用合并的查询数")
+                .tag("batcher", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 提交单条查询，结果在所在批次返回后完成
+     * @param key 查询键
+     * @return 查询结果
+     */
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future;
+        Map<K, CompletableFuture<V>> fullBatch = null;
+        synchronized (lock) {
+            future = pending.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(key, future);
+            }
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = pending;
+                pending = new LinkedHashMap<>();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flushWindow, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return future;
+    }
+
+    /**
+     * 窗口结束时发出当前收集到的查询
+     */
+    private void flushWindow() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        List<K> keys = new ArrayList<>(batch.keySet());
+        batchSizeSummary.record(keys.size());
+        log.debug("{}发出批量调用，查询数: {}", name, keys.size());
+        CompletableFuture<Map<K, V>> result;
+        try {
+            result = batchLoader.apply(keys);
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((values, ex) -> batch.forEach((key, future) -> {
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
+                future.complete(values != null ? values.get(key) : null);
+            }
+        }));
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.aggregation.cache;
+
+import com.bank.aggregation.service.SectionResult;
+
+/**
+ * 缓存中的板块数据
+ * @param data 板块数据
+ * @param version 板块内容摘要，写入缓存时计算一次
+ * @param loadedAtNanos 发起加载的时间（System.nanoTime），数据不早于该时间
+ * @param <T> 板块数据类型
+ */
+record CachedSection<T>(T data, String version, long loadedAtNanos) {
+
+    /**
+     * 转换为板块结果，超过刷新间隔的数据标记为过期
+     * @param staleAfterNanos 刷新间隔
+     * @return 板块加载结果
+     */
+    SectionResult<T> toResult(long staleAfterNanos) {
+        if (System.nanoTime() - loadedAtNanos > staleAfterNanos) {
+            return SectionResult.stale(data).withVersion(version);
+        }
+        return SectionResult.ok(data).withVersion(version);
+    }
+}
@@ -0,0 +1,196 @@
+package com.bank.aggregation.cache;
+
+import com.bank.aggregation.batch.BatchingHomePageLoader;
+import com.bank.aggregation.coalesce.CallKey;
+import com.bank.aggregation.coalesce.SingleFlight;
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.etag.ContentHasher;
+import com.bank.aggregation.fields.FieldSelection;
+import com.bank.aggregation.metrics.AggregationMetrics;
+import com.bank.aggregation.service.RecommendationQuery;
+import com.bank.aggregation.service.SectionResult;
+import com.bank.aggregation.trace.SectionSpan;
+import com.bank.aggregation.trace.TraceContext;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.User;
+import com.bank.common.response.ApiResponse;
+import com.bank.feign.support.CallDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 首页板块缓存
+ * 按板块分别缓存用户、积分、推荐产品数据，缓存未命中时通过BatchingHomePageLoader调用下游
+ * 相同的在途下游调用经SingleFlight合并，只发起一次；实际发起的下游调用记录耗时指标
+ * 推荐产品按用户分群计算，加载时先从用户、积分板块取得用户等级和积分等级，再调用产品服务；
+ * 只有本次请求同样选中了用户、积分板块时才等待其加载，否则只使用缓存中已有的等级，不额外调用用户服务和积分服务
+ * 热点用户的板块可固定到近端缓存，由HotKeyDetector决定固定和取消
+ */
+@Component
+public class HomePageSectionCache {
+
+    private final SectionCache<User> userCache;
+    private final SectionCache<Points> pointsCache;
+    private final SectionCache<List<Product>> productsCache;
+    private final Function<RecommendationQuery, CompletableFuture<ApiResponse<List<Product>>>> productsCall;
+
+    /**
+     * 构造函数
+     * @param homePageLoader 首页板块加载器
+     * @param singleFlight 下游调用合并器
+     * @param properties 聚合服务配置属性
+     * @param aggregationMetrics 首页聚合指标
+     * @param contentHasher 内容摘要计算器
+     * @param meterRegistry 指标注册中心
+     */
+    public HomePageSectionCache(BatchingHomePageLoader homePageLoader, SingleFlight singleFlight,
+                                AggregationProperties properties, AggregationMetrics aggregationMetrics,
+                                ContentHasher contentHasher, MeterRegistry meterRegistry) {
+        AggregationProperties.Cache cache = properties.getCache();
+        // 推荐列表由用户分群决定，关闭按用户合并时同一分群的用户共享在途调用，不同分群之间从不共享
+        boolean productsPerUser = properties.getCoalescing().isProductsPerUser();
+        this.userCache = new SectionCache<>(HomePageSection.USER, cache.getUser(), cache.isEnabled(),
+                userId -> singleFlight.execute(CallKey.of("user-service", "getUserById", userId),
+                        () -> aggregationMetrics.timeDownstream(HomePageSection.USER,
+                                () -> homePageLoader.fetchUser(userId))),
+                contentHasher, meterRegistry);
+        this.pointsCache = new SectionCache<>(HomePageSection.POINTS, cache.getPoints(), cache.isEnabled(),
+                userId -> singleFlight.execute(CallKey.of("point-service", "getUserPoints", userId),
+                        () -> aggregationMetrics.timeDownstream(HomePageSection.POINTS,
+                                () -> homePageLoader.fetchPoints(userId))),
+                contentHasher, meterRegistry);
+        this.productsCall = query -> singleFlight.execute(productsPerUser
+                        ? CallKey.of("product-service", "getRecommendedProducts", query.userId(),
+                                query.userLevel(), query.pointsLevel())
+                        : CallKey.of("product-service", "getRecommendedProducts",
+                                query.userLevel(), query.pointsLevel()),
+                () -> aggregationMetrics.timeDownstream(HomePageSection.RECOMMENDED_PRODUCTS,
+                        () -> homePageLoader.fetchRecommendedProducts(query)));
+        // 后台刷新和预取只使用缓存中已有的等级，不为推荐产品调用用户服务和积分服务
+        this.productsCache = new SectionCache<>(HomePageSection.RECOMMENDED_PRODUCTS, cache.getRecommendedProducts(),
+                cache.isEnabled(), userId -> loadRecommendedProducts(userId, false, false),
+                contentHasher, meterRegistry);
+    }
+
+    /**
+     * 取得推荐产品的查询条件后调用产品服务，等级优先取自缓存中已有的用户、积分板块，缓存中没有时按未知处理
+     * 只有本次请求本来就要加载用户或积分板块时，才等待该板块加载完成后取其等级，板块加载失败时同样按未知处理
+     * 读取用户、积分板块不计入推荐产品板块的耗时分解，之后发起的产品服务调用仍然计入
+     * @param userId 用户ID
+     * @param awaitUser 是否等待用户信息板块
+     * @param awaitPoints 是否等待积分信息板块
+     * @return 推荐产品调用结果
+     */
+    private CompletableFuture<ApiResponse<List<Product>>> loadRecommendedProducts(Long userId, boolean awaitUser,
+                                                                                 boolean awaitPoints) {
+        SectionSpan span = TraceContext.current();
+        Long deadlineNanos = CallDeadline.current();
+        CompletableFuture<User> user;
+        CompletableFuture<Points> points;
+        try (TraceContext.Scope ignored = TraceContext.activate(null)) {
+            user = awaitUser ? userCache.get(userId).thenApply(SectionResult::data)
+                    : CompletableFuture.completedFuture(userCache.peek(userId));
+            points = awaitPoints ? pointsCache.get(userId).thenApply(SectionResult::data)
+                    : CompletableFuture.completedFuture(pointsCache.peek(userId));
+        }
+        return user.thenCombine(points, (userData, pointsData) -> RecommendationQuery.of(userId, userData, pointsData))
+                .thenCompose(query -> {
+                    try (TraceContext.Scope ignored = TraceContext.activate(span);
+                         CallDeadline.Scope ignoredDeadline = CallDeadline.activate(deadlineNanos)) {
+                        return productsCall.apply(query);
+                    }
+                });
+    }
+
+    /**
+     * 获取用户信息板块
+     * @param userId 用户ID
+     * @return 板块加载结果
+     */
+    public CompletableFuture<SectionResult<User>> getUser(Long userId) {
+        return userCache.get(userId);
+    }
+
+    /**
+     * 获取积分信息板块
+     * @param userId 用户ID
+     * @return 板块加载结果
+     */
+    public CompletableFuture<SectionResult<Points>> getPoints(Long userId) {
+        return pointsCache.get(userId);
+    }
+
+    /**
+     * 获取推荐产品板块，用户、积分等级只取自缓存中已有的数据，不调用用户服务和积分服务
+     * @param userId 用户ID
+     * @return 板块加载结果
+     */
+    public CompletableFuture<SectionResult<List<Product>>> getRecommendedProducts(Long userId) {
+        return productsCache.get(userId);
+    }
+
+    /**
+     * 获取推荐产品板块，缓存未命中时对本次同样选中的用户、积分板块等待其加载结果取得等级
+     * @param userId 用户ID
+     * @param selection 本次请求的字段选择
+     * @return 板块加载结果
+     */
+    public CompletableFuture<SectionResult<List<Product>>> getRecommendedProducts(Long userId,
+                                                                                 FieldSelection selection) {
+        boolean awaitUser = selection.includes(HomePageSection.USER);
+        boolean awaitPoints = selection.includes(HomePageSection.POINTS);
+        if (!awaitUser && !awaitPoints) {
+            return productsCache.get(userId);
+        }
+        return productsCache.get(userId, id -> loadRecommendedProducts(id, awaitUser, awaitPoints));
+    }
+
+    /**
+     * 把用户的全部板块固定到近端缓存
+     * @param userId 用户ID
+     */
+    public void pin(Long userId) {
+        userCache.pin(userId);
+        pointsCache.pin(userId);
+        productsCache.pin(userId);
+    }
+
+    /**
+     * 取消固定用户的板块
+     * @param userId 用户ID
+     */
+    public void unpin(Long userId) {
+        userCache.unpin(userId);
+        pointsCache.unpin(userId);
+        productsCache.unpin(userId);
+    }
+
+    /**
+     * 刷新近端缓存中固定的全部板块
+     */
+    public void refreshPinned() {
+        userCache.refreshPinned();
+        pointsCache.refreshPinned();
+        productsCache.refreshPinned();
+    }
+
+    /**
+     * 预取板块，缓存中的数据仍然新鲜时不调用下游
+     * @param section 板块
+     * @param userId 用户ID
+     * @return 预取结果
+     */
+    public CompletableFuture<PrefetchOutcome> prefetch(HomePageSection section, Long userId) {
+        return switch (section) {
+            case USER -> userCache.prefetch(userId);
+            case POINTS -> pointsCache.prefetch(userId);
+            case RECOMMENDED_PRODUCTS -> productsCache.prefetch(userId);
+        };
+    }
+}
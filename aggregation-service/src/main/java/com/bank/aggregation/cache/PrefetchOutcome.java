@@ -0,0 +1,26 @@
+package com.bank.aggregation.cache;
+
+/**
+ * 板块预取结果
+ */
+public enum PrefetchOutcome {
+    /**
+     * 缓存中没有或已过期，已调用下游加载
+     */
+    LOADED,
+
+    /**
+     * 缓存中的数据仍然新鲜或正在加载，未调用下游
+     */
+    FRESH,
+
+    /**
+     * 下游调用失败或返回降级数据，未写入缓存
+     */
+    FAILED,
+
+    /**
+     * 缓存未开启，不预取
+     */
+    DISABLED
+}
@@ -0,0 +1,278 @@
+package com.bank.aggregation.cache;
+
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.etag.ContentHasher;
+import com.bank.aggregation.service.SectionResult;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
+import com.bank.common.response.ApiResponse;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 单个首页板块的进程内缓存
+ * 每个板块独立配置过期时间、刷新间隔和容量；超过刷新间隔的数据在后台刷新期间继续返回（stale-while-revalidate）
+ * 失败和降级结果不会进入缓存；板块内容摘要在写入缓存时计算，读取缓存不再重复计算
+ * 热点用户的板块固定在单独的近端缓存中，由后台按较短间隔刷新，读取时不经过Caffeine；取消固定时写回Caffeine
+ * 近端缓存同样遵守过期时间：刷新持续失败、数据超过过期时间后不再返回，改为经Caffeine重新加载；并发的刷新只保留最新发起的结果
+ * @param <T> 板块数据类型
+ */
+@Slf4j
+public class SectionCache<T> {
+
+    private final HomePageSection section;
+    private final Function<Long, CompletableFuture<ApiResponse<T>>> loader;
+    private final ContentHasher contentHasher;
+    private final long staleAfterNanos;
+    private final long expireAfterNanos;
+
+    // 缓存关闭时为null，直接调用下游
+    private final AsyncLoadingCache<Long, CachedSection<T>> cache;
+
+    // 固定到近端缓存的热点用户，及其板块数据；固定后首次加载完成前没有数据
+    private final Set<Long> pinnedUserIds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, CachedSection<T>> pinned = new ConcurrentHashMap<>();
+    private final Counter pinnedHits;
+
+    /**
+     * 构造函数
+     * @param section 板块
+     * @param spec 板块缓存配置
+     * @param enabled 是否启用缓存
+     * @param loader 下游调用
+     * @param contentHasher 内容摘要计算器
+     * @param meterRegistry 指标注册中心
+     */
+    public SectionCache(HomePageSection section, AggregationProperties.CacheSpec spec, boolean enabled,
+                        Function<Long, CompletableFuture<ApiResponse<T>>> loader, ContentHasher contentHasher,
+                        MeterRegistry meterRegistry) {
+        this.section = section;
+        this.loader = loader;
+        this.contentHasher = contentHasher;
+        this.staleAfterNanos = spec.getRefreshAfter().toNanos();
+        this.expireAfterNanos = spec.getTtl().toNanos();
+        this.pinnedHits = Counter.builder("aggregation.hotkeys.nearcache.hits")
+                .description("热点用户板块在近端缓存命中的次数")
+                .tag("section", section.name().toLowerCase())
+                .register(meterRegistry);
+        if (enabled) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(spec.getMaximumSize())
+                    .expireAfterWrite(spec.getTtl())
+                    .refreshAfterWrite(spec.getRefreshAfter())
+                    .recordStats()
+                    .<Long, CachedSection<T>>buildAsync((userId, executor) -> loadCacheable(userId, loader));
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(),
+                    "homepage." + section.name().toLowerCase());
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * 获取板块数据，优先读取缓存
+     * @param userId 用户ID
+     * @return 板块加载结果，不会以异常结束
+     */
+    public CompletableFuture<SectionResult<T>> get(Long userId) {
+        return get(userId, loader);
+    }
+
+    /**
+     * 获取板块数据，优先读取缓存，未命中时用指定的下游调用加载；后台刷新仍使用构造时的下游调用
+     * @param userId 用户ID
+     * @param missLoader 缓存未命中时的下游调用
+     * @return 板块加载结果，不会以异常结束
+     */
+    public CompletableFuture<SectionResult<T>> get(Long userId,
+                                                   Function<Long, CompletableFuture<ApiResponse<T>>> missLoader) {
+        if (cache == null) {
+            return invoke(userId, missLoader).handle((response, ex) -> ex != null ? failure(ex) : toResult(response));
+        }
+        CachedSection<T> hot = pinnedFresh(userId);
+        if (hot != null) {
+            pinnedHits.increment();
+            return CompletableFuture.completedFuture(hot.toResult(staleAfterNanos));
+        }
+        return cache.get(userId, (key, executor) -> loadCacheable(key, missLoader))
+                .handle((cached, ex) -> ex != null ? failure(ex) : cached.toResult(staleAfterNanos));
+    }
+
+    /**
+     * 读取缓存中已有的板块数据，不调用下游，也不计入命中、未命中统计
+     * @param userId 用户ID
+     * @return 板块数据，缓存中没有或仍在加载时为null
+     */
+    public T peek(Long userId) {
+        if (cache == null) {
+            return null;
+        }
+        CachedSection<T> cached = pinnedFresh(userId);
+        if (cached == null) {
+            cached = completedValue(cache.asMap().get(userId));
+        }
+        return cached != null ? cached.data() : null;
+    }
+
+    /**
+     * 预取板块数据：缓存中没有时加载，超过刷新间隔时刷新，仍然新鲜时不调用下游
+     * @param userId 用户ID
+     * @return 预取结果，不会以异常结束
+     */
+    public CompletableFuture<PrefetchOutcome> prefetch(Long userId) {
+        if (cache == null) {
+            return CompletableFuture.completedFuture(PrefetchOutcome.DISABLED);
+        }
+        CompletableFuture<CachedSection<T>> present = cache.getIfPresent(userId);
+        if (present == null) {
+            return cache.get(userId)
+                    .handle((loaded, ex) -> ex != null ? PrefetchOutcome.FAILED : PrefetchOutcome.LOADED);
+        }
+        CachedSection<T> cached = completedValue(present);
+        if (cached == null || System.nanoTime() - cached.loadedAtNanos() <= staleAfterNanos) {
+            return CompletableFuture.completedFuture(PrefetchOutcome.FRESH);
+        }
+        return cache.synchronous().refresh(userId)
+                .handle((refreshed, ex) -> ex != null ? PrefetchOutcome.FAILED : PrefetchOutcome.LOADED);
+    }
+
+    /**
+     * 把用户的板块固定到近端缓存，缓存未开启时不固定
+     * @param userId 用户ID
+     */
+    public void pin(Long userId) {
+        if (cache == null || !pinnedUserIds.add(userId)) {
+            return;
+        }
+        // 先用Caffeine中已有的数据占位，没有时等首次刷新完成
+        CompletableFuture<CachedSection<T>> present = cache.getIfPresent(userId);
+        CachedSection<T> cached = completedValue(present);
+        if (cached != null) {
+            pinned.putIfAbsent(userId, cached);
+        }
+        refreshPinned(userId);
+    }
+
+    /**
+     * 取消固定，近端缓存中未超过过期时间的数据写回Caffeine，超过刷新间隔的在写回后立即刷新
+     * @param userId 用户ID
+     */
+    public void unpin(Long userId) {
+        if (!pinnedUserIds.remove(userId)) {
+            return;
+        }
+        CachedSection<T> cached = pinned.remove(userId);
+        if (cached == null || expired(cached)) {
+            return;
+        }
+        cache.put(userId, CompletableFuture.completedFuture(cached));
+        if (System.nanoTime() - cached.loadedAtNanos() > staleAfterNanos) {
+            cache.synchronous().refresh(userId);
+        }
+    }
+
+    /**
+     * 刷新所有固定的板块，刷新失败时保留原有数据，超过刷新间隔后按过期数据返回，超过过期时间后不再返回
+     */
+    public void refreshPinned() {
+        for (Long userId : pinnedUserIds) {
+            refreshPinned(userId);
+        }
+    }
+
+    private void refreshPinned(Long userId) {
+        loadCacheable(userId, loader).thenAccept(loaded -> {
+            if (!pinnedUserIds.contains(userId)) {
+                return;
+            }
+            // 上一轮较慢的刷新晚于本轮完成时，不覆盖更新的数据
+            pinned.merge(userId, loaded, (current, candidate) ->
+                    candidate.loadedAtNanos() - current.loadedAtNanos() > 0 ? candidate : current);
+            // 写入期间被取消固定时撤回，避免留下不再刷新的数据
+            if (!pinnedUserIds.contains(userId)) {
+                pinned.remove(userId, loaded);
+            }
+        });
+    }
+
+    /**
+     * 近端缓存中未超过过期时间的数据，超过的直接移除，等下一次刷新成功后再固定
+     */
+    private CachedSection<T> pinnedFresh(Long userId) {
+        CachedSection<T> cached = pinned.get(userId);
+        if (cached != null && expired(cached)) {
+            pinned.remove(userId, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    private boolean expired(CachedSection<T> cached) {
+        return System.nanoTime() - cached.loadedAtNanos() > expireAfterNanos;
+    }
+
+    /**
+     * 加载可缓存的板块数据，失败或降级结果以异常形式返回，避免写入缓存
+     * @param userId 用户ID
+     * @param loader 下游调用
+     * @return 可缓存的板块数据
+     */
+    private CompletableFuture<CachedSection<T>> loadCacheable(Long userId,
+                                                             Function<Long, CompletableFuture<ApiResponse<T>>> loader) {
+        long startedAtNanos = System.nanoTime();
+        return invoke(userId, loader).thenApply(response -> {
+            SectionResult<T> result = toResult(response);
+            if (result.status() != SectionStatus.OK) {
+                throw new UncacheableSectionException(result);
+            }
+            return new CachedSection<>(result.data(), result.version(), startedAtNanos);
+        });
+    }
+
+    private CompletableFuture<ApiResponse<T>> invoke(Long userId,
+                                                     Function<Long, CompletableFuture<ApiResponse<T>>> loader) {
+        try {
+            return loader.apply(userId);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 已成功完成的加载结果，仍在加载或加载失败时为null
+     */
+    private static <V> V completedValue(CompletableFuture<V> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private SectionResult<T> toResult(ApiResponse<T> response) {
+        SectionResult<T> result = SectionResult.from(response);
+        if (result.status() == SectionStatus.OK) {
+            log.debug("{}获取成功", section);
+        } else {
+            log.error("获取{}失败: {}", section, response != null ? response.getMessage() : "响应为空");
+        }
+        return result.withVersion(contentHasher.hash(result.data()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private SectionResult<T> failure(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof UncacheableSectionException uncacheable) {
+            return (SectionResult<T>) uncacheable.getResult();
+        }
+        log.error("获取{}失败: {}", section, cause.getMessage());
+        return SectionResult.failed();
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.aggregation.cache;
+
+import com.bank.aggregation.service.SectionResult;
+
+/**
+ * 不可缓存的板块结果
+ * 下游返回失败或降级数据时抛出，使缓存放弃本次加载，同时把结果带回给等待方
+ */
+class UncacheableSectionException extends RuntimeException {
+
+    private final transient SectionResult<?> result;
+
+    /**
+     * 构造函数
+     * @param result 不可缓存的板块结果
+     */
+    UncacheableSectionException(SectionResult<?> result) {
+        super("板块结果不可缓存: " + result.status(), null, false, false);
+        this.result = result;
+    }
+
+    /**
+     * 获取不可缓存的板块结果
+     * @return 板块结果
+     */
+    SectionResult<?> getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.aggregation.coalesce;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 下游调用标识
+ * 由客户端、方法和参数组成，标识相同的在途调用可以共享同一个结果
+ * @param client 下游客户端
+ * @param method 方法名
+ * @param arguments 调用参数
+ */
+public record CallKey(String client, String method, List<Object> arguments) {
+
+    /**
+     * 创建下游调用标识
+     * @param client 下游客户端
+     * @param method 方法名
+     * @param arguments 调用参数
+     * @return 下游调用标识
+     */
+    public static CallKey of(String client, String method, Object... arguments) {
+        return new CallKey(client, method, Arrays.asList(arguments));
+    }
+}
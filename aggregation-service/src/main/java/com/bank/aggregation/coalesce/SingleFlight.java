@@ -0,0 +1,89 @@
+package com.bank.aggregation.coalesce;
+
+import com.bank.aggregation.config.AggregationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 下游调用合并器（single-flight）
+ * 同一时刻标识相同的下游调用只真正发起一次，其余调用共享同一个结果
+ * 调用完成后立即移除，之后的请求会重新发起调用，因此不会返回过期数据
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<CallKey, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 构造函数
+     * @param properties 聚合服务配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public SingleFlight(AggregationProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.getCoalescing().isEnabled();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("aggregation.singleflight.inflight", inFlight, ConcurrentHashMap::size)
+                .description("当前在途的合并调用数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 执行下游调用，存在相同的在途调用时直接共享其结果
+     * @param key 下游调用标识
+     * @param call 下游调用
+     * @param <T> 返回值类型
+     * @return 调用结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(CallKey key, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<T> promise = new CompletableFuture<>();
+        CompletableFuture<?> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            counter("aggregation.singleflight.deduplicated", key).increment();
+            // 返回副本，避免调用方误操作影响共享结果
+            return (CompletableFuture<T>) existing.copy();
+        }
+        counter("aggregation.singleflight.executed", key).increment();
+        try {
+            call.get().whenComplete((value, ex) -> {
+                // 先移除再完成，保证完成之后到达的请求发起新的调用
+                inFlight.remove(key, promise);
+                if (ex != null) {
+                    promise.completeExceptionally(ex);
+                } else {
+                    promise.complete(value);
+                }
+            });
+        } catch (Exception e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return promise.copy();
+    }
+
+    /**
+     * 获取当前在途的合并调用数
+     * @return 在途调用数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Counter counter(String name, CallKey key) {
+        return Counter.builder(name)
+                .tag("client", key.client())
+                .tag("method", key.method())
+                .register(meterRegistry);
+    }
+}
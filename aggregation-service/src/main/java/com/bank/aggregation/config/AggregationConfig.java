@@ -0,0 +1,69 @@
+package com.bank.aggregation.config;
+
+import com.bank.aggregation.executor.FanOutExecutor;
+import com.bank.aggregation.fields.FieldFilters;
+import com.bank.common.codec.WireFormatProperties;
+import com.bank.common.codec.WireFormats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * 聚合服务配置类
+ * 负责装配首页聚合所需的基础组件
+ */
+@Configuration
+@EnableConfigurationProperties(AggregationProperties.class)
+public class AggregationConfig {
+
+    /**
+     * 配置首页扇出执行器
+     * @param properties 聚合服务配置属性
+     * @param meterRegistry 指标注册中心
+     * @return 扇出执行器
+     */
+    @Bean(destroyMethod = "shutdown")
+    public FanOutExecutor fanOutExecutor(AggregationProperties properties, MeterRegistry meterRegistry) {
+        AggregationProperties.FanOut fanOut = properties.getFanOut();
+        return FanOutExecutor.create(fanOut.getMode(), fanOut.getPlatformPoolSize(),
+                fanOut.getPlatformQueueCapacity(), meterRegistry);
+    }
+
+    /**
+     * 为首页板块实体注册字段过滤器，支持首页接口的 fields 参数
+     * @return ObjectMapper构建器定制器
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldFilterCustomizer() {
+        return FieldFilters.customizer();
+    }
+
+    /**
+     * 配置响应式模式使用的负载均衡WebClient构建器
+     * 与Feign客户端一致，支持Smile响应解码并按配置优先请求Smile
+     * @param objectMapperBuilder Spring Boot配置好的ObjectMapper构建器
+     * @param wireFormatProperties 传输格式配置属性
+     * @return WebClient构建器
+     */
+    @Bean
+    @LoadBalanced
+    @ConditionalOnProperty(name = "aggregation.mode", havingValue = "reactive")
+    public WebClient.Builder loadBalancedWebClientBuilder(Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                                          WireFormatProperties wireFormatProperties) {
+        WebClient.Builder builder = WebClient.builder()
+                .codecs(codecs -> codecs.customCodecs().register(
+                        new Jackson2SmileDecoder(WireFormats.smileObjectMapper(objectMapperBuilder))));
+        if (wireFormatProperties.isPreferSmile()) {
+            builder.defaultHeader(HttpHeaders.ACCEPT, WireFormats.ACCEPT_SMILE_OR_JSON);
+        }
+        return builder;
+    }
+}
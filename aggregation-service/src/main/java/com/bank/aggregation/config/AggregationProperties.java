@@ -0,0 +1,343 @@
+package com.bank.aggregation.config;
+
+import com.bank.aggregation.executor.FanOutMode;
+import com.bank.aggregation.service.AggregationMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 聚合服务配置属性
+ * 对应配置文件中 aggregation 前缀下的配置项
+ */
+@Data
+@ConfigurationProperties(prefix = "aggregation")
+public class AggregationProperties {
+
+    /**
+     * 聚合模式：BLOCKING-Feign阻塞调用，REACTIVE-WebClient非阻塞调用
+     */
+    private AggregationMode mode = AggregationMode.BLOCKING;
+
+    /**
+     * 单次首页请求的整体延迟预算，超出后返回已就绪的板块，配置为0表示不限制
+     */
+    private Duration latencyBudget = Duration.ofMillis(150);
+
+    /**
+     * 扇出执行器配置
+     */
+    private FanOut fanOut = new FanOut();
+
+    /**
+     * 响应式模式配置
+     */
+    private Reactive reactive = new Reactive();
+
+    /**
+     * 首页板块缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 下游调用合并配置
+     */
+    private Coalescing coalescing = new Coalescing();
+
+    /**
+     * 微批配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 首页响应的HTTP缓存配置
+     */
+    private HttpCache httpCache = new HttpCache();
+
+    /**
+     * 请求跟踪配置
+     */
+    private Trace trace = new Trace();
+
+    /**
+     * 流式首页配置
+     */
+    private Streaming streaming = new Streaming();
+
+    /**
+     * 首页预取配置
+     */
+    private Prefetch prefetch = new Prefetch();
+
+    /**
+     * 热点用户配置
+     */
+    private HotKeys hotKeys = new HotKeys();
+
+    /**
+     * 扇出执行器配置
+     */
+    @Data
+    public static class FanOut {
+        /**
+         * 执行模式：VIRTUAL-每个调用一个虚拟线程（JDK 21+，低版本JDK退化为PLATFORM），PLATFORM-固定平台线程池
+         */
+        private FanOutMode mode = FanOutMode.VIRTUAL;
+
+        /**
+         * 平台线程池大小，PLATFORM模式或虚拟线程不可用时生效
+         */
+        private int platformPoolSize = 64;
+
+        /**
+         * 平台线程池队列容量，PLATFORM模式或虚拟线程不可用时生效
+         */
+        private int platformQueueCapacity = 1000;
+    }
+
+    /**
+     * 响应式模式配置
+     */
+    @Data
+    public static class Reactive {
+        /**
+         * 单次下游调用超时时间，与Feign读取超时保持一致
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * 首页板块缓存配置
+     */
+    @Data
+    public static class Cache {
+        /**
+         * 是否启用板块缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 用户信息缓存，用户资料变化较少
+         */
+        private CacheSpec user = new CacheSpec(Duration.ofSeconds(60), Duration.ofSeconds(20), 100_000);
+
+        /**
+         * 积分信息缓存，积分变化频繁，只做短时缓存
+         */
+        private CacheSpec points = new CacheSpec(Duration.ofSeconds(5), Duration.ofSeconds(2), 100_000);
+
+        /**
+         * 推荐产品缓存，推荐列表几乎不变
+         */
+        private CacheSpec recommendedProducts = new CacheSpec(Duration.ofMinutes(5), Duration.ofMinutes(1), 100_000);
+    }
+
+    /**
+     * 单个板块的缓存配置
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheSpec {
+        /**
+         * 过期时间，超过后缓存项被移除
+         */
+        private Duration ttl;
+
+        /**
+         * 刷新间隔，超过后返回旧数据并在后台刷新，必须小于过期时间
+         */
+        private Duration refreshAfter;
+
+        /**
+         * 最大缓存条目数
+         */
+        private long maximumSize;
+    }
+
+    /**
+     * 下游调用合并配置
+     */
+    @Data
+    public static class Coalescing {
+        /**
+         * 是否合并相同的在途下游调用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 推荐产品调用是否按用户合并；默认关闭，同一用户分群（用户等级、积分等级相同）的调用合并，不同分群之间不合并
+         */
+        private boolean productsPerUser = false;
+    }
+
+    /**
+     * 微批配置
+     */
+    @Data
+    public static class Batch {
+        /**
+         * 是否把短时间内的单用户查询合并为批量调用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 收集窗口，窗口内到达的查询合并为一次批量调用
+         */
+        private Duration window = Duration.ofMillis(5);
+
+        /**
+         * 最大批量，达到后立即发出，需不超过下游批量接口上限
+         */
+        private int maxBatchSize = 100;
+    }
+
+    /**
+     * 首页响应的HTTP缓存配置
+     */
+    @Data
+    public static class HttpCache {
+        /**
+         * 所有板块正常时响应头 Cache-Control 的 max-age，网关和客户端在此期间可直接复用响应；
+         * 存在超时、失败、过期板块的响应始终为 no-store，配置为0表示全部 no-store
+         */
+        private Duration maxAge = Duration.ofSeconds(5);
+    }
+
+    /**
+     * 请求跟踪配置
+     */
+    @Data
+    public static class Trace {
+        /**
+         * 是否记录首页请求的板块耗时分解
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最近请求环形缓冲区容量，向上取整为2的幂
+         */
+        private int bufferSize = 1024;
+
+        /**
+         * 每分钟保留的最慢请求数
+         */
+        private int slowestPerMinute = 20;
+
+        /**
+         * 最慢请求保留的分钟数
+         */
+        private int retainedMinutes = 15;
+    }
+
+    /**
+     * 流式首页配置
+     */
+    @Data
+    public static class Streaming {
+        /**
+         * 流式响应的最长持续时间，超出后服务端结束响应
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * 首页预取配置
+     */
+    @Data
+    public static class Prefetch {
+        /**
+         * 是否为近期活跃用户在后台预取首页板块
+         */
+        private boolean enabled = false;
+
+        /**
+         * 两轮预取之间的间隔，缓存时长不超过该间隔的板块（默认的积分板块）预取后来不及使用，不参与预取
+         */
+        private Duration interval = Duration.ofSeconds(30);
+
+        /**
+         * 最近活跃时间在该时长内的用户参与预取
+         */
+        private Duration activeWithin = Duration.ofHours(12);
+
+        /**
+         * 按习惯登录时段预取的提前量，习惯在此时长后的整点时段登录的用户参与预取
+         */
+        private Duration lookahead = Duration.ofMinutes(15);
+
+        /**
+         * 某个小时时段内至少出现过的登录次数，达到后视为用户的习惯登录时段
+         */
+        private int minLoginsInWindow = 3;
+
+        /**
+         * 每轮最多预取的用户数
+         */
+        private int maxUsersPerRun = 2000;
+
+        /**
+         * 每秒最多预取的用户数
+         */
+        private double usersPerSecond = 50;
+
+        /**
+         * 同时进行中的预取用户数
+         */
+        private int concurrency = 4;
+
+        /**
+         * 扇出执行器在途调用数超过该值时暂停预取，把下游容量让给实时请求
+         */
+        private int pauseAboveInFlight = 200;
+
+        /**
+         * 最多记录活跃信息的用户数
+         */
+        private long maximumTrackedUsers = 200_000;
+
+        /**
+         * 用户超过该时长未访问后不再记录活跃信息
+         */
+        private Duration retention = Duration.ofDays(8);
+    }
+
+    /**
+     * 热点用户配置
+     */
+    @Data
+    public static class HotKeys {
+        /**
+         * 是否统计热点用户并把其首页板块固定在近端缓存中
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最多识别的热点用户数
+         */
+        private int topK = 20;
+
+        /**
+         * 统计窗口，每个窗口结束时重新选出热点用户，并把计数减半使较早的访问逐渐淡出
+         */
+        private Duration window = Duration.ofSeconds(10);
+
+        /**
+         * 成为热点用户的最少访问次数，与减半衰减后的计数比较
+         */
+        private long minHits = 100;
+
+        /**
+         * Count-Min Sketch 每行的计数器数，向上取整为2的幂
+         */
+        private int sketchWidth = 4096;
+
+        /**
+         * 近端缓存中热点用户板块的刷新间隔
+         */
+        private Duration refreshInterval = Duration.ofSeconds(1);
+    }
+}
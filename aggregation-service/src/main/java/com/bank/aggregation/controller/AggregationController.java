@@ -1,29 +1,40 @@
 package com.bank.aggregation.controller;
 
-import com.bank.feign.client.PointServiceClient;
-import com.bank.feign.client.ProductServiceClient;
-import com.bank.feign.client.UserServiceClient;
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.etag.ContentHasher;
+import com.bank.aggregation.etag.ETags;
+import com.bank.aggregation.fields.FieldSelection;
+import com.bank.aggregation.service.HomePageAggregationService;
+import com.bank.aggregation.service.SectionListener;
+import com.bank.aggregation.service.SectionResult;
 import com.bank.common.model.HomePageData;
-import com.bank.common.model.Points;
-import com.bank.common.model.Product;
-import com.bank.common.model.User;
-import com.bank.common.request.UserQueryRequest;
+import com.bank.common.model.HomePageEvent;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
 import com.bank.common.response.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
-import java.util.List;
+import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 聚合服务控制器
  * 负责聚合用户、积分、产品等信息，提供统一的首页数据接口
+ * 流式首页接口按 Accept 以SSE或NDJSON返回，每个板块就绪即发送，移动端首屏时间取决于最快的下游服务
+ * 两类接口都支持 fields 参数，只返回局部刷新需要的板块和字段
  */
 @Slf4j
 @RestController
@@ -31,93 +42,91 @@ import java.util.concurrent.Executors;
 @RequiredArgsConstructor
 @Validated
 public class AggregationController {
-    
-    private final UserServiceClient userServiceClient;
-    private final PointServiceClient pointServiceClient;
-    private final ProductServiceClient productServiceClient;
-    
-    // 使用固定线程池进行并行调用
-    private final ExecutorService executorService = Executors.newFixedThreadPool(3);
-    
+
+    private final HomePageAggregationService homePageAggregationService;
+
+    private final AggregationProperties properties;
+
+    private final ContentHasher contentHasher;
+
     /**
      * 获取首页聚合数据
      * 并行调用用户、积分、产品服务，聚合返回首页所需数据
+     * 以异步方式返回，响应式模式下等待下游期间不占用请求线程
+     * 所有板块正常时通过 Cache-Control 允许网关和客户端短时缓存，部分返回的响应不允许缓存
+     * 响应带有按内容计算的ETag，If-None-Match 匹配时返回304；If-None-Match-Sections 中版本未变的板块不返回数据，
+     * 状态标记为 NOT_MODIFIED
+     * fields 参数可只选择部分板块和字段，未选择的板块不调用下游服务
      * @param userId 用户ID
+     * @param fields 字段选择，为空时返回全部板块
+     * @param ifNoneMatch 客户端已有的首页ETag
+     * @param ifNoneMatchSections 客户端已有的板块版本
      * @return 首页聚合数据
      */
     @GetMapping("/{userId}")
-    public ApiResponse<HomePageData> getHomePageData(
-            @PathVariable @Min(value = 1, message = "用户ID必须大于0") Long userId) {
-        log.info("开始聚合首页数据，用户ID: {}", userId);
-        long startTime = System.currentTimeMillis();
-        
-        HomePageData homePageData = new HomePageData();
-        
-        try {
-            // 并行调用三个服务
-            CompletableFuture<Void> userFuture = CompletableFuture.runAsync(() -> {
-                try {
-                    ApiResponse<User> userResponse = userServiceClient.getUserById(userId);
-                    if (userResponse != null && userResponse.getCode() == 0) {
-                        homePageData.setUser(userResponse.getData());
-                        log.debug("用户信息获取成功");
-                    } else {
-                        log.error("获取用户信息失败: {}", userResponse != null ? userResponse.getMessage() : "响应为空");
-                        homePageData.setDisplayMessage("部分数据加载失败");
-                    }
-                } catch (Exception e) {
-                    log.error("获取用户信息失败: {}", e.getMessage());
-                    homePageData.setDisplayMessage("部分数据加载失败");
-                }
-            }, executorService);
-            
-            CompletableFuture<Void> pointsFuture = CompletableFuture.runAsync(() -> {
-                try {
-                    ApiResponse<Points> pointsResponse = pointServiceClient.getUserPoints(userId);
-                    if (pointsResponse != null && pointsResponse.getCode() == 0) {
-                        homePageData.setPoints(pointsResponse.getData());
-                        log.debug("积分信息获取成功");
-                    } else {
-                        log.error("获取积分信息失败: {}", pointsResponse != null ? pointsResponse.getMessage() : "响应为空");
-                        homePageData.setDisplayMessage("部分数据加载失败");
-                    }
-                } catch (Exception e) {
-                    log.error("获取积分信息失败: {}", e.getMessage());
-                    homePageData.setDisplayMessage("部分数据加载失败");
-                }
-            }, executorService);
-            
-            CompletableFuture<Void> productsFuture = CompletableFuture.runAsync(() -> {
-                try {
-                    ApiResponse<List<Product>> productsResponse = productServiceClient.getRecommendedProducts(userId);
-                    if (productsResponse != null && productsResponse.getCode() == 0) {
-                        homePageData.setRecommendedProducts(productsResponse.getData());
-                        log.debug("推荐产品获取成功");
-                    } else {
-                        log.error("获取推荐产品失败: {}", productsResponse != null ? productsResponse.getMessage() : "响应为空");
-                        homePageData.setDisplayMessage("部分数据加载失败");
-                    }
-                } catch (Exception e) {
-                    log.error("获取推荐产品失败: {}", e.getMessage());
-                    homePageData.setDisplayMessage("部分数据加载失败");
-                }
-            }, executorService);
-            
-            // 等待所有任务完成
-            CompletableFuture.allOf(userFuture, pointsFuture, productsFuture).join();
-            
-            long endTime = System.currentTimeMillis();
-            log.info("首页数据聚合完成，用户ID: {}, 耗时: {}ms", userId, endTime - startTime);
-            
-            return ApiResponse.success(homePageData);
-            
-        } catch (Exception e) {
-            log.error("首页数据聚合异常: {}", e.getMessage(), e);
-            homePageData.setDisplayMessage("数据加载失败，请稍后重试");
-            return ApiResponse.success(homePageData);
-        }
+    public CompletableFuture<ResponseEntity<ApiResponse<HomePageData>>> getHomePageData(
+            @PathVariable @Min(value = 1, message = "用户ID必须大于0") Long userId,
+            @RequestParam(value = FieldSelection.PARAMETER, required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = ETags.IF_NONE_MATCH_SECTIONS, required = false) String ifNoneMatchSections) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        return homePageAggregationService.aggregate(userId, selection, SectionListener.NONE)
+                .thenApply(homePageData -> toResponse(homePageData, selection, ifNoneMatch, ifNoneMatchSections))
+                .exceptionally(e -> {
+                    log.error("首页数据聚合异常: {}", e.getMessage(), e);
+                    HomePageData homePageData = new HomePageData();
+                    homePageData.setDisplayMessage("数据加载失败，请稍后重试");
+                    return ResponseEntity.ok()
+                            .cacheControl(CacheControl.noStore())
+                            .body(ApiResponse.success(homePageData));
+                });
     }
-    
+
+    /**
+     * 以SSE流式获取首页数据
+     * 每个板块就绪时发送一个 section 事件，全部板块结束或延迟预算耗尽后发送 complete 事件并结束响应
+     * @param userId 用户ID
+     * @param fields 字段选择，为空时返回全部板块
+     * @param ifNoneMatchSections 客户端已有的板块版本，版本未变的板块不发送数据
+     * @return SSE事件流
+     */
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamHomePageData(
+            @PathVariable @Min(value = 1, message = "用户ID必须大于0") Long userId,
+            @RequestParam(value = FieldSelection.PARAMETER, required = false) String fields,
+            @RequestHeader(value = ETags.IF_NONE_MATCH_SECTIONS, required = false) String ifNoneMatchSections) {
+        SseEmitter emitter = new SseEmitter(properties.getStreaming().getTimeout().toMillis());
+        stream(userId, FieldSelection.parse(fields), ifNoneMatchSections, emitter, (type, body) ->
+                emitter.send(SseEmitter.event()
+                        .name(type)
+                        .data(body, MediaType.APPLICATION_JSON)));
+        return streamingResponse(emitter);
+    }
+
+    /**
+     * 以NDJSON流式获取首页数据，每行一个事件，事件内容与SSE接口一致
+     * @param userId 用户ID
+     * @param fields 字段选择，为空时返回全部板块
+     * @param ifNoneMatchSections 客户端已有的板块版本，版本未变的板块不发送数据
+     * @return NDJSON事件流
+     */
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamHomePageDataAsNdjson(
+            @PathVariable @Min(value = 1, message = "用户ID必须大于0") Long userId,
+            @RequestParam(value = FieldSelection.PARAMETER, required = false) String fields,
+            @RequestHeader(value = ETags.IF_NONE_MATCH_SECTIONS, required = false) String ifNoneMatchSections) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(properties.getStreaming().getTimeout().toMillis());
+        stream(userId, FieldSelection.parse(fields), ifNoneMatchSections, emitter, (type, body) -> {
+            // 板块在各自的下游回调线程上就绪，事件和换行符必须连续写出，否则并发事件会交错成非法的行
+            // send 本身以emitter为锁，这里持有同一把锁把两次写入合为一个整体
+            synchronized (emitter) {
+                emitter.send(body, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            }
+        });
+        return streamingResponse(emitter);
+    }
+
     /**
      * 健康检查接口
      * @return 服务状态信息
@@ -126,4 +135,117 @@ public class AggregationController {
     public ApiResponse<String> health() {
         return ApiResponse.success("Aggregation Service is UP");
     }
-}
\ No newline at end of file
+
+    /**
+     * 发起聚合并把板块就绪、聚合结束依次写入事件流
+     * 客户端断开后写入失败的事件直接丢弃，聚合本身不中断，结果仍会写入板块缓存
+     * @param userId 用户ID
+     * @param selection 字段选择
+     * @param ifNoneMatchSections 客户端已有的板块版本
+     * @param emitter 响应事件流
+     * @param writer 事件写入方式
+     */
+    private void stream(Long userId, FieldSelection selection, String ifNoneMatchSections,
+                        ResponseBodyEmitter emitter, EventWriter writer) {
+        Map<HomePageSection, String> clientVersions = ETags.parseSectionVersions(ifNoneMatchSections);
+        homePageAggregationService.aggregate(userId, selection, (section, result) ->
+                        write(writer, toSectionEvent(section, result, clientVersions), selection))
+                .whenComplete((homePageData, e) -> {
+                    if (e != null) {
+                        log.error("首页数据流式聚合异常: {}", e.getMessage(), e);
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                    omitUnchangedSections(homePageData, clientVersions);
+                    write(writer, HomePageEvent.complete(homePageData), selection);
+                    emitter.complete();
+                });
+    }
+
+    private HomePageEvent toSectionEvent(HomePageSection section, SectionResult<?> result,
+                                         Map<HomePageSection, String> clientVersions) {
+        if (result.version() != null && result.version().equals(clientVersions.get(section))) {
+            return HomePageEvent.section(section, SectionStatus.NOT_MODIFIED, result.version(), null);
+        }
+        return HomePageEvent.section(section, result.status(), result.version(), result.data());
+    }
+
+    private void write(EventWriter writer, HomePageEvent event, FieldSelection selection) {
+        Object body = event;
+        if (selection.hasFieldFilters()) {
+            MappingJacksonValue filtered = new MappingJacksonValue(event);
+            filtered.setFilters(selection.filters());
+            body = filtered;
+        }
+        try {
+            writer.write(event.getType(), body);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("首页事件写入失败，客户端可能已断开: {}", e.getMessage());
+        }
+    }
+
+    private static <E extends ResponseBodyEmitter> ResponseEntity<E> streamingResponse(E emitter) {
+        // 关闭反向代理的响应缓冲，保证每个事件立即到达客户端
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    private CacheControl cacheControl(HomePageData homePageData) {
+        boolean complete = homePageData.getSectionStatus() != null
+                && homePageData.getSectionStatus().values().stream().allMatch(status -> status == SectionStatus.OK);
+        if (!complete || properties.getHttpCache().getMaxAge().isZero()) {
+            return CacheControl.noStore();
+        }
+        return CacheControl.maxAge(properties.getHttpCache().getMaxAge());
+    }
+
+    private ResponseEntity<ApiResponse<HomePageData>> toResponse(HomePageData homePageData, FieldSelection selection,
+                                                                 String ifNoneMatch, String ifNoneMatchSections) {
+        // 字段选择不同的响应内容不同，ETag需要区分
+        String etag = contentHasher.etag(homePageData, selection.canonical());
+        String sectionETags = ETags.formatSectionVersions(homePageData.getSectionVersions());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl(homePageData))
+                    .header(ETags.SECTION_ETAGS, sectionETags)
+                    .build();
+        }
+        omitUnchangedSections(homePageData, ETags.parseSectionVersions(ifNoneMatchSections));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl(homePageData))
+                .header(ETags.SECTION_ETAGS, sectionETags)
+                .body(ApiResponse.success(homePageData));
+    }
+
+    /**
+     * 去掉客户端已有最新版本的板块，这些板块不再序列化
+     * @param homePageData 首页数据
+     * @param clientVersions 客户端已有的板块版本
+     */
+    private void omitUnchangedSections(HomePageData homePageData, Map<HomePageSection, String> clientVersions) {
+        clientVersions.forEach((section, clientVersion) -> {
+            String version = homePageData.getSectionVersions().get(section);
+            if (version == null || !version.equals(clientVersion)) {
+                return;
+            }
+            switch (section) {
+                case USER -> homePageData.setUser(null);
+                case POINTS -> homePageData.setPoints(null);
+                case RECOMMENDED_PRODUCTS -> homePageData.setRecommendedProducts(null);
+            }
+            homePageData.getSectionStatus().put(section, SectionStatus.NOT_MODIFIED);
+        });
+    }
+
+    /**
+     * 事件写入方式
+     */
+    @FunctionalInterface
+    private interface EventWriter {
+        void write(String type, Object body) throws IOException;
+    }
+}
@@ -0,0 +1,116 @@
+package com.bank.aggregation.etag;
+
+import com.bank.common.model.HomePageData;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * 首页内容摘要计算器
+ * 板块摘要由板块数据的JSON序列化结果计算，在板块写入缓存时计算一次并随缓存保存；
+ * 首页ETag由各板块的状态和摘要、展示消息组合计算，不含ApiResponse和HomePageData的时间戳，内容不变时ETag不变
+ */
+@Component
+public class ContentHasher {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    // 摘要截取的字节数，96位足以区分同一用户的不同版本
+    private static final int HASH_BYTES = 12;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final ObjectWriter writer;
+
+    /**
+     * 构造函数
+     * @param objectMapper Spring Boot配置的ObjectMapper
+     */
+    public ContentHasher(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * 计算板块数据摘要
+     * @param data 板块数据
+     * @return 摘要，数据为null时为null
+     */
+    public String hash(Object data) {
+        if (data == null) {
+            return null;
+        }
+        MessageDigest digest = newDigest();
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            writer.writeValue(out, data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("板块数据摘要计算失败", e);
+        }
+        return encode(digest);
+    }
+
+    /**
+     * 计算首页ETag，使用弱校验ETag，JSON和Smile两种表示的内容相同时ETag相同
+     * @param homePageData 首页数据，需已填充板块状态和板块摘要
+     * @return ETag
+     */
+    public String etag(HomePageData homePageData) {
+        return etag(homePageData, "");
+    }
+
+    /**
+     * 计算首页ETag，同一数据的不同表示（如只选择部分字段）通过variant区分
+     * @param homePageData 首页数据，需已填充板块状态和板块摘要
+     * @param variant 响应表示的规范化描述，完整表示为空字符串
+     * @return ETag
+     */
+    public String etag(HomePageData homePageData, String variant) {
+        MessageDigest digest = newDigest();
+        if (!variant.isEmpty()) {
+            update(digest, variant);
+        }
+        Map<HomePageSection, SectionStatus> sectionStatus = homePageData.getSectionStatus();
+        Map<HomePageSection, String> sectionVersions = homePageData.getSectionVersions();
+        for (HomePageSection section : HomePageSection.values()) {
+            SectionStatus status = sectionStatus != null ? sectionStatus.get(section) : null;
+            String version = sectionVersions != null ? sectionVersions.get(section) : null;
+            update(digest, section.name());
+            update(digest, status != null ? status.name() : "");
+            update(digest, version != null ? version : "");
+        }
+        update(digest, homePageData.getDisplayMessage() != null ? homePageData.getDisplayMessage() : "");
+        return "W/\"" + encode(digest) + "\"";
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        // 分隔符，避免相邻字段拼接产生歧义
+        digest.update((byte) 0);
+    }
+
+    private static String encode(MessageDigest digest) {
+        byte[] hash = digest.digest();
+        byte[] truncated = new byte[HASH_BYTES];
+        System.arraycopy(hash, 0, truncated, 0, HASH_BYTES);
+        return ENCODER.encodeToString(truncated);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " 不可用", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.bank.aggregation.etag;
+
+import com.bank.common.model.HomePageSection;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * ETag相关请求头的解析与生成
+ * 首页ETag使用标准的 ETag / If-None-Match；板块版本使用 Section-ETags 响应头和 If-None-Match-Sections 请求头，
+ * 格式为 USER="摘要", POINTS="摘要", RECOMMENDED_PRODUCTS="摘要"
+ */
+public final class ETags {
+
+    /**
+     * 板块版本响应头
+     */
+    public static final String SECTION_ETAGS = "Section-ETags";
+
+    /**
+     * 客户端已有板块版本的请求头
+     */
+    public static final String IF_NONE_MATCH_SECTIONS = "If-None-Match-Sections";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * 按弱比较判断 If-None-Match 是否与ETag匹配
+     * @param ifNoneMatch If-None-Match 请求头
+     * @param etag 当前ETag
+     * @return 是否匹配
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch) || etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : StringUtils.tokenizeToStringArray(ifNoneMatch, ",")) {
+            if (candidate.equals("*") || opaque(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析 If-None-Match-Sections 请求头
+     * @param header 请求头
+     * @return 客户端已有的板块版本，无法识别的板块忽略
+     */
+    public static Map<HomePageSection, String> parseSectionVersions(String header) {
+        Map<HomePageSection, String> versions = new EnumMap<>(HomePageSection.class);
+        if (!StringUtils.hasText(header)) {
+            return versions;
+        }
+        for (String entry : StringUtils.tokenizeToStringArray(header, ",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                HomePageSection section = HomePageSection.valueOf(entry.substring(0, separator).trim());
+                versions.put(section, unquote(entry.substring(separator + 1).trim()));
+            } catch (IllegalArgumentException e) {
+                // 未知板块忽略
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * 生成 Section-ETags 响应头
+     * @param versions 板块版本
+     * @return 响应头值
+     */
+    public static String formatSectionVersions(Map<HomePageSection, String> versions) {
+        StringJoiner joiner = new StringJoiner(", ");
+        versions.forEach((section, version) -> joiner.add(section.name() + "=\"" + version + "\""));
+        return joiner.toString();
+    }
+
+    private static String opaque(String etag) {
+        String value = etag.trim();
+        if (value.startsWith(WEAK_PREFIX)) {
+            value = value.substring(WEAK_PREFIX.length());
+        }
+        return unquote(value);
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
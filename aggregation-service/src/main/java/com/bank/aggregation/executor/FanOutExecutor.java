@@ -0,0 +1,171 @@
+package com.bank.aggregation.executor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.bank.aggregation.trace.SectionSpan;
+import com.bank.aggregation.trace.TraceContext;
+import com.bank.feign.support.CallDeadline;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 首页聚合扇出执行器
+ * 为每个下游Feign调用分配执行线程，并统计排队等待时间与在途调用数
+ * 提交线程上的板块耗时分解和调用截止时间会传递到执行线程，并记录该任务的排队等待时间
+ */
+@Slf4j
+public class FanOutExecutor implements Executor {
+
+    private final FanOutMode mode;
+    private final ExecutorService delegate;
+
+    // 已提交但尚未结束的调用数（含排队中）
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // 正在执行的调用数
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Timer queueWaitTimer;
+
+    /**
+     * 构造函数
+     * @param mode 执行模式
+     * @param delegate 实际执行任务的线程池
+     * @param meterRegistry 指标注册中心
+     */
+    public FanOutExecutor(FanOutMode mode, ExecutorService delegate, MeterRegistry meterRegistry) {
+        this.mode = mode;
+        this.delegate = delegate;
+        String modeTag = mode.name().toLowerCase();
+        this.queueWaitTimer = Timer.builder("aggregation.fanout.queue.wait")
+                .description("扇出任务从提交到开始执行的等待时间")
+                .tag("mode", modeTag)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("aggregation.fanout.inflight", inFlight, AtomicInteger::get)
+                .description("已提交但尚未完成的下游调用数")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        Gauge.builder("aggregation.fanout.active", active, AtomicInteger::get)
+                .description("正在执行的下游调用数")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 按配置创建扇出执行器
+     * 配置为VIRTUAL但当前JDK不支持虚拟线程时，退化为有界的平台线程池，指标按实际模式打标签
+     * @param mode 执行模式
+     * @param poolSize 平台线程池大小，PLATFORM模式及虚拟线程不可用时生效
+     * @param queueCapacity 平台线程池队列容量，PLATFORM模式及虚拟线程不可用时生效
+     * @param meterRegistry 指标注册中心
+     * @return 扇出执行器
+     */
+    public static FanOutExecutor create(FanOutMode mode, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+        if (mode == FanOutMode.VIRTUAL) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) {
+                log.info("首页扇出执行器使用虚拟线程，每个下游调用一个虚拟线程");
+                return new FanOutExecutor(FanOutMode.VIRTUAL, virtual, meterRegistry);
+            }
+            log.warn("当前JDK({})不支持虚拟线程，首页扇出执行器退化为平台线程池",
+                    Runtime.version().feature());
+        }
+        ExecutorService delegate = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), namedThreadFactory("fanout-platform-"));
+        log.info("首页扇出执行器使用平台线程池，线程数: {}, 队列容量: {}", poolSize, queueCapacity);
+        return new FanOutExecutor(FanOutMode.PLATFORM, delegate, meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submittedAt = System.nanoTime();
+        SectionSpan span = TraceContext.current();
+        Long deadlineNanos = CallDeadline.current();
+        inFlight.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                long queueWaitNanos = System.nanoTime() - submittedAt;
+                queueWaitTimer.record(queueWaitNanos, TimeUnit.NANOSECONDS);
+                if (span != null) {
+                    span.addQueueWait(queueWaitNanos);
+                }
+                active.incrementAndGet();
+                try (TraceContext.Scope ignored = TraceContext.activate(span);
+                     CallDeadline.Scope ignoredDeadline = CallDeadline.activate(deadlineNanos)) {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 获取实际生效的执行模式
+     * @return 执行模式
+     */
+    public FanOutMode getMode() {
+        return mode;
+    }
+
+    /**
+     * 获取在途调用数（含排队中）
+     * @return 在途调用数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 获取正在执行的调用数
+     * @return 正在执行的调用数
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * 关闭执行器，由Spring容器在销毁时调用
+     */
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /**
+     * 通过反射获取虚拟线程执行器，避免编译期依赖JDK 21
+     * @return 虚拟线程执行器，不支持时返回null
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
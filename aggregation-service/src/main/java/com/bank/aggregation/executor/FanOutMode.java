@@ -0,0 +1,16 @@
+package com.bank.aggregation.executor;
+
+/**
+ * 扇出执行模式
+ */
+public enum FanOutMode {
+    /**
+     * 每个下游调用一个虚拟线程（JDK 21+），低版本JDK下退化为PLATFORM模式
+     */
+    VIRTUAL,
+
+    /**
+     * 固定大小的平台线程池，保留用于对比压测
+     */
+    PLATFORM
+}
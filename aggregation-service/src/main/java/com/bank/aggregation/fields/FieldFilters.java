@@ -0,0 +1,72 @@
+package com.bank.aggregation.fields;
+
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.User;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+
+/**
+ * 首页板块实体的Jackson字段过滤器
+ * 通过mix-in为 User、Points、Product 挂上过滤器，实体类本身不加注解，其他服务的序列化不受影响；
+ * 默认过滤器输出全部字段，只有按 fields 参数选择了字段的响应才替换为只输出所选字段的过滤器
+ */
+public final class FieldFilters {
+
+    private static final String USER_FILTER = "homepage.user";
+    private static final String POINTS_FILTER = "homepage.points";
+    private static final String PRODUCT_FILTER = "homepage.product";
+
+    private FieldFilters() {
+    }
+
+    /**
+     * 为ObjectMapper注册mix-in和默认过滤器
+     * @return ObjectMapper构建器定制器
+     */
+    public static Jackson2ObjectMapperBuilderCustomizer customizer() {
+        return builder -> builder
+                .mixIn(User.class, UserFilter.class)
+                .mixIn(Points.class, PointsFilter.class)
+                .mixIn(Product.class, ProductFilter.class)
+                .filters(serializeAll());
+    }
+
+    /**
+     * 输出全部字段的过滤器集合
+     * @return 过滤器集合
+     */
+    static SimpleFilterProvider serializeAll() {
+        return new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .setFailOnUnknownId(false);
+    }
+
+    /**
+     * 板块实体对应的过滤器ID
+     * @param section 板块
+     * @return 过滤器ID
+     */
+    static String filterId(HomePageSection section) {
+        return switch (section) {
+            case USER -> USER_FILTER;
+            case POINTS -> POINTS_FILTER;
+            case RECOMMENDED_PRODUCTS -> PRODUCT_FILTER;
+        };
+    }
+
+    @JsonFilter(USER_FILTER)
+    private interface UserFilter {
+    }
+
+    @JsonFilter(POINTS_FILTER)
+    private interface PointsFilter {
+    }
+
+    @JsonFilter(PRODUCT_FILTER)
+    private interface ProductFilter {
+    }
+}
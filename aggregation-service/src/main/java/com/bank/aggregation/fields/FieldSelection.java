@@ -0,0 +1,176 @@
+package com.bank.aggregation.fields;
+
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.User;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * 首页字段选择
+ * 由 fields 请求参数解析，格式为逗号分隔的板块名，板块名后可用括号列出需要的字段，例如
+ * points 或 user(name,userLevel),recommendedProducts(id,productName,expectedRate)
+ * 板块名与首页响应中的属性名一致；未选择的板块不调用下游也不返回，未列出字段的板块返回全部字段
+ */
+public final class FieldSelection {
+
+    /**
+     * 请求参数名
+     */
+    public static final String PARAMETER = "fields";
+
+    /**
+     * 选择全部板块和字段
+     */
+    public static final FieldSelection ALL = new FieldSelection(EnumSet.allOf(HomePageSection.class),
+            new EnumMap<>(HomePageSection.class));
+
+    private static final Map<String, HomePageSection> SECTIONS_BY_NAME = Map.of(
+            "user", HomePageSection.USER,
+            "points", HomePageSection.POINTS,
+            "recommendedProducts", HomePageSection.RECOMMENDED_PRODUCTS);
+
+    private static final Map<HomePageSection, Set<String>> FIELDS_BY_SECTION = Map.of(
+            HomePageSection.USER, propertiesOf(User.class),
+            HomePageSection.POINTS, propertiesOf(Points.class),
+            HomePageSection.RECOMMENDED_PRODUCTS, propertiesOf(Product.class));
+
+    private final Set<HomePageSection> sections;
+    private final Map<HomePageSection, Set<String>> fields;
+    private final FilterProvider filters;
+
+    private FieldSelection(Set<HomePageSection> sections, Map<HomePageSection, Set<String>> fields) {
+        this.sections = Collections.unmodifiableSet(sections);
+        this.fields = Collections.unmodifiableMap(fields);
+        SimpleFilterProvider provider = FieldFilters.serializeAll();
+        fields.forEach((section, names) ->
+                provider.addFilter(FieldFilters.filterId(section), SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+        this.filters = provider;
+    }
+
+    /**
+     * 解析 fields 请求参数
+     * @param parameter 请求参数，为空时选择全部
+     * @return 字段选择
+     * @throws IllegalArgumentException 板块名、字段名无法识别或括号不匹配
+     */
+    public static FieldSelection parse(String parameter) {
+        if (!StringUtils.hasText(parameter)) {
+            return ALL;
+        }
+        Set<HomePageSection> sections = EnumSet.noneOf(HomePageSection.class);
+        Map<HomePageSection, Set<String>> fields = new EnumMap<>(HomePageSection.class);
+        int i = 0;
+        int length = parameter.length();
+        while (i < length) {
+            int end = i;
+            while (end < length && parameter.charAt(end) != ',' && parameter.charAt(end) != '(') {
+                end++;
+            }
+            String name = parameter.substring(i, end).trim();
+            HomePageSection section = SECTIONS_BY_NAME.get(name);
+            if (section == null) {
+                throw new IllegalArgumentException("无法识别的首页板块: " + name);
+            }
+            sections.add(section);
+            if (end < length && parameter.charAt(end) == '(') {
+                int close = parameter.indexOf(')', end);
+                if (close < 0) {
+                    throw new IllegalArgumentException("fields 参数括号不匹配: " + parameter);
+                }
+                fields.computeIfAbsent(section, key -> new LinkedHashSet<>())
+                        .addAll(parseFields(section, parameter.substring(end + 1, close)));
+                end = close + 1;
+                if (end < length && parameter.charAt(end) != ',') {
+                    throw new IllegalArgumentException("fields 参数格式错误: " + parameter);
+                }
+            }
+            i = end + 1;
+        }
+        return new FieldSelection(sections, fields);
+    }
+
+    /**
+     * 是否选择了板块
+     * @param section 板块
+     * @return 是否选择
+     */
+    public boolean includes(HomePageSection section) {
+        return sections.contains(section);
+    }
+
+    /**
+     * 是否需要按字段过滤序列化结果
+     * @return 存在列出字段的板块时为true
+     */
+    public boolean hasFieldFilters() {
+        return !fields.isEmpty();
+    }
+
+    /**
+     * 序列化时使用的字段过滤器
+     * @return Jackson过滤器
+     */
+    public FilterProvider filters() {
+        return filters;
+    }
+
+    /**
+     * 规范化表示，板块和字段顺序固定，用于区分不同字段选择的ETag
+     * @return 规范化表示，选择全部时为空字符串
+     */
+    public String canonical() {
+        if (this == ALL) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (HomePageSection section : sections) {
+            Set<String> names = fields.get(section);
+            joiner.add(names == null ? section.name()
+                    : section.name() + "(" + String.join(",", names.stream().sorted().toList()) + ")");
+        }
+        return joiner.toString();
+    }
+
+    @Override
+    public String toString() {
+        return this == ALL ? "ALL" : canonical();
+    }
+
+    private static Set<String> parseFields(HomePageSection section, String list) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : StringUtils.tokenizeToStringArray(list, ",")) {
+            if (!FIELDS_BY_SECTION.get(section).contains(name)) {
+                throw new IllegalArgumentException("板块 " + section + " 不存在字段: " + name);
+            }
+            names.add(name);
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("板块 " + section + " 未列出字段");
+        }
+        return names;
+    }
+
+    private static Set<String> propertiesOf(Class<?> type) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                names.add(field.getName());
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.aggregation.fields;
+
+import com.bank.aggregation.controller.AggregationController;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * 按 fields 参数过滤首页响应的字段
+ * 对JSON和Smile响应同样生效，未列出字段的请求不做处理
+ */
+@ControllerAdvice(assignableTypes = AggregationController.class)
+public class FieldSelectionResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        FieldSelection selection = FieldSelection.parse(
+                servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER));
+        if (selection.hasFieldFilters()) {
+            bodyContainer.setFilters(selection.filters());
+        }
+    }
+}
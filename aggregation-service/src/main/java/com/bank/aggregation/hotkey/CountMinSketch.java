@@ -0,0 +1,83 @@
+package com.bank.aggregation.hotkey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch 频次估计
+ * 固定内存，计数只会高估不会低估；计数器为原子数组，多线程记录无锁
+ * 衰减时各计数器减半，与并发记录之间不加锁，个别计数的误差可以接受
+ */
+final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+
+    // 每行使用不同的种子，使同一个键在各行落到互不相关的位置
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * 构造函数
+     * @param width 每行计数器数，向上取整为2的幂
+     */
+    CountMinSketch(int width) {
+        this.width = Integer.highestOneBit(Math.max(16, width) - 1) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(DEPTH * this.width);
+    }
+
+    /**
+     * 记录一次出现
+     * @param key 键
+     * @return 记录后的频次估计
+     */
+    long increment(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * 估计频次
+     * @param key 键
+     * @return 频次估计
+     */
+    long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * 全部计数减半
+     */
+    void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+    }
+
+    private int index(int row, long key) {
+        return row * width + (int) (mix(key ^ SEEDS[row]) & mask);
+    }
+
+    /**
+     * 64位混合函数（MurmurHash3 finalizer）
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
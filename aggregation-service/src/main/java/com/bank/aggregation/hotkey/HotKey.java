@@ -0,0 +1,12 @@
+package com.bank.aggregation.hotkey;
+
+import java.time.Instant;
+
+/**
+ * 热点用户
+ * @param userId 用户ID
+ * @param estimatedHits 衰减后的访问次数估计
+ * @param hotSince 成为热点的时间
+ */
+public record HotKey(Long userId, long estimatedHits, Instant hotSince) {
+}
@@ -0,0 +1,216 @@
+package com.bank.aggregation.hotkey;
+
+import com.bank.aggregation.cache.HomePageSectionCache;
+import com.bank.aggregation.config.AggregationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热点用户识别
+ * 每次首页请求的用户ID计入Count-Min Sketch，估计次数达到准入门槛的用户进入候选集合；
+ * 每个统计窗口结束时从候选中选出访问次数最多的Top-K作为热点用户，固定其首页板块到近端缓存，不再是热点的取消固定，
+ * 随后所有计数减半；近端缓存中的板块按刷新间隔在后台刷新
+ * 记录路径只有一次Sketch累加、一次门槛比较和一次无锁的候选查询，只有新进入候选集合的用户才需要加锁
+ */
+@Slf4j
+@Component
+public class HotKeyDetector {
+
+    private final HomePageSectionCache homePageSectionCache;
+    private final AggregationProperties.HotKeys hotKeys;
+
+    // 未开启时以下两个字段为null
+    private final CountMinSketch sketch;
+    private final ScheduledExecutorService scheduler;
+
+    // 候选集合的容量，为Top-K的两倍，留出窗口内后来居上的余地
+    private final int candidateCapacity;
+
+    // 候选用户，读取无锁，增删在锁内进行
+    private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+    private final Object lock = new Object();
+
+    // 进入候选集合的最低次数估计，候选集合未满时等于minHits
+    private volatile long admissionThreshold;
+
+    // 当前热点用户，按访问次数从多到少排列，整体替换
+    private volatile List<HotKey> current = List.of();
+
+    /**
+     * 构造函数
+     * @param homePageSectionCache 首页板块缓存
+     * @param properties 聚合服务配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public HotKeyDetector(HomePageSectionCache homePageSectionCache, AggregationProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.homePageSectionCache = homePageSectionCache;
+        this.hotKeys = properties.getHotKeys();
+        this.candidateCapacity = Math.max(1, hotKeys.getTopK()) * 2;
+        this.admissionThreshold = hotKeys.getMinHits();
+        if (!hotKeys.isEnabled()) {
+            this.sketch = null;
+            this.scheduler = null;
+            return;
+        }
+        this.sketch = new CountMinSketch(hotKeys.getSketchWidth());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "homepage-hot-keys");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long windowMillis = hotKeys.getWindow().toMillis();
+        long refreshMillis = hotKeys.getRefreshInterval().toMillis();
+        scheduler.scheduleAtFixedRate(() -> runSafely(this::rotate), windowMillis, windowMillis,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runSafely(homePageSectionCache::refreshPinned), refreshMillis,
+                refreshMillis, TimeUnit.MILLISECONDS);
+        Gauge.builder("aggregation.hotkeys.pinned", this, detector -> detector.current.size())
+                .description("固定在近端缓存中的热点用户数")
+                .register(meterRegistry);
+        log.info("热点用户识别已开启，Top-K: {}, 统计窗口: {}, 最少访问次数: {}, 近端缓存刷新间隔: {}",
+                hotKeys.getTopK(), hotKeys.getWindow(), hotKeys.getMinHits(), hotKeys.getRefreshInterval());
+    }
+
+    /**
+     * 记录一次首页请求
+     * @param userId 用户ID
+     */
+    public void record(Long userId) {
+        if (sketch == null || userId == null) {
+            return;
+        }
+        long estimate = sketch.increment(userId);
+        if (estimate < admissionThreshold || candidates.contains(userId)) {
+            return;
+        }
+        synchronized (lock) {
+            if (candidates.add(userId) && candidates.size() > candidateCapacity) {
+                evictColdest();
+            }
+        }
+    }
+
+    /**
+     * 当前热点用户
+     * @return 按访问次数从多到少排列的热点用户
+     */
+    public List<HotKey> hotKeys() {
+        return current;
+    }
+
+    /**
+     * 停止统计和刷新
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 结束一个统计窗口：选出热点用户，调整近端缓存中固定的用户，然后衰减计数
+     */
+    private void rotate() {
+        List<HotKey> previous = current;
+        Map<Long, Instant> hotSince = new HashMap<>();
+        for (HotKey hotKey : previous) {
+            hotSince.put(hotKey.userId(), hotKey.hotSince());
+        }
+        Instant now = Instant.now();
+        List<HotKey> next = new ArrayList<>();
+        synchronized (lock) {
+            List<Map.Entry<Long, Long>> ranked = new ArrayList<>(candidates.size());
+            for (Long userId : candidates) {
+                ranked.add(Map.entry(userId, sketch.estimate(userId)));
+            }
+            ranked.sort(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()));
+            for (Map.Entry<Long, Long> entry : ranked) {
+                if (next.size() >= hotKeys.getTopK() || entry.getValue() < hotKeys.getMinHits()) {
+                    break;
+                }
+                next.add(new HotKey(entry.getKey(), entry.getValue(), hotSince.getOrDefault(entry.getKey(), now)));
+            }
+
+            sketch.decay();
+            // 衰减后仍达到门槛的候选保留，其余移出，下个窗口重新累积
+            candidates.clear();
+            for (Map.Entry<Long, Long> entry : ranked) {
+                long decayed = entry.getValue() >>> 1;
+                if (decayed >= hotKeys.getMinHits() && candidates.size() < candidateCapacity) {
+                    candidates.add(entry.getKey());
+                }
+            }
+            admissionThreshold = candidates.size() < candidateCapacity
+                    ? hotKeys.getMinHits() : minCandidateEstimate();
+        }
+        current = List.copyOf(next);
+
+        Set<Long> hotUserIds = new HashSet<>();
+        for (HotKey hotKey : next) {
+            hotUserIds.add(hotKey.userId());
+            if (!hotSince.containsKey(hotKey.userId())) {
+                homePageSectionCache.pin(hotKey.userId());
+                log.info("用户 {} 成为热点，估计访问次数: {}，首页板块已固定到近端缓存", hotKey.userId(),
+                        hotKey.estimatedHits());
+            }
+        }
+        for (HotKey hotKey : previous) {
+            if (!hotUserIds.contains(hotKey.userId())) {
+                homePageSectionCache.unpin(hotKey.userId());
+                log.info("用户 {} 不再是热点，取消固定", hotKey.userId());
+            }
+        }
+    }
+
+    /**
+     * 按当前次数估计移出候选集合中次数最少的用户，并把准入门槛提高到剩余候选的最小次数
+     */
+    private void evictColdest() {
+        Long coldest = null;
+        long coldestEstimate = Long.MAX_VALUE;
+        for (Long userId : candidates) {
+            long estimate = sketch.estimate(userId);
+            if (estimate < coldestEstimate) {
+                coldest = userId;
+                coldestEstimate = estimate;
+            }
+        }
+        candidates.remove(coldest);
+        admissionThreshold = Math.max(hotKeys.getMinHits(), minCandidateEstimate());
+    }
+
+    private long minCandidateEstimate() {
+        long min = Long.MAX_VALUE;
+        for (Long userId : candidates) {
+            min = Math.min(min, sketch.estimate(userId));
+        }
+        return min == Long.MAX_VALUE ? hotKeys.getMinHits() : min;
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            // 异常不能抛出，否则后续周期不再执行
+            log.warn("热点用户任务异常: {}", e.getMessage(), e);
+        }
+    }
+}
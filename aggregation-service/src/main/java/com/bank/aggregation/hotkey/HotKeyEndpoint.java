@@ -0,0 +1,41 @@
+package com.bank.aggregation.hotkey;
+
+import com.bank.aggregation.config.AggregationProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 热点用户端点 /actuator/hotkeys
+ * 返回当前识别出的热点用户及统计参数，列出的用户首页板块均已固定在近端缓存中
+ * 结果包含用户ID，只在内网访问，网关拒绝转发 /{服务名}/actuator/**
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeyEndpoint {
+
+    private final HotKeyDetector hotKeyDetector;
+
+    private final AggregationProperties properties;
+
+    /**
+     * 查询热点用户
+     * @return 热点用户和统计参数
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        AggregationProperties.HotKeys hotKeys = properties.getHotKeys();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", hotKeys.isEnabled());
+        result.put("topK", hotKeys.getTopK());
+        result.put("window", hotKeys.getWindow().toString());
+        result.put("minHits", hotKeys.getMinHits());
+        result.put("hotKeys", hotKeyDetector.hotKeys());
+        return result;
+    }
+}
@@ -0,0 +1,159 @@
+package com.bank.aggregation.metrics;
+
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
+import com.bank.common.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 首页聚合指标
+ * 按板块记录下游调用耗时和板块就绪耗时，记录整体聚合耗时，并统计降级、超时和部分返回次数
+ * 所有耗时指标都发布百分位直方图和p50/p95/p99，用于定位拖慢p99的下游服务
+ * 指标在启动时预先注册，记录时不再查找注册中心
+ */
+@Component
+public class AggregationMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final Map<HomePageSection, Map<DownstreamOutcome, Timer>> downstreamTimers =
+            new EnumMap<>(HomePageSection.class);
+    private final Map<HomePageSection, Map<SectionStatus, Timer>> sectionTimers = new EnumMap<>(HomePageSection.class);
+    private final Map<HomePageSection, Counter> fallbackCounters = new EnumMap<>(HomePageSection.class);
+    private final Map<HomePageSection, Counter> timeoutCounters = new EnumMap<>(HomePageSection.class);
+    private final Timer completeTimer;
+    private final Timer partialTimer;
+    private final Counter partialCounter;
+
+    /**
+     * 构造函数
+     * @param meterRegistry 指标注册中心
+     */
+    public AggregationMetrics(MeterRegistry meterRegistry) {
+        for (HomePageSection section : HomePageSection.values()) {
+            String sectionTag = section.name().toLowerCase();
+            Map<DownstreamOutcome, Timer> byOutcome = new EnumMap<>(DownstreamOutcome.class);
+            for (DownstreamOutcome outcome : DownstreamOutcome.values()) {
+                byOutcome.put(outcome, latencyTimer("aggregation.downstream.latency", "下游调用耗时，不含缓存命中")
+                        .tag("section", sectionTag)
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            downstreamTimers.put(section, byOutcome);
+
+            Map<SectionStatus, Timer> byStatus = new EnumMap<>(SectionStatus.class);
+            for (SectionStatus status : SectionStatus.values()) {
+                byStatus.put(status, latencyTimer("aggregation.section.latency", "从请求开始到板块就绪的耗时，含缓存命中")
+                        .tag("section", sectionTag)
+                        .tag("status", status.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            sectionTimers.put(section, byStatus);
+
+            fallbackCounters.put(section, Counter.builder("aggregation.section.fallbacks")
+                    .description("下游返回降级数据的次数")
+                    .tag("section", sectionTag)
+                    .register(meterRegistry));
+            timeoutCounters.put(section, Counter.builder("aggregation.section.timeouts")
+                    .description("板块超出延迟预算未返回的次数")
+                    .tag("section", sectionTag)
+                    .register(meterRegistry));
+        }
+        this.completeTimer = latencyTimer("aggregation.homepage.latency", "首页聚合整体耗时")
+                .tag("result", "complete")
+                .register(meterRegistry);
+        this.partialTimer = latencyTimer("aggregation.homepage.latency", "首页聚合整体耗时")
+                .tag("result", "partial")
+                .register(meterRegistry);
+        this.partialCounter = Counter.builder("aggregation.homepage.partial")
+                .description("存在失败或超时板块的首页响应次数，过期板块不计入")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 执行下游调用并记录耗时，降级响应同时计入降级次数
+     * @param section 板块
+     * @param call 下游调用
+     * @param <T> 板块数据类型
+     * @return 下游调用结果
+     */
+    public <T> CompletableFuture<ApiResponse<T>> timeDownstream(HomePageSection section,
+                                                                Supplier<CompletableFuture<ApiResponse<T>>> call) {
+        long start = System.nanoTime();
+        CompletableFuture<ApiResponse<T>> future;
+        try {
+            future = call.get();
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((response, ex) -> {
+            DownstreamOutcome outcome = DownstreamOutcome.of(response, ex);
+            downstreamTimers.get(section).get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (outcome == DownstreamOutcome.FALLBACK) {
+                fallbackCounters.get(section).increment();
+            }
+        });
+    }
+
+    /**
+     * 记录板块就绪耗时
+     * @param section 板块
+     * @param status 板块状态
+     * @param nanos 从请求开始到板块就绪的纳秒数
+     */
+    public void recordSection(HomePageSection section, SectionStatus status, long nanos) {
+        sectionTimers.get(section).get(status).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录板块超出延迟预算
+     * @param section 板块
+     */
+    public void recordTimeout(HomePageSection section) {
+        timeoutCounters.get(section).increment();
+    }
+
+    /**
+     * 记录一次首页聚合
+     * @param nanos 聚合耗时纳秒数
+     * @param partial 是否存在失败或超时的板块
+     */
+    public void recordAggregation(long nanos, boolean partial) {
+        if (partial) {
+            partialCounter.increment();
+            partialTimer.record(nanos, TimeUnit.NANOSECONDS);
+        } else {
+            completeTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer.Builder latencyTimer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .publishPercentiles(PERCENTILES);
+    }
+
+    /**
+     * 下游调用结果类型
+     */
+    private enum DownstreamOutcome {
+        SUCCESS, FALLBACK, ERROR;
+
+        static DownstreamOutcome of(ApiResponse<?> response, Throwable ex) {
+            if (ex != null || response == null || response.getCode() != 0) {
+                return ERROR;
+            }
+            return response.isFallback() ? FALLBACK : SUCCESS;
+        }
+    }
+}
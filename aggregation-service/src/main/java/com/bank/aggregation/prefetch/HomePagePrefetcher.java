@@ -0,0 +1,193 @@
+package com.bank.aggregation.prefetch;
+
+import com.bank.aggregation.cache.HomePageSectionCache;
+import com.bank.aggregation.cache.PrefetchOutcome;
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.executor.FanOutExecutor;
+import com.bank.common.model.HomePageSection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * 首页预取器
+ * 按固定间隔为近期活跃、或习惯在即将到来的时段登录的用户预取首页板块，使早高峰的首次请求命中缓存
+ * 预取在单个低优先级线程上按限速逐个发起，同时进行的用户数有上限；扇出执行器繁忙时本轮立即停止，不与实时请求争抢下游
+ * 缓存中仍然新鲜的板块不调用下游；缓存时长不超过预取间隔的板块不参与预取；推荐产品在用户、积分板块预取完成后再预取
+ */
+@Slf4j
+@Component
+public class HomePagePrefetcher {
+
+    private final HomePageSectionCache homePageSectionCache;
+    private final UserActivityTracker userActivityTracker;
+    private final FanOutExecutor fanOutExecutor;
+    private final AggregationProperties.Prefetch prefetch;
+    private final List<HomePageSection> sections = new ArrayList<>();
+    private final Map<HomePageSection, Map<PrefetchOutcome, Counter>> sectionCounters =
+            new EnumMap<>(HomePageSection.class);
+    private final Counter userCounter;
+    private final Counter pausedCounter;
+    private final Semaphore permits;
+
+    // 未开启预取或没有可预取的板块时为null
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 构造函数
+     * @param homePageSectionCache 首页板块缓存
+     * @param userActivityTracker 用户活跃记录
+     * @param fanOutExecutor 扇出执行器，用于判断实时流量是否繁忙
+     * @param properties 聚合服务配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public HomePagePrefetcher(HomePageSectionCache homePageSectionCache, UserActivityTracker userActivityTracker,
+                              FanOutExecutor fanOutExecutor, AggregationProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.homePageSectionCache = homePageSectionCache;
+        this.userActivityTracker = userActivityTracker;
+        this.fanOutExecutor = fanOutExecutor;
+        this.prefetch = properties.getPrefetch();
+        this.permits = new Semaphore(Math.max(1, prefetch.getConcurrency()));
+        this.userCounter = Counter.builder("aggregation.prefetch.users")
+                .description("发起预取的用户数")
+                .register(meterRegistry);
+        this.pausedCounter = Counter.builder("aggregation.prefetch.paused")
+                .description("因实时流量繁忙而暂停的预取轮次")
+                .register(meterRegistry);
+
+        AggregationProperties.Cache cache = properties.getCache();
+        if (prefetch.isEnabled() && cache.isEnabled()) {
+            addIfOutlivesInterval(HomePageSection.USER, cache.getUser(), meterRegistry);
+            addIfOutlivesInterval(HomePageSection.POINTS, cache.getPoints(), meterRegistry);
+            addIfOutlivesInterval(HomePageSection.RECOMMENDED_PRODUCTS, cache.getRecommendedProducts(),
+                    meterRegistry);
+        }
+        if (sections.isEmpty()) {
+            this.scheduler = null;
+            if (prefetch.isEnabled()) {
+                log.warn("首页预取已开启，但板块缓存未开启或缓存时长都不超过预取间隔 {}，不进行预取", prefetch.getInterval());
+            }
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "homepage-prefetcher");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        long intervalMillis = prefetch.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::runSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("首页预取已开启，间隔: {}, 预取板块: {}, 限速: {}用户/秒", prefetch.getInterval(), sections,
+                prefetch.getUsersPerSecond());
+    }
+
+    /**
+     * 停止预取
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void addIfOutlivesInterval(HomePageSection section, AggregationProperties.CacheSpec spec,
+                                       MeterRegistry meterRegistry) {
+        if (spec.getTtl().compareTo(prefetch.getInterval()) <= 0) {
+            return;
+        }
+        sections.add(section);
+        Map<PrefetchOutcome, Counter> byOutcome = new EnumMap<>(PrefetchOutcome.class);
+        for (PrefetchOutcome outcome : PrefetchOutcome.values()) {
+            byOutcome.put(outcome, Counter.builder("aggregation.prefetch.sections")
+                    .description("板块预取次数")
+                    .tag("section", section.name().toLowerCase())
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        sectionCounters.put(section, byOutcome);
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // 异常不能抛出，否则后续轮次不再执行
+            log.warn("首页预取异常: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行一轮预取
+     * @throws InterruptedException 停止预取时被中断
+     */
+    private void runOnce() throws InterruptedException {
+        if (busy()) {
+            pausedCounter.increment();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Long> userIds = userActivityTracker.candidates(now, now + prefetch.getLookahead().toMillis(),
+                prefetch.getActiveWithin().toMillis(), prefetch.getMinLoginsInWindow(), prefetch.getMaxUsersPerRun());
+        long pacingNanos = (long) (TimeUnit.SECONDS.toNanos(1) / prefetch.getUsersPerSecond());
+        long next = System.nanoTime();
+        int prefetched = 0;
+        for (Long userId : userIds) {
+            if (busy()) {
+                pausedCounter.increment();
+                break;
+            }
+            next += pacingNanos;
+            long remaining;
+            while ((remaining = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            permits.acquire();
+            prefetchUser(userId).whenComplete((ignored, ex) -> permits.release());
+            userCounter.increment();
+            prefetched++;
+        }
+        log.debug("本轮首页预取完成，候选用户: {}, 已预取: {}, 耗时: {}", userIds.size(), prefetched,
+                Duration.ofMillis(System.currentTimeMillis() - now));
+    }
+
+    private CompletableFuture<Void> prefetchUser(Long userId) {
+        // 推荐产品只使用缓存中已有的用户、积分等级，等这两个板块预取完成后再预取
+        return prefetchSections(userId, section -> section != HomePageSection.RECOMMENDED_PRODUCTS)
+                .thenCompose(ignored -> prefetchSections(userId,
+                        section -> section == HomePageSection.RECOMMENDED_PRODUCTS));
+    }
+
+    private CompletableFuture<Void> prefetchSections(Long userId, Predicate<HomePageSection> filter) {
+        return CompletableFuture.allOf(sections.stream()
+                .filter(filter)
+                .map(section -> homePageSectionCache.prefetch(section, userId)
+                        .thenAccept(outcome -> sectionCounters.get(section).get(outcome).increment()))
+                .toArray(CompletableFuture<?>[]::new));
+    }
+
+    private boolean busy() {
+        return fanOutExecutor.getInFlight() > prefetch.getPauseAboveInFlight();
+    }
+}
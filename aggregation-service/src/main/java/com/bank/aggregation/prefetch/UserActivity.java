@@ -0,0 +1,93 @@
+package com.bank.aggregation.prefetch;
+
+/**
+ * 单个用户的活跃信息
+ * 记录最近活跃时间，并按一天中的小时分别统计首页访问和登录次数，用于推断用户的习惯登录时段
+ * 访问和登录各自计数：一次请求先记录当前访问、再记录更早的登录时间，两者互不影响
+ * 同一类记录在同一个整点小时内只计一次，早于该类已计数时段的记录（如重复读到的同一次登录时间）不再计数；
+ * 计数达到上限时该类全部减半，使较早的习惯逐渐淡出
+ */
+final class UserActivity {
+
+    private static final int HOURS_PER_DAY = 24;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    private final HourHistogram visits = new HourHistogram();
+
+    private final HourHistogram logins = new HourHistogram();
+
+    private volatile long lastSeenMillis;
+
+    /**
+     * 记录一次首页访问
+     * @param epochMillis 访问时间
+     * @param hourOfDay 访问时间在本地时区中的小时
+     */
+    synchronized void recordVisit(long epochMillis, int hourOfDay) {
+        see(epochMillis);
+        visits.count(epochMillis, hourOfDay);
+    }
+
+    /**
+     * 记录一次登录
+     * @param epochMillis 登录时间
+     * @param hourOfDay 登录时间在本地时区中的小时
+     */
+    synchronized void recordLogin(long epochMillis, int hourOfDay) {
+        see(epochMillis);
+        logins.count(epochMillis, hourOfDay);
+    }
+
+    /**
+     * 最近活跃时间
+     * @return 纪元毫秒
+     */
+    long lastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    /**
+     * 该小时是否为习惯登录时段，访问或登录任一计数达到下限即可
+     * @param hourOfDay 一天中的小时
+     * @param minLogins 最少登录次数
+     * @return 是否为习惯登录时段
+     */
+    synchronized boolean usuallyActiveAt(int hourOfDay, int minLogins) {
+        return visits.countAt(hourOfDay) >= minLogins || logins.countAt(hourOfDay) >= minLogins;
+    }
+
+    private void see(long epochMillis) {
+        if (epochMillis > lastSeenMillis) {
+            lastSeenMillis = epochMillis;
+        }
+    }
+
+    /**
+     * 按一天中的小时计数，由外层UserActivity加锁
+     */
+    private static final class HourHistogram {
+
+        private final byte[] byHour = new byte[HOURS_PER_DAY];
+
+        // 最近一次计数所在的整点小时（从纪元起算），只增不减
+        private long lastCountedHour = Long.MIN_VALUE;
+
+        void count(long epochMillis, int hourOfDay) {
+            long epochHour = epochMillis / MILLIS_PER_HOUR;
+            if (epochHour <= lastCountedHour) {
+                return;
+            }
+            lastCountedHour = epochHour;
+            if (byHour[hourOfDay] == Byte.MAX_VALUE) {
+                for (int i = 0; i < HOURS_PER_DAY; i++) {
+                    byHour[i] >>= 1;
+                }
+            }
+            byHour[hourOfDay]++;
+        }
+
+        int countAt(int hourOfDay) {
+            return byHour[hourOfDay];
+        }
+    }
+}
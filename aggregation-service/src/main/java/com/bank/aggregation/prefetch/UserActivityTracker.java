@@ -0,0 +1,126 @@
+package com.bank.aggregation.prefetch;
+
+import com.bank.aggregation.config.AggregationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户活跃记录
+ * 记录访问首页的时间和用户信息中的最近登录时间（User.lastLoginTime），为首页预取挑选即将打开应用的用户
+ * 只在开启预取时记录，按最大用户数和保留时长淘汰
+ */
+@Component
+public class UserActivityTracker {
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // 未开启预取时为null，不记录
+    private final Cache<Long, UserActivity> activities;
+
+    /**
+     * 构造函数
+     * @param properties 聚合服务配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public UserActivityTracker(AggregationProperties properties, MeterRegistry meterRegistry) {
+        AggregationProperties.Prefetch prefetch = properties.getPrefetch();
+        if (prefetch.isEnabled()) {
+            this.activities = Caffeine.newBuilder()
+                    .maximumSize(prefetch.getMaximumTrackedUsers())
+                    .expireAfterAccess(prefetch.getRetention())
+                    .build();
+            Gauge.builder("aggregation.prefetch.tracked.users", activities, Cache::estimatedSize)
+                    .description("记录了活跃信息的用户数")
+                    .register(meterRegistry);
+        } else {
+            this.activities = null;
+        }
+    }
+
+    /**
+     * 记录一次首页访问
+     * @param userId 用户ID
+     */
+    public void recordVisit(Long userId) {
+        UserActivity activity = activityOf(userId);
+        if (activity != null) {
+            long now = System.currentTimeMillis();
+            activity.recordVisit(now, hourOf(now));
+        }
+    }
+
+    /**
+     * 记录用户信息中的最近登录时间
+     * @param userId 用户ID
+     * @param lastLoginTime 最近登录时间，可为null
+     */
+    public void recordLogin(Long userId, LocalDateTime lastLoginTime) {
+        UserActivity activity = lastLoginTime != null ? activityOf(userId) : null;
+        if (activity != null) {
+            long loginMillis = lastLoginTime.atZone(zone).toInstant().toEpochMilli();
+            activity.recordLogin(loginMillis, hourOf(loginMillis));
+        }
+    }
+
+    /**
+     * 挑选预取用户：先取习惯在目标时段登录、但最近未活跃的用户，再按最近活跃时间从近到远取活跃用户
+     * @param nowMillis 当前时间
+     * @param targetMillis 目标时刻，习惯在该时刻所在小时登录的用户优先
+     * @param activeWithinMillis 活跃用户的时间范围
+     * @param minLoginsInWindow 习惯登录时段的最少登录次数
+     * @param limit 最多用户数
+     * @return 用户ID，按预取先后排列
+     */
+    List<Long> candidates(long nowMillis, long targetMillis, long activeWithinMillis, int minLoginsInWindow,
+                          int limit) {
+        if (activities == null) {
+            return List.of();
+        }
+        int targetHour = hourOf(targetMillis);
+        Set<Long> selected = new LinkedHashSet<>();
+        List<Map.Entry<Long, UserActivity>> active = new ArrayList<>();
+        for (Map.Entry<Long, UserActivity> entry : activities.asMap().entrySet()) {
+            UserActivity activity = entry.getValue();
+            boolean recentlyActive = nowMillis - activity.lastSeenMillis() <= activeWithinMillis;
+            if (!recentlyActive && activity.usuallyActiveAt(targetHour, minLoginsInWindow)) {
+                selected.add(entry.getKey());
+            } else if (recentlyActive) {
+                active.add(entry);
+            }
+        }
+        active.sort(Comparator.comparingLong(
+                (Map.Entry<Long, UserActivity> entry) -> entry.getValue().lastSeenMillis()).reversed());
+        for (Map.Entry<Long, UserActivity> entry : active) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            selected.add(entry.getKey());
+        }
+        List<Long> result = new ArrayList<>(selected);
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    private UserActivity activityOf(Long userId) {
+        if (activities == null || userId == null) {
+            return null;
+        }
+        return activities.get(userId, key -> new UserActivity());
+    }
+
+    private int hourOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).getHour();
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.aggregation.service;
+
+/**
+ * 首页聚合模式
+ */
+public enum AggregationMode {
+    /**
+     * 阻塞模式：通过Feign客户端在扇出执行器上并行调用下游服务
+     */
+    BLOCKING,
+
+    /**
+     * 响应式模式：通过非阻塞WebClient调用下游服务，不为每个请求占用线程
+     */
+    REACTIVE
+}
@@ -0,0 +1,68 @@
+package com.bank.aggregation.service;
+
+import com.bank.aggregation.executor.FanOutExecutor;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
+import com.bank.common.model.User;
+import com.bank.common.response.ApiResponse;
+import com.bank.feign.client.PointServiceClient;
+import com.bank.feign.client.ProductServiceClient;
+import com.bank.feign.client.UserServiceClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 阻塞模式首页数据源
+ * 在扇出执行器上并行调用Feign客户端
+ */
+@Component
+@ConditionalOnProperty(name = "aggregation.mode", havingValue = "blocking", matchIfMissing = true)
+@RequiredArgsConstructor
+public class FeignHomePageSource implements HomePageSource {
+
+    private final UserServiceClient userServiceClient;
+    private final PointServiceClient pointServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final FanOutExecutor fanOutExecutor;
+
+    @Override
+    public CompletableFuture<ApiResponse<User>> fetchUser(Long userId) {
+        return CompletableFuture.supplyAsync(() -> userServiceClient.getUserById(userId), fanOutExecutor);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<Points>> fetchPoints(Long userId) {
+        return CompletableFuture.supplyAsync(() -> pointServiceClient.getUserPoints(userId), fanOutExecutor);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<List<Product>>> fetchRecommendedProducts(RecommendationQuery query) {
+        return CompletableFuture.supplyAsync(() -> productServiceClient.getRecommendedProducts(query.userId(),
+                query.userLevel(), query.pointsLevel()), fanOutExecutor);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<Map<Long, User>>> fetchUsers(List<Long> userIds) {
+        return CompletableFuture.supplyAsync(() -> userServiceClient.getUsersByIds(userIds), fanOutExecutor);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<Map<Long, Points>>> fetchPointsBatch(List<Long> userIds) {
+        return CompletableFuture.supplyAsync(() -> pointServiceClient.getUserPointsBatch(userIds), fanOutExecutor);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<RecommendedProductsBatch>> fetchRecommendedProductsBatch(
+            List<RecommendationQuery> queries) {
+        return CompletableFuture.supplyAsync(() -> productServiceClient.getRecommendedProductsBatch(
+                queries.stream().map(RecommendationQuery::userId).toList(),
+                queries.stream().map(RecommendationQuery::userLevel).toList(),
+                queries.stream().map(RecommendationQuery::pointsLevel).toList()), fanOutExecutor);
+    }
+}
@@ -0,0 +1,218 @@
+package com.bank.aggregation.service;
+
+import com.bank.aggregation.cache.HomePageSectionCache;
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.fields.FieldSelection;
+import com.bank.aggregation.hotkey.HotKeyDetector;
+import com.bank.aggregation.metrics.AggregationMetrics;
+import com.bank.aggregation.prefetch.UserActivityTracker;
+import com.bank.aggregation.trace.RequestTrace;
+import com.bank.aggregation.trace.RequestTracer;
+import com.bank.common.model.HomePageData;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.SectionStatus;
+import com.bank.common.model.User;
+import com.bank.feign.support.CallDeadline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 首页数据聚合服务
+ * 并行获取用户、积分、产品等板块数据并组装为首页数据，板块数据优先读取缓存，未命中时由HomePageSource调用下游
+ * 每个请求有整体延迟预算，预算耗尽时只返回已就绪的板块，并通过板块状态标明缺失的部分；预算的截止时间经CallDeadline传给下游调用的重试器
+ * 各板块就绪耗时、整体耗时、超时和部分返回次数记录到AggregationMetrics，单个请求的板块耗时分解记录到RequestTracer
+ * 流式首页通过SectionListener在每个板块就绪时立即拿到结果，不等待其余板块
+ * 只请求部分板块时，未选择的板块不调用下游，也不出现在板块状态中；推荐产品板块需要用户、积分等级确定用户分群，未选择这两个板块时只使用缓存中已有的等级
+ * 访问时间和用户的最近登录时间记录到UserActivityTracker，供首页预取挑选用户；用户ID计入HotKeyDetector识别热点用户
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HomePageAggregationService {
+
+    private static final String PARTIAL_FAILURE_MESSAGE = "部分数据加载失败";
+
+    private final HomePageSectionCache homePageSectionCache;
+    private final AggregationProperties properties;
+    private final AggregationMetrics aggregationMetrics;
+    private final RequestTracer requestTracer;
+    private final UserActivityTracker userActivityTracker;
+    private final HotKeyDetector hotKeyDetector;
+
+    /**
+     * 异步聚合首页数据
+     * @param userId 用户ID
+     * @return 首页聚合数据
+     */
+    public CompletableFuture<HomePageData> aggregate(Long userId) {
+        return aggregate(userId, FieldSelection.ALL, SectionListener.NONE);
+    }
+
+    /**
+     * 异步聚合选中的首页板块，每个板块就绪时通知监听器
+     * @param userId 用户ID
+     * @param selection 字段选择
+     * @param sectionListener 板块就绪监听器
+     * @return 首页聚合数据
+     */
+    public CompletableFuture<HomePageData> aggregate(Long userId, FieldSelection selection,
+                                                     SectionListener sectionListener) {
+        SectionListener listener = sectionListener == SectionListener.NONE
+                ? SectionListener.NONE : new OncePerSection(sectionListener);
+        log.debug("开始聚合首页数据，用户ID: {}, 板块: {}", userId, selection);
+        long startNanos = System.nanoTime();
+        RequestTrace trace = requestTracer.start(userId, startNanos);
+        userActivityTracker.recordVisit(userId);
+        hotKeyDetector.record(userId);
+
+        Duration latencyBudget = properties.getLatencyBudget();
+        boolean budgeted = latencyBudget != null && !latencyBudget.isZero() && !latencyBudget.isNegative();
+        // 并行获取选中的板块，超出预算仍未返回的下游调用会在后台完成并写入缓存，但预算耗尽后不再重试
+        CompletableFuture<SectionResult<User>> userFuture;
+        CompletableFuture<SectionResult<Points>> pointsFuture;
+        CompletableFuture<SectionResult<List<Product>>> productsFuture;
+        try (CallDeadline.Scope ignored = CallDeadline.activate(budgeted ? startNanos + latencyBudget.toNanos() : null)) {
+            userFuture = selection.includes(HomePageSection.USER)
+                    ? timed(HomePageSection.USER, requestTracer.inSection(trace, HomePageSection.USER,
+                            () -> homePageSectionCache.getUser(userId)), startNanos, trace, listener)
+                    : null;
+            pointsFuture = selection.includes(HomePageSection.POINTS)
+                    ? timed(HomePageSection.POINTS, requestTracer.inSection(trace, HomePageSection.POINTS,
+                            () -> homePageSectionCache.getPoints(userId)), startNanos, trace, listener)
+                    : null;
+            productsFuture = selection.includes(HomePageSection.RECOMMENDED_PRODUCTS)
+                    ? timed(HomePageSection.RECOMMENDED_PRODUCTS, requestTracer.inSection(trace,
+                            HomePageSection.RECOMMENDED_PRODUCTS,
+                            () -> homePageSectionCache.getRecommendedProducts(userId, selection)), startNanos, trace,
+                            listener)
+                    : null;
+        }
+
+        CompletableFuture<Void> allSections = CompletableFuture.allOf(Stream.of(userFuture, pointsFuture, productsFuture)
+                .filter(Objects::nonNull)
+                .toArray(CompletableFuture<?>[]::new));
+        if (budgeted) {
+            // 预算耗尽时不再等待，未就绪的板块标记为超时
+            allSections = allSections.completeOnTimeout(null, latencyBudget.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return allSections.thenApply(ignored -> {
+            HomePageData homePageData = new HomePageData();
+            Map<HomePageSection, SectionStatus> sectionStatus = new EnumMap<>(HomePageSection.class);
+            Map<HomePageSection, String> sectionVersions = new EnumMap<>(HomePageSection.class);
+            homePageData.setUser(resolve(HomePageSection.USER, userFuture, sectionStatus, sectionVersions,
+                    listener));
+            homePageData.setPoints(resolve(HomePageSection.POINTS, pointsFuture, sectionStatus, sectionVersions,
+                    listener));
+            homePageData.setRecommendedProducts(resolve(HomePageSection.RECOMMENDED_PRODUCTS, productsFuture,
+                    sectionStatus, sectionVersions, listener));
+            if (homePageData.getUser() != null) {
+                userActivityTracker.recordLogin(userId, homePageData.getUser().getLastLoginTime());
+            }
+            homePageData.setSectionStatus(sectionStatus);
+            homePageData.setSectionVersions(sectionVersions);
+            boolean partial = sectionStatus.values().stream().anyMatch(SectionStatus::isDegraded);
+            if (partial) {
+                homePageData.setDisplayMessage(PARTIAL_FAILURE_MESSAGE);
+            }
+
+            long elapsedNanos = System.nanoTime() - startNanos;
+            aggregationMetrics.recordAggregation(elapsedNanos, partial);
+            requestTracer.finish(trace, elapsedNanos, sectionStatus);
+            log.debug("首页数据聚合完成，用户ID: {}, 耗时: {}ms, 板块状态: {}", userId,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sectionStatus);
+            return homePageData;
+        });
+    }
+
+    /**
+     * 板块就绪时记录从请求开始的耗时，超出预算的板块在后台完成时同样记录，反映下游的真实尾延迟
+     * @param section 板块
+     * @param future 板块加载结果
+     * @param startNanos 请求开始时间
+     * @param trace 请求跟踪
+     * @param listener 板块就绪监听器
+     * @param <T> 板块数据类型
+     * @return 板块加载结果
+     */
+    private <T> CompletableFuture<SectionResult<T>> timed(HomePageSection section,
+                                                         CompletableFuture<SectionResult<T>> future, long startNanos,
+                                                         RequestTrace trace, SectionListener listener) {
+        return future.whenComplete((result, ex) -> {
+            if (result != null) {
+                aggregationMetrics.recordSection(section, result.status(), System.nanoTime() - startNanos);
+                requestTracer.sectionReady(trace, section, result.status());
+                listener.onSection(section, result);
+            }
+        });
+    }
+
+    /**
+     * 读取板块结果并记录状态和内容摘要，尚未完成的板块视为超时
+     * @param section 板块
+     * @param future 板块加载结果，未选择的板块为null
+     * @param sectionStatus 板块状态表
+     * @param sectionVersions 板块内容摘要表
+     * @param listener 板块就绪监听器
+     * @param <T> 板块数据类型
+     * @return 板块数据
+     */
+    private <T> T resolve(HomePageSection section, CompletableFuture<SectionResult<T>> future,
+                          Map<HomePageSection, SectionStatus> sectionStatus,
+                          Map<HomePageSection, String> sectionVersions, SectionListener listener) {
+        if (future == null) {
+            return null;
+        }
+        SectionResult<T> result = future.getNow(null);
+        if (result == null) {
+            log.warn("{}超出延迟预算 {}，本次响应不再等待", section, properties.getLatencyBudget());
+            result = SectionResult.timedOut();
+            aggregationMetrics.recordTimeout(section);
+            listener.onSection(section, result);
+        }
+        sectionStatus.put(section, result.status());
+        if (result.version() != null) {
+            sectionVersions.put(section, result.version());
+        }
+        return result.data();
+    }
+
+    /**
+     * 保证每个板块只通知一次：超时的板块先以超时结果通知，之后在后台完成时不再通知
+     */
+    private static final class OncePerSection implements SectionListener {
+
+        private final SectionListener delegate;
+        private final AtomicInteger notified = new AtomicInteger();
+
+        OncePerSection(SectionListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onSection(HomePageSection section, SectionResult<?> result) {
+            int bit = 1 << section.ordinal();
+            int current;
+            do {
+                current = notified.get();
+                if ((current & bit) != 0) {
+                    return;
+                }
+            } while (!notified.compareAndSet(current, current | bit));
+            delegate.onSection(section, result);
+        }
+    }
+}
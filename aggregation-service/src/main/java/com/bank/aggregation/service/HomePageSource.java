@@ -0,0 +1,61 @@
+package com.bank.aggregation.service;
+
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
+import com.bank.common.model.User;
+import com.bank.common.response.ApiResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 首页数据源
+ * 抽象首页各板块的下游调用，由阻塞模式和响应式模式分别实现
+ */
+public interface HomePageSource {
+
+    /**
+     * 异步获取用户信息
+     * @param userId 用户ID
+     * @return 用户信息响应
+     */
+    CompletableFuture<ApiResponse<User>> fetchUser(Long userId);
+
+    /**
+     * 异步获取用户积分信息
+     * @param userId 用户ID
+     * @return 用户积分信息响应
+     */
+    CompletableFuture<ApiResponse<Points>> fetchPoints(Long userId);
+
+    /**
+     * 异步获取推荐产品列表
+     * @param query 推荐产品查询条件
+     * @return 推荐产品列表响应
+     */
+    CompletableFuture<ApiResponse<List<Product>>> fetchRecommendedProducts(RecommendationQuery query);
+
+    /**
+     * 异步批量获取用户信息
+     * @param userIds 用户ID列表
+     * @return 用户ID到用户信息的映射
+     */
+    CompletableFuture<ApiResponse<Map<Long, User>>> fetchUsers(List<Long> userIds);
+
+    /**
+     * 异步批量获取用户积分信息
+     * @param userIds 用户ID列表
+     * @return 用户ID到积分信息的映射
+     */
+    CompletableFuture<ApiResponse<Map<Long, Points>>> fetchPointsBatch(List<Long> userIds);
+
+    /**
+     * 异步批量获取推荐产品列表
+     * @param queries 推荐产品查询条件列表
+     * @return 按分群去重的推荐产品列表及用户ID到分群的映射
+     */
+    CompletableFuture<ApiResponse<RecommendedProductsBatch>> fetchRecommendedProductsBatch(
+            List<RecommendationQuery> queries);
+}
@@ -0,0 +1,157 @@
+package com.bank.aggregation.service;
+
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
+import com.bank.common.model.User;
+import com.bank.common.response.ApiResponse;
+import com.bank.feign.client.fallback.PointServiceClientFallback;
+import com.bank.feign.client.fallback.ProductServiceClientFallback;
+import com.bank.feign.client.fallback.UserServiceClientFallback;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 响应式模式首页数据源
+ * 通过负载均衡的非阻塞WebClient调用下游服务，调用失败时复用Feign客户端的降级逻辑，保证返回结构一致
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "aggregation.mode", havingValue = "reactive")
+public class ReactiveHomePageSource implements HomePageSource {
+
+    private static final ParameterizedTypeReference<ApiResponse<User>> USER_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<ApiResponse<Points>> POINTS_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<ApiResponse<List<Product>>> PRODUCTS_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final ParameterizedTypeReference<ApiResponse<Map<Long, User>>> USERS_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<ApiResponse<Map<Long, Points>>> POINTS_BATCH_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<ApiResponse<RecommendedProductsBatch>> PRODUCTS_BATCH_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final UserServiceClientFallback userServiceClientFallback;
+    private final PointServiceClientFallback pointServiceClientFallback;
+    private final ProductServiceClientFallback productServiceClientFallback;
+
+    /**
+     * 构造函数
+     * @param webClientBuilder 负载均衡的WebClient构建器
+     * @param properties 聚合服务配置属性
+     * @param userServiceClientFallback 用户服务降级处理
+     * @param pointServiceClientFallback 积分服务降级处理
+     * @param productServiceClientFallback 产品服务降级处理
+     */
+    public ReactiveHomePageSource(@LoadBalanced WebClient.Builder webClientBuilder,
+                                  AggregationProperties properties,
+                                  UserServiceClientFallback userServiceClientFallback,
+                                  PointServiceClientFallback pointServiceClientFallback,
+                                  ProductServiceClientFallback productServiceClientFallback) {
+        this.webClient = webClientBuilder.build();
+        this.timeout = properties.getReactive().getTimeout();
+        this.userServiceClientFallback = userServiceClientFallback;
+        this.pointServiceClientFallback = pointServiceClientFallback;
+        this.productServiceClientFallback = productServiceClientFallback;
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<User>> fetchUser(Long userId) {
+        return get("http://user-service/api/users/{userId}", USER_RESPONSE, userId)
+                .onErrorResume(e -> {
+                    log.error("响应式调用用户服务失败: {}", e.getMessage());
+                    return Mono.fromSupplier(() -> userServiceClientFallback.getUserById(userId));
+                })
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<Points>> fetchPoints(Long userId) {
+        return get("http://point-service/api/points/user/{userId}", POINTS_RESPONSE, userId)
+                .onErrorResume(e -> {
+                    log.error("响应式调用积分服务失败: {}", e.getMessage());
+                    return Mono.fromSupplier(() -> pointServiceClientFallback.getUserPoints(userId));
+                })
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<List<Product>>> fetchRecommendedProducts(RecommendationQuery query) {
+        return get("http://product-service/api/products/recommended"
+                        + "?userId={userId}&userLevel={userLevel}&pointsLevel={pointsLevel}",
+                PRODUCTS_RESPONSE, query.userId(), query.userLevel(), query.pointsLevel())
+                .onErrorResume(e -> {
+                    log.error("响应式调用产品服务失败: {}", e.getMessage());
+                    return Mono.fromSupplier(() -> productServiceClientFallback.getRecommendedProducts(
+                            query.userId(), query.userLevel(), query.pointsLevel()));
+                })
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<Map<Long, User>>> fetchUsers(List<Long> userIds) {
+        return get("http://user-service/api/users/batch?userIds={userIds}", USERS_RESPONSE, join(userIds))
+                .onErrorResume(e -> {
+                    log.error("响应式批量调用用户服务失败: {}", e.getMessage());
+                    return Mono.fromSupplier(() -> userServiceClientFallback.getUsersByIds(userIds));
+                })
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<Map<Long, Points>>> fetchPointsBatch(List<Long> userIds) {
+        return get("http://point-service/api/points/batch?userIds={userIds}", POINTS_BATCH_RESPONSE, join(userIds))
+                .onErrorResume(e -> {
+                    log.error("响应式批量调用积分服务失败: {}", e.getMessage());
+                    return Mono.fromSupplier(() -> pointServiceClientFallback.getUserPointsBatch(userIds));
+                })
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<RecommendedProductsBatch>> fetchRecommendedProductsBatch(
+            List<RecommendationQuery> queries) {
+        List<Long> userIds = queries.stream().map(RecommendationQuery::userId).toList();
+        List<Integer> userLevels = queries.stream().map(RecommendationQuery::userLevel).toList();
+        List<Integer> pointsLevels = queries.stream().map(RecommendationQuery::pointsLevel).toList();
+        return get("http://product-service/api/products/recommended/batch"
+                        + "?userIds={userIds}&userLevels={userLevels}&pointsLevels={pointsLevels}",
+                PRODUCTS_BATCH_RESPONSE, join(userIds), join(userLevels), join(pointsLevels))
+                .onErrorResume(e -> {
+                    log.error("响应式批量调用产品服务失败: {}", e.getMessage());
+                    return Mono.fromSupplier(() -> productServiceClientFallback.getRecommendedProductsBatch(
+                            userIds, userLevels, pointsLevels));
+                })
+                .toFuture();
+    }
+
+    private static String join(List<? extends Number> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private <T> Mono<ApiResponse<T>> get(String uri, ParameterizedTypeReference<ApiResponse<T>> responseType,
+                                         Object... uriVariables) {
+        return webClient.get()
+                .uri(uri, uriVariables)
+                .retrieve()
+                .bodyToMono(responseType)
+                .timeout(timeout);
+    }
+}
@@ -0,0 +1,32 @@
+package com.bank.aggregation.service;
+
+import com.bank.common.model.Points;
+import com.bank.common.model.User;
+
+/**
+ * 推荐产品查询条件
+ * 产品服务按用户等级和积分等级确定用户分群，等级未知时传0，由产品服务按最保守的分群推荐
+ * @param userId 用户ID
+ * @param userLevel 用户等级，未知时为0
+ * @param pointsLevel 积分等级，未知时为0
+ */
+public record RecommendationQuery(Long userId, int userLevel, int pointsLevel) {
+
+    /**
+     * 未知等级
+     */
+    public static final int UNKNOWN_LEVEL = 0;
+
+    /**
+     * 根据用户信息和积分信息生成查询条件，任一板块没有数据时对应等级按未知处理
+     * @param userId 用户ID
+     * @param user 用户信息（可为空）
+     * @param points 积分信息（可为空）
+     * @return 推荐产品查询条件
+     */
+    public static RecommendationQuery of(Long userId, User user, Points points) {
+        int userLevel = user != null && user.getUserLevel() != null ? user.getUserLevel() : UNKNOWN_LEVEL;
+        int pointsLevel = points != null && points.getPointsLevel() != null ? points.getPointsLevel() : UNKNOWN_LEVEL;
+        return new RecommendationQuery(userId, userLevel, pointsLevel);
+    }
+}
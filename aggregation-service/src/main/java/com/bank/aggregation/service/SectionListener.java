@@ -0,0 +1,24 @@
+package com.bank.aggregation.service;
+
+import com.bank.common.model.HomePageSection;
+
+/**
+ * 首页板块就绪监听器
+ * 每个板块在一次聚合中只通知一次：板块加载完成时通知，超出延迟预算的板块在放弃等待时以超时结果通知
+ */
+@FunctionalInterface
+public interface SectionListener {
+
+    /**
+     * 不关心单个板块的监听器
+     */
+    SectionListener NONE = (section, result) -> {
+    };
+
+    /**
+     * 板块就绪
+     * @param section 板块
+     * @param result 板块加载结果
+     */
+    void onSection(HomePageSection section, SectionResult<?> result);
+}
@@ -0,0 +1,86 @@
+package com.bank.aggregation.service;
+
+import com.bank.common.model.SectionStatus;
+import com.bank.common.response.ApiResponse;
+
+/**
+ * 单个首页板块的加载结果
+ * @param status 板块加载状态
+ * @param data 板块数据，加载失败时为null
+ * @param version 板块内容摘要，没有数据时为null
+ * @param <T> 板块数据类型
+ */
+public record SectionResult<T>(SectionStatus status, T data, String version) {
+
+    /**
+     * 构造不带内容摘要的板块结果
+     * @param status 板块加载状态
+     * @param data 板块数据
+     */
+    public SectionResult(SectionStatus status, T data) {
+        this(status, data, null);
+    }
+
+    /**
+     * 附带内容摘要
+     * @param version 板块内容摘要
+     * @return 板块加载结果
+     */
+    public SectionResult<T> withVersion(String version) {
+        return new SectionResult<>(status, data, version);
+    }
+
+    /**
+     * 加载成功的结果
+     * @param data 板块数据
+     * @param <T> 板块数据类型
+     * @return 板块加载结果
+     */
+    public static <T> SectionResult<T> ok(T data) {
+        return new SectionResult<>(SectionStatus.OK, data);
+    }
+
+    /**
+     * 缓存中已过期、正在后台刷新的结果
+     * @param data 板块数据
+     * @param <T> 板块数据类型
+     * @return 板块加载结果
+     */
+    public static <T> SectionResult<T> stale(T data) {
+        return new SectionResult<>(SectionStatus.STALE, data);
+    }
+
+    /**
+     * 加载失败的结果
+     * @param <T> 板块数据类型
+     * @return 板块加载结果
+     */
+    public static <T> SectionResult<T> failed() {
+        return new SectionResult<>(SectionStatus.FAILED, null);
+    }
+
+    /**
+     * 根据下游响应生成板块结果，降级响应保留降级数据但标记为失败
+     * @param response 下游响应
+     * @param <T> 板块数据类型
+     * @return 板块加载结果
+     */
+    public static <T> SectionResult<T> from(ApiResponse<T> response) {
+        if (response == null || response.getCode() != 0) {
+            return failed();
+        }
+        if (response.isFallback()) {
+            return new SectionResult<>(SectionStatus.FAILED, response.getData());
+        }
+        return ok(response.getData());
+    }
+
+    /**
+     * 超出延迟预算的结果
+     * @param <T> 板块数据类型
+     * @return 板块加载结果
+     */
+    public static <T> SectionResult<T> timedOut() {
+        return new SectionResult<>(SectionStatus.TIMED_OUT, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.bank.aggregation.trace;
+
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 进行中的首页请求跟踪，每个板块一个SectionSpan
+ */
+public class RequestTrace {
+
+    private final Long userId;
+    private final long startEpochMillis;
+    private final long startNanos;
+    private final Map<HomePageSection, SectionSpan> spans = new EnumMap<>(HomePageSection.class);
+
+    RequestTrace(Long userId, long startNanos) {
+        this.userId = userId;
+        this.startEpochMillis = System.currentTimeMillis();
+        this.startNanos = startNanos;
+        for (HomePageSection section : HomePageSection.values()) {
+            spans.put(section, new SectionSpan(section));
+        }
+    }
+
+    /**
+     * 获取板块的耗时分解
+     * @param section 板块
+     * @return 板块耗时分解
+     */
+    public SectionSpan span(HomePageSection section) {
+        return spans.get(section);
+    }
+
+    /**
+     * 记录板块就绪
+     * @param section 板块
+     * @param status 板块状态
+     */
+    public void sectionReady(HomePageSection section, SectionStatus status) {
+        spans.get(section).ready(status, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 生成请求结束时的快照
+     * @param totalNanos 请求总耗时
+     * @param sectionStatus 响应中各板块的最终状态，未请求的板块不在其中
+     * @return 耗时记录
+     */
+    TraceRecord finish(long totalNanos, Map<HomePageSection, SectionStatus> sectionStatus) {
+        List<TraceRecord.Span> sections = new ArrayList<>(spans.size());
+        boolean partial = false;
+        for (Map.Entry<HomePageSection, SectionSpan> entry : spans.entrySet()) {
+            if (!sectionStatus.containsKey(entry.getKey())) {
+                continue;
+            }
+            TraceRecord.Span snapshot = entry.getValue().snapshot(sectionStatus.get(entry.getKey()));
+            partial |= snapshot.status().isDegraded();
+            sections.add(snapshot);
+        }
+        return new TraceRecord(userId, Instant.ofEpochMilli(startEpochMillis), totalNanos / 1_000_000.0, partial,
+                sections);
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.aggregation.trace;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 首页请求跟踪端点 /actuator/requesttraces
+ * 返回每分钟最慢的请求和最近的请求，均带各板块的耗时分解
+ */
+@Component
+@Endpoint(id = "requesttraces")
+@RequiredArgsConstructor
+public class RequestTraceEndpoint {
+
+    private static final int DEFAULT_RECENT = 20;
+
+    private final RequestTracer requestTracer;
+
+    /**
+     * 查询请求跟踪记录
+     * @param recent 返回的最近请求条数，默认20
+     * @return 每分钟最慢的请求和最近的请求
+     */
+    @ReadOperation
+    public Map<String, Object> traces(@Nullable Integer recent) {
+        Map<String, List<TraceRecord>> slowest = new LinkedHashMap<>();
+        for (Map.Entry<Instant, List<TraceRecord>> entry : requestTracer.slowest().entrySet()) {
+            slowest.put(entry.getKey().toString(), entry.getValue());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowestPerMinute", slowest);
+        result.put("recent", requestTracer.recent(recent != null ? recent : DEFAULT_RECENT));
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bank.aggregation.trace;
+
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 进程内首页请求跟踪器
+ * 每个首页请求记录各板块的排队、获取连接、等待响应、反序列化耗时，请求结束后写入无锁环形缓冲区，
+ * 并按分钟保留最慢的N个请求，通过 /actuator/requesttraces 查看，替代线上开启debug日志排查慢请求
+ */
+@Component
+public class RequestTracer {
+
+    private final boolean enabled;
+    private final TraceRingBuffer recent;
+    private final SlowestRequests slowest;
+
+    /**
+     * 构造函数
+     * @param properties 聚合服务配置属性
+     */
+    public RequestTracer(AggregationProperties properties) {
+        AggregationProperties.Trace trace = properties.getTrace();
+        this.enabled = trace.isEnabled();
+        this.recent = new TraceRingBuffer(trace.getBufferSize());
+        this.slowest = new SlowestRequests(trace.getSlowestPerMinute(), trace.getRetainedMinutes());
+    }
+
+    /**
+     * 开始跟踪一次首页请求
+     * @param userId 用户ID
+     * @param startNanos 请求开始时间
+     * @return 请求跟踪，未启用时为null
+     */
+    public RequestTrace start(Long userId, long startNanos) {
+        return enabled ? new RequestTrace(userId, startNanos) : null;
+    }
+
+    /**
+     * 在板块的耗时分解下发起板块调用，调用中提交的扇出任务和Feign请求记录到该板块
+     * @param trace 请求跟踪，为null时直接调用
+     * @param section 板块
+     * @param call 板块调用
+     * @param <T> 返回类型
+     * @return 板块调用结果
+     */
+    public <T> T inSection(RequestTrace trace, HomePageSection section, Supplier<T> call) {
+        if (trace == null) {
+            return call.get();
+        }
+        try (TraceContext.Scope ignored = TraceContext.activate(trace.span(section))) {
+            return call.get();
+        }
+    }
+
+    /**
+     * 记录板块就绪
+     * @param trace 请求跟踪，为null时忽略
+     * @param section 板块
+     * @param status 板块状态
+     */
+    public void sectionReady(RequestTrace trace, HomePageSection section, SectionStatus status) {
+        if (trace != null) {
+            trace.sectionReady(section, status);
+        }
+    }
+
+    /**
+     * 结束跟踪并保存记录
+     * @param trace 请求跟踪，为null时忽略
+     * @param totalNanos 请求总耗时
+     * @param sectionStatus 响应中各板块的最终状态
+     */
+    public void finish(RequestTrace trace, long totalNanos, Map<HomePageSection, SectionStatus> sectionStatus) {
+        if (trace == null) {
+            return;
+        }
+        TraceRecord record = trace.finish(totalNanos, sectionStatus);
+        recent.add(record);
+        slowest.offer(record);
+    }
+
+    /**
+     * 最近的请求记录
+     * @param limit 最多返回条数
+     * @return 请求记录，由新到旧
+     */
+    public List<TraceRecord> recent(int limit) {
+        return recent.recent(limit);
+    }
+
+    /**
+     * 每分钟最慢的请求
+     * @return 分钟开始时间到请求记录的映射，由近到远
+     */
+    public Map<Instant, List<TraceRecord>> slowest() {
+        return slowest.snapshot();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.aggregation.trace;
+
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
+
+/**
+ * 单个板块的调用耗时分解
+ * 排队、获取连接、等待响应、反序列化各阶段由执行下游调用的线程写入，同一时刻只有一个线程写入；
+ * 板块缓存命中或与其他请求合并调用时没有下游阶段，只有就绪耗时
+ */
+public class SectionSpan {
+
+    private final HomePageSection section;
+
+    private volatile long queueWaitNanos;
+    private volatile long connectNanos;
+    private volatile long responseNanos;
+    private volatile long deserializeNanos;
+    private volatile int attempts;
+    private volatile long readyNanos = -1;
+    private volatile SectionStatus status;
+
+    SectionSpan(HomePageSection section) {
+        this.section = section;
+    }
+
+    /**
+     * 记录扇出任务排队等待耗时
+     * @param nanos 耗时
+     */
+    public void addQueueWait(long nanos) {
+        queueWaitNanos += nanos;
+    }
+
+    /**
+     * 记录获取连接耗时，新建连接时包含TCP连接和TLS握手
+     * @param nanos 耗时
+     */
+    public void addConnect(long nanos) {
+        connectNanos += nanos;
+    }
+
+    /**
+     * 记录一次下游请求从发出到收到响应的耗时，含获取连接
+     * @param nanos 耗时
+     */
+    public void addResponse(long nanos) {
+        responseNanos += nanos;
+        attempts++;
+    }
+
+    /**
+     * 记录响应反序列化耗时
+     * @param nanos 耗时
+     */
+    public void addDeserialize(long nanos) {
+        deserializeNanos += nanos;
+    }
+
+    /**
+     * 记录板块就绪
+     * @param status 板块状态
+     * @param nanosSinceStart 从请求开始到板块就绪的耗时
+     */
+    void ready(SectionStatus status, long nanosSinceStart) {
+        this.status = status;
+        this.readyNanos = nanosSinceStart;
+    }
+
+    /**
+     * 生成不可变快照
+     * @param finalStatus 响应中该板块的最终状态
+     * @return 板块耗时快照
+     */
+    TraceRecord.Span snapshot(SectionStatus finalStatus) {
+        return new TraceRecord.Span(section, finalStatus != null ? finalStatus : status,
+                readyNanos < 0 ? null : millis(readyNanos), millis(queueWaitNanos), millis(connectNanos),
+                millis(responseNanos), millis(deserializeNanos), attempts);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bank.aggregation.trace;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 按分钟保留最慢的N个请求
+ * 每分钟一个桶，保留最近若干分钟；桶满后耗时不超过桶内最小值的请求只读一次volatile字段即返回，
+ * 只有可能进入前N的请求才加锁
+ */
+class SlowestRequests {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final int perMinute;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * 构造函数
+     * @param perMinute 每分钟保留的请求数
+     * @param retainedMinutes 保留的分钟数
+     */
+    SlowestRequests(int perMinute, int retainedMinutes) {
+        this.perMinute = perMinute;
+        this.buckets = new AtomicReferenceArray<>(retainedMinutes);
+    }
+
+    /**
+     * 提交一次请求记录
+     * @param record 耗时记录
+     */
+    void offer(TraceRecord record) {
+        long minute = record.start().toEpochMilli() / MINUTE_MILLIS;
+        int index = (int) (minute % buckets.length());
+        Bucket bucket = buckets.get(index);
+        while (bucket == null || bucket.minute < minute) {
+            Bucket fresh = new Bucket(minute);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                bucket = fresh;
+                break;
+            }
+            bucket = buckets.get(index);
+        }
+        if (bucket.minute == minute) {
+            bucket.offer(record, perMinute);
+        }
+    }
+
+    /**
+     * 按分钟读取最慢的请求，由近到远，每分钟内按耗时由高到低
+     * @return 分钟开始时间到请求记录的映射
+     */
+    Map<Instant, List<TraceRecord>> snapshot() {
+        List<Bucket> snapshot = new ArrayList<>();
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null) {
+                snapshot.add(bucket);
+            }
+        }
+        snapshot.sort(Comparator.comparingLong((Bucket bucket) -> bucket.minute).reversed());
+        long oldest = System.currentTimeMillis() / MINUTE_MILLIS - buckets.length();
+        Map<Instant, List<TraceRecord>> result = new LinkedHashMap<>();
+        for (Bucket bucket : snapshot) {
+            if (bucket.minute > oldest) {
+                result.put(Instant.ofEpochMilli(bucket.minute * MINUTE_MILLIS), bucket.sorted());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 单分钟的最慢请求，小顶堆
+     */
+    private static final class Bucket {
+        private final long minute;
+        private final PriorityQueue<TraceRecord> heap =
+                new PriorityQueue<>(Comparator.comparingDouble(TraceRecord::totalMillis));
+
+        // 桶满时的入选门槛
+        private volatile double threshold;
+
+        Bucket(long minute) {
+            this.minute = minute;
+        }
+
+        void offer(TraceRecord record, int capacity) {
+            if (record.totalMillis() <= threshold) {
+                return;
+            }
+            synchronized (this) {
+                heap.offer(record);
+                if (heap.size() > capacity) {
+                    heap.poll();
+                }
+                if (heap.size() == capacity) {
+                    threshold = heap.peek().totalMillis();
+                }
+            }
+        }
+
+        synchronized List<TraceRecord> sorted() {
+            List<TraceRecord> records = new ArrayList<>(heap);
+            records.sort(Comparator.comparingDouble(TraceRecord::totalMillis).reversed());
+            return records;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.aggregation.trace;
+
+/**
+ * 当前线程的板块耗时分解
+ * 聚合服务在发起板块调用前设置，扇出执行器把它传递到执行下游调用的线程，Feign扩展和连接观察者据此记录各阶段耗时
+ */
+public final class TraceContext {
+
+    private static final ThreadLocal<SectionSpan> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    /**
+     * 获取当前线程的板块耗时分解
+     * @return 板块耗时分解，未跟踪时为null
+     */
+    public static SectionSpan current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在当前线程上设置板块耗时分解
+     * @param span 板块耗时分解，为null时清除
+     * @return 作用域，关闭时恢复原值
+     */
+    public static Scope activate(SectionSpan span) {
+        SectionSpan previous = CURRENT.get();
+        CURRENT.set(span);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * 作用域
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.aggregation.trace;
+
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 一次首页请求的耗时记录，记录后不再变化
+ * @param userId 用户ID
+ * @param start 请求开始时间
+ * @param totalMillis 请求总耗时（毫秒）
+ * @param partial 是否存在失败或超时的板块
+ * @param sections 各板块耗时分解
+ */
+public record TraceRecord(Long userId, Instant start, double totalMillis, boolean partial, List<Span> sections) {
+
+    /**
+     * 板块耗时分解，单位均为毫秒
+     * @param section 板块
+     * @param status 板块状态
+     * @param readyMillis 从请求开始到板块就绪的耗时，超出延迟预算时为null
+     * @param queueWaitMillis 扇出任务排队等待耗时
+     * @param connectMillis 获取连接耗时
+     * @param responseMillis 下游请求从发出到收到响应的耗时，含获取连接，多次尝试时累加
+     * @param deserializeMillis 响应反序列化耗时
+     * @param attempts 下游请求次数，0表示板块来自缓存或与其他请求合并
+     */
+    public record Span(HomePageSection section, SectionStatus status, Double readyMillis, double queueWaitMillis,
+                       double connectMillis, double responseMillis, double deserializeMillis, int attempts) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.bank.aggregation.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 固定容量的无锁环形缓冲区，保存最近的请求耗时记录
+ * 写入只有一次自增和一次数组写，缓冲区满后覆盖最早的记录
+ */
+class TraceRingBuffer {
+
+    private final AtomicReferenceArray<TraceRecord> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 构造函数
+     * @param capacity 容量，向上取整为2的幂
+     */
+    TraceRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 写入记录
+     * @param record 耗时记录
+     */
+    void add(TraceRecord record) {
+        slots.lazySet((int) (sequence.getAndIncrement() & mask), record);
+    }
+
+    /**
+     * 读取最近的记录，由新到旧
+     * @param limit 最多返回条数
+     * @return 耗时记录
+     */
+    List<TraceRecord> recent(int limit) {
+        long end = sequence.get();
+        int count = (int) Math.min(Math.min(limit, end), slots.length());
+        List<TraceRecord> records = new ArrayList<>(count);
+        for (long i = end - 1; i >= end - count; i--) {
+            TraceRecord record = slots.get((int) (i & mask));
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.aggregation.trace;
+
+import com.bank.feign.transport.ConnectionObserver;
+import feign.Capability;
+import feign.Client;
+import feign.codec.Decoder;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feign请求耗时分解扩展
+ * 作为父上下文中的Capability对所有Feign客户端生效，把等待响应和反序列化耗时记录到当前线程的板块耗时分解；
+ * 同时作为连接获取观察者记录获取连接耗时。对冲请求在其他线程上发出，不计入
+ */
+@Component
+public class TracingCapability implements Capability, ConnectionObserver, Ordered {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            SectionSpan span = TraceContext.current();
+            if (span == null) {
+                return client.execute(request, options);
+            }
+            long start = System.nanoTime();
+            try {
+                return client.execute(request, options);
+            } finally {
+                span.addResponse(System.nanoTime() - start);
+            }
+        };
+    }
+
+    @Override
+    public Decoder enrich(Decoder decoder) {
+        return (response, type) -> {
+            SectionSpan span = TraceContext.current();
+            if (span == null) {
+                return decoder.decode(response, type);
+            }
+            long start = System.nanoTime();
+            try {
+                return decoder.decode(response, type);
+            } finally {
+                span.addDeserialize(System.nanoTime() - start);
+            }
+        };
+    }
+
+    @Override
+    public void connectionAcquired(String serviceId, long acquireNanos, boolean reused) {
+        SectionSpan span = TraceContext.current();
+        if (span != null) {
+            span.addConnect(acquireNanos);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // 在对冲扩展之后、并发限制扩展之前包装，被限流拒绝的请求不计为下游请求
+        return 0;
+    }
+}
@@ -0,0 +1,212 @@
+package com.bank.aggregation.cache;
+
+import com.bank.aggregation.batch.BatchingHomePageLoader;
+import com.bank.aggregation.coalesce.SingleFlight;
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.etag.ContentHasher;
+import com.bank.aggregation.fields.FieldSelection;
+import com.bank.aggregation.metrics.AggregationMetrics;
+import com.bank.aggregation.service.HomePageSource;
+import com.bank.aggregation.service.RecommendationQuery;
+import com.bank.aggregation.service.SectionResult;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
+import com.bank.common.model.SectionStatus;
+import com.bank.common.model.User;
+import com.bank.common.response.ApiResponse;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 首页板块缓存测试
+ */
+class HomePageSectionCacheTest {
+
+    @Test
+    void recommendationCallCarriesUserAndPointsLevel() {
+        StubSource source = new StubSource();
+        source.users.put(1L, user(1L, 3));
+        source.points.put(1L, points(1L, 4));
+
+        SectionResult<List<Product>> result = sectionCache(source, new AggregationProperties())
+                .getRecommendedProducts(1L, FieldSelection.ALL).join();
+
+        assertThat(result.status()).isEqualTo(SectionStatus.OK);
+        assertThat(source.productQueries).containsExactly(new RecommendationQuery(1L, 3, 4));
+    }
+
+    @Test
+    void perUserCoalescingKeepsUsersApart() {
+        AggregationProperties properties = new AggregationProperties();
+        properties.getCoalescing().setProductsPerUser(true);
+        StubSource source = new StubSource();
+        source.holdProducts = true;
+        source.users.put(1L, user(1L, 2));
+        source.users.put(2L, user(2L, 2));
+        source.points.put(1L, points(1L, 1));
+        source.points.put(2L, points(2L, 1));
+        HomePageSectionCache cache = sectionCache(source, properties);
+
+        CompletableFuture<SectionResult<List<Product>>> first = cache.getRecommendedProducts(1L, FieldSelection.ALL);
+        CompletableFuture<SectionResult<List<Product>>> second = cache.getRecommendedProducts(2L, FieldSelection.ALL);
+        source.releaseProducts();
+
+        assertThat(first.join().data()).extracting(Product::getProductName).containsExactly("for-1");
+        assertThat(second.join().data()).extracting(Product::getProductName).containsExactly("for-2");
+        assertThat(source.productQueries).hasSize(2);
+    }
+
+    @Test
+    void usersInSameSegmentAreCoalescedByDefault() {
+        StubSource source = new StubSource();
+        source.holdProducts = true;
+        source.users.put(1L, user(1L, 1));
+        source.users.put(2L, user(2L, 4));
+        source.users.put(3L, user(3L, 1));
+        source.points.put(1L, points(1L, 1));
+        source.points.put(2L, points(2L, 5));
+        source.points.put(3L, points(3L, 1));
+        HomePageSectionCache cache = sectionCache(source, new AggregationProperties());
+
+        CompletableFuture<SectionResult<List<Product>>> low = cache.getRecommendedProducts(1L, FieldSelection.ALL);
+        CompletableFuture<SectionResult<List<Product>>> high = cache.getRecommendedProducts(2L, FieldSelection.ALL);
+        CompletableFuture<SectionResult<List<Product>>> sameAsLow = cache.getRecommendedProducts(3L, FieldSelection.ALL);
+        source.releaseProducts();
+
+        assertThat(source.productQueries).extracting(RecommendationQuery::userId).containsExactly(1L, 2L);
+        assertThat(high.join().data()).extracting(Product::getProductName).containsExactly("for-2");
+        assertThat(sameAsLow.join().data()).isEqualTo(low.join().data());
+    }
+
+    @Test
+    void missingUserSectionFallsBackToUnknownLevel() {
+        StubSource source = new StubSource();
+        source.points.put(1L, points(1L, 2));
+
+        sectionCache(source, new AggregationProperties()).getRecommendedProducts(1L, FieldSelection.ALL).join();
+
+        assertThat(source.productQueries).containsExactly(
+                new RecommendationQuery(1L, RecommendationQuery.UNKNOWN_LEVEL, 2));
+    }
+
+    @Test
+    void recommendedProductsOnlyMakesNoUserOrPointCall() {
+        StubSource source = new StubSource();
+        source.users.put(1L, user(1L, 3));
+        source.points.put(1L, points(1L, 4));
+
+        SectionResult<List<Product>> result = sectionCache(source, new AggregationProperties())
+                .getRecommendedProducts(1L, FieldSelection.parse("recommendedProducts")).join();
+
+        assertThat(result.status()).isEqualTo(SectionStatus.OK);
+        assertThat(source.userCalls).hasValue(0);
+        assertThat(source.pointsCalls).hasValue(0);
+        assertThat(source.productQueries).containsExactly(new RecommendationQuery(1L,
+                RecommendationQuery.UNKNOWN_LEVEL, RecommendationQuery.UNKNOWN_LEVEL));
+    }
+
+    @Test
+    void recommendedProductsOnlyUsesLevelsAlreadyCached() {
+        StubSource source = new StubSource();
+        source.users.put(1L, user(1L, 3));
+        source.points.put(1L, points(1L, 4));
+        HomePageSectionCache cache = sectionCache(source, new AggregationProperties());
+        cache.getUser(1L).join();
+        cache.getPoints(1L).join();
+
+        cache.getRecommendedProducts(1L, FieldSelection.parse("recommendedProducts")).join();
+
+        assertThat(source.userCalls).hasValue(1);
+        assertThat(source.pointsCalls).hasValue(1);
+        assertThat(source.productQueries).containsExactly(new RecommendationQuery(1L, 3, 4));
+    }
+
+    private static HomePageSectionCache sectionCache(HomePageSource source, AggregationProperties properties) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new HomePageSectionCache(new BatchingHomePageLoader(source, properties, meterRegistry),
+                new SingleFlight(properties, meterRegistry), properties, new AggregationMetrics(meterRegistry),
+                new ContentHasher(JsonMapper.builder().findAndAddModules().build()), meterRegistry);
+    }
+
+    private static User user(Long userId, int level) {
+        User user = new User();
+        user.setId(userId);
+        user.setUserLevel(level);
+        return user;
+    }
+
+    private static Points points(Long userId, int level) {
+        Points points = new Points();
+        points.setUserId(userId);
+        points.setPointsLevel(level);
+        return points;
+    }
+
+    /**
+     * 内存数据源，推荐产品调用可以先挂起，验证并发调用是否被合并
+     */
+    private static final class StubSource implements HomePageSource {
+
+        final Map<Long, User> users = new ConcurrentHashMap<>();
+        final Map<Long, Points> points = new ConcurrentHashMap<>();
+        final List<RecommendationQuery> productQueries = new CopyOnWriteArrayList<>();
+        final AtomicInteger userCalls = new AtomicInteger();
+        final AtomicInteger pointsCalls = new AtomicInteger();
+        final CompletableFuture<Void> productsGate = new CompletableFuture<>();
+        boolean holdProducts;
+
+        void releaseProducts() {
+            productsGate.complete(null);
+        }
+
+        @Override
+        public CompletableFuture<ApiResponse<User>> fetchUser(Long userId) {
+            userCalls.incrementAndGet();
+            User user = users.get(userId);
+            return CompletableFuture.completedFuture(user != null ? ApiResponse.success(user)
+                    : ApiResponse.error(404, "用户不存在"));
+        }
+
+        @Override
+        public CompletableFuture<ApiResponse<Points>> fetchPoints(Long userId) {
+            pointsCalls.incrementAndGet();
+            return CompletableFuture.completedFuture(ApiResponse.success(points.get(userId)));
+        }
+
+        @Override
+        public CompletableFuture<ApiResponse<List<Product>>> fetchRecommendedProducts(RecommendationQuery query) {
+            productQueries.add(query);
+            Product product = new Product();
+            product.setProductName("for-" + query.userId());
+            CompletableFuture<Void> gate = holdProducts ? productsGate : CompletableFuture.completedFuture(null);
+            return gate.thenApply(ignored -> ApiResponse.success(List.of(product)));
+        }
+
+        @Override
+        public CompletableFuture<ApiResponse<Map<Long, User>>> fetchUsers(List<Long> userIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<ApiResponse<Map<Long, Points>>> fetchPointsBatch(List<Long> userIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<ApiResponse<RecommendedProductsBatch>> fetchRecommendedProductsBatch(
+                List<RecommendationQuery> queries) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
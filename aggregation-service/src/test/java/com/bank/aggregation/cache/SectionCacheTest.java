@@ -0,0 +1,73 @@
+package com.bank.aggregation.cache;
+
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.etag.ContentHasher;
+import com.bank.aggregation.service.SectionResult;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.SectionStatus;
+import com.bank.common.response.ApiResponse;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 单个首页板块缓存测试，覆盖热点用户近端缓存
+ */
+class SectionCacheTest {
+
+    private static final Duration TTL = Duration.ofMillis(200);
+
+    private final Deque<CompletableFuture<ApiResponse<String>>> responses = new ArrayDeque<>();
+
+    @Test
+    void pinnedEntryIsNotServedPastTtlWhenRefreshKeepsFailing() throws Exception {
+        SectionCache<String> cache = sectionCache();
+        responses.add(CompletableFuture.completedFuture(ApiResponse.success("v1")));
+        cache.pin(1L);
+        cache.refreshPinned();
+
+        assertThat(cache.get(1L).join().data()).isEqualTo("v1");
+
+        TimeUnit.MILLISECONDS.sleep(TTL.toMillis() + 50);
+        SectionResult<String> result = cache.get(1L).join();
+
+        assertThat(result.status()).isEqualTo(SectionStatus.FAILED);
+        assertThat(result.data()).isNull();
+        assertThat(cache.peek(1L)).isNull();
+    }
+
+    @Test
+    void slowerEarlierRefreshDoesNotOverwriteNewerPinnedValue() {
+        SectionCache<String> cache = sectionCache();
+        CompletableFuture<ApiResponse<String>> earlier = new CompletableFuture<>();
+        CompletableFuture<ApiResponse<String>> later = new CompletableFuture<>();
+        responses.add(earlier);
+        responses.add(later);
+        cache.pin(1L);
+        cache.refreshPinned();
+
+        later.complete(ApiResponse.success("new"));
+        earlier.complete(ApiResponse.success("old"));
+
+        assertThat(cache.get(1L).join().data()).isEqualTo("new");
+    }
+
+    /**
+     * 按顺序返回预设的下游响应，用完后下游一直失败
+     */
+    private SectionCache<String> sectionCache() {
+        AggregationProperties.CacheSpec spec = new AggregationProperties.CacheSpec(TTL, TTL.dividedBy(2), 100);
+        return new SectionCache<>(HomePageSection.USER, spec, true, userId -> {
+            CompletableFuture<ApiResponse<String>> response = responses.poll();
+            return response != null ? response : CompletableFuture.completedFuture(ApiResponse.error(503, "下游不可用"));
+        }, new ContentHasher(JsonMapper.builder().findAndAddModules().build()), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,129 @@
+package com.bank.aggregation.coalesce;
+
+import com.bank.aggregation.config.AggregationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 下游调用合并器测试
+ */
+class SingleFlightTest {
+
+    private static final CallKey KEY = CallKey.of("user-service", "getUserById", 1L);
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(new AggregationProperties(), meterRegistry);
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneInvocation() {
+        AtomicInteger invocations = new AtomicInteger();
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute(KEY, () -> {
+            invocations.incrementAndGet();
+            return downstream;
+        });
+        CompletableFuture<String> second = singleFlight.execute(KEY, () -> {
+            invocations.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+
+        assertThat(invocations).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isEqualTo(1);
+
+        downstream.complete("user");
+
+        assertThat(first.join()).isEqualTo("user");
+        assertThat(second.join()).isEqualTo("user");
+        assertThat(singleFlight.inFlightCount()).isZero();
+        assertThat(meterRegistry.get("aggregation.singleflight.deduplicated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void differentKeysAreNotShared() {
+        AtomicInteger invocations = new AtomicInteger();
+        singleFlight.execute(KEY, () -> {
+            invocations.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        singleFlight.execute(CallKey.of("user-service", "getUserById", 2L), () -> {
+            invocations.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        assertThat(invocations).hasValue(2);
+        assertThat(singleFlight.inFlightCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failedCallClearsKeySoNextCallIsIssued() {
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute(KEY, () -> downstream);
+        CompletableFuture<String> shared = singleFlight.execute(KEY, () -> CompletableFuture.completedFuture("unused"));
+
+        downstream.completeExceptionally(new IllegalStateException("down"));
+
+        assertThatThrownBy(first::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(shared::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.inFlightCount()).isZero();
+
+        CompletableFuture<String> retried = singleFlight.execute(KEY, () -> CompletableFuture.completedFuture("user"));
+        assertThat(retried.join()).isEqualTo("user");
+    }
+
+    @Test
+    void supplierThrowingClearsKey() {
+        CompletableFuture<String> failed = singleFlight.execute(KEY, () -> {
+            throw new IllegalStateException("client not ready");
+        });
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void callerCancellingItsCopyDoesNotAffectOthers() {
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute(KEY, () -> downstream);
+        CompletableFuture<String> second = singleFlight.execute(KEY, () -> CompletableFuture.completedFuture("unused"));
+
+        first.cancel(true);
+        downstream.complete("user");
+
+        assertThat(second.join()).isEqualTo("user");
+    }
+
+    @Test
+    void disabledCoalescingInvokesEveryCall() {
+        AggregationProperties properties = new AggregationProperties();
+        properties.getCoalescing().setEnabled(false);
+        SingleFlight disabled = new SingleFlight(properties, new SimpleMeterRegistry());
+        AtomicInteger invocations = new AtomicInteger();
+
+        disabled.execute(KEY, () -> {
+            invocations.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        disabled.execute(KEY, () -> {
+            invocations.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        assertThat(invocations).hasValue(2);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bank.aggregation.controller;
+
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.etag.ContentHasher;
+import com.bank.aggregation.service.HomePageAggregationService;
+import com.bank.common.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 聚合服务控制器测试
+ */
+class AggregationControllerTest {
+
+    private HomePageAggregationService homePageAggregationService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        homePageAggregationService = mock(HomePageAggregationService.class);
+        AggregationController controller = new AggregationController(homePageAggregationService,
+                new AggregationProperties(), mock(ContentHasher.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void unknownSectionInFieldsIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/homepage/1").param("fields", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"));
+
+        verify(homePageAggregationService, never()).aggregate(any(), any(), any());
+    }
+
+    @Test
+    void unknownFieldInFieldsIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/homepage/1").param("fields", "user(bogus)"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"));
+    }
+
+    @Test
+    void unknownSectionInStreamFieldsIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/homepage/1/stream").param("fields", "bogus")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value("400"));
+
+        verify(homePageAggregationService, never()).aggregate(any(), any(), any());
+    }
+}
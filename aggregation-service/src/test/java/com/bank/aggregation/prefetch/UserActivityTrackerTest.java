@@ -0,0 +1,79 @@
+package com.bank.aggregation.prefetch;
+
+import com.bank.aggregation.config.AggregationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用户活跃记录测试
+ */
+class UserActivityTrackerTest {
+
+    private static final int LOGIN_HOUR = 8;
+    private static final int MIN_LOGINS = 3;
+    private static final long ACTIVE_WITHIN_MILLIS = Duration.ofHours(1).toMillis();
+
+    private UserActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        AggregationProperties properties = new AggregationProperties();
+        properties.getPrefetch().setEnabled(true);
+        tracker = new UserActivityTracker(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void loginHabitMakesUserCandidateEvenWhenVisitIsRecordedFirst() {
+        // 与首页聚合的顺序一致：先记录本次访问，再记录用户信息中更早的登录时间
+        for (int daysAgo = MIN_LOGINS; daysAgo >= 1; daysAgo--) {
+            tracker.recordVisit(1L);
+            tracker.recordLogin(1L, loginAt(daysAgo));
+        }
+
+        assertThat(candidates(MIN_LOGINS)).containsExactly(1L);
+    }
+
+    @Test
+    void sameLoginTimeReadRepeatedlyCountsOnce() {
+        for (int daysAgo = MIN_LOGINS; daysAgo >= 1; daysAgo--) {
+            tracker.recordVisit(1L);
+            tracker.recordLogin(1L, loginAt(daysAgo));
+            tracker.recordLogin(1L, loginAt(daysAgo));
+        }
+
+        assertThat(candidates(MIN_LOGINS)).containsExactly(1L);
+        assertThat(candidates(MIN_LOGINS + 1)).isEmpty();
+    }
+
+    @Test
+    void loginsInOtherHoursDoNotMakeUserCandidate() {
+        for (int daysAgo = MIN_LOGINS; daysAgo >= 1; daysAgo--) {
+            tracker.recordVisit(2L);
+            tracker.recordLogin(2L, loginAt(daysAgo).withHour(LOGIN_HOUR + 7));
+        }
+
+        assertThat(candidates(MIN_LOGINS)).isEmpty();
+    }
+
+    /**
+     * 两天后习惯登录时段内的候选用户，此时本测试记录的访问都已不在活跃范围内
+     */
+    private List<Long> candidates(int minLogins) {
+        LocalDateTime target = LocalDate.now().plusDays(2).atTime(LOGIN_HOUR, 10);
+        long targetMillis = target.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return tracker.candidates(targetMillis, targetMillis, ACTIVE_WITHIN_MILLIS, minLogins, 10);
+    }
+
+    private static LocalDateTime loginAt(int daysAgo) {
+        return LocalDate.now().minusDays(daysAgo).atTime(LOGIN_HOUR, 0);
+    }
+}
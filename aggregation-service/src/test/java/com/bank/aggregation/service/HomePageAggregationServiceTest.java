@@ -0,0 +1,81 @@
+package com.bank.aggregation.service;
+
+import com.bank.aggregation.cache.HomePageSectionCache;
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.fields.FieldSelection;
+import com.bank.aggregation.hotkey.HotKeyDetector;
+import com.bank.aggregation.metrics.AggregationMetrics;
+import com.bank.aggregation.prefetch.UserActivityTracker;
+import com.bank.aggregation.trace.RequestTracer;
+import com.bank.common.model.HomePageData;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.Points;
+import com.bank.common.model.SectionStatus;
+import com.bank.common.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 首页数据聚合服务测试
+ */
+class HomePageAggregationServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    private HomePageSectionCache homePageSectionCache;
+    private SimpleMeterRegistry meterRegistry;
+    private HomePageAggregationService service;
+
+    @BeforeEach
+    void setUp() {
+        homePageSectionCache = mock(HomePageSectionCache.class);
+        meterRegistry = new SimpleMeterRegistry();
+        AggregationProperties properties = new AggregationProperties();
+        service = new HomePageAggregationService(homePageSectionCache, properties,
+                new AggregationMetrics(meterRegistry), new RequestTracer(properties),
+                new UserActivityTracker(properties, meterRegistry),
+                new HotKeyDetector(homePageSectionCache, properties, meterRegistry));
+        when(homePageSectionCache.getUser(USER_ID)).thenReturn(done(SectionResult.ok(new User())));
+        when(homePageSectionCache.getRecommendedProducts(USER_ID, FieldSelection.ALL))
+                .thenReturn(done(SectionResult.ok(List.of())));
+    }
+
+    @Test
+    void staleSectionIsNotReportedAsPartialFailure() throws Exception {
+        when(homePageSectionCache.getPoints(USER_ID)).thenReturn(done(SectionResult.stale(new Points())));
+
+        HomePageData homePageData = service.aggregate(USER_ID).get(5, TimeUnit.SECONDS);
+
+        assertThat(homePageData.getSectionStatus()).containsEntry(HomePageSection.POINTS, SectionStatus.STALE);
+        assertThat(homePageData.getDisplayMessage()).isNull();
+        assertThat(partialCount()).isZero();
+    }
+
+    @Test
+    void failedSectionIsReportedAsPartialFailure() throws Exception {
+        when(homePageSectionCache.getPoints(USER_ID)).thenReturn(done(SectionResult.failed()));
+
+        HomePageData homePageData = service.aggregate(USER_ID).get(5, TimeUnit.SECONDS);
+
+        assertThat(homePageData.getSectionStatus()).containsEntry(HomePageSection.POINTS, SectionStatus.FAILED);
+        assertThat(homePageData.getDisplayMessage()).isNotNull();
+        assertThat(partialCount()).isEqualTo(1);
+    }
+
+    private double partialCount() {
+        return meterRegistry.get("aggregation.homepage.partial").counter().count();
+    }
+
+    private static <T> CompletableFuture<SectionResult<T>> done(SectionResult<T> result) {
+        return CompletableFuture.completedFuture(result);
+    }
+}
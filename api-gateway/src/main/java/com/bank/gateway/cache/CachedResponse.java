@@ -0,0 +1,24 @@
+package com.bank.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * 缓存的响应
+ * @param status 响应状态码
+ * @param headers 响应头，不含逐跳头
+ * @param body 响应体
+ * @param storedAtNanos 写入缓存的时间
+ * @param ttlNanos 缓存时长
+ */
+record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long storedAtNanos, long ttlNanos) {
+
+    /**
+     * 响应在缓存中已停留的秒数，用于 Age 响应头
+     * @param nowNanos 当前时间
+     * @return 秒数
+     */
+    long ageSeconds(long nowNanos) {
+        return (nowNanos - storedAtNanos) / 1_000_000_000L;
+    }
+}
@@ -0,0 +1,183 @@
+package com.bank.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关边缘响应缓存
+ * 按请求路径（含用户ID）、查询参数和Accept缓存上游响应，缓存时长取自上游的 Cache-Control，
+ * 只缓存带有正数 max-age 或 s-maxage 的200响应，no-store、no-cache、private 的响应不缓存
+ * 按响应体字节数限制总内存，超出后由Caffeine按W-TinyLFU淘汰访问频率低的条目
+ * 命中、未命中、淘汰等指标以 cache=homepage-edge 发布到 cache.* 指标
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class EdgeResponseCache {
+
+    private static final String CACHE_NAME = "homepage-edge";
+
+    // 逐跳头和随时间变化的头不随缓存返回
+    private static final List<String> EXCLUDED_HEADERS = List.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.DATE, HttpHeaders.SET_COOKIE);
+
+    private final ResponseCacheProperties properties;
+    private final Cache<String, CachedResponse> cache;
+    private final Counter uncacheableCounter;
+    private final Counter tooLargeCounter;
+
+    /**
+     * 构造函数
+     * @param properties 响应缓存配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public EdgeResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return response.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.uncacheableCounter = bypassCounter("uncacheable", meterRegistry);
+        this.tooLargeCounter = bypassCounter("too_large", meterRegistry);
+    }
+
+    /**
+     * 是否启用
+     * @return 是否启用
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 生成缓存键，路径中已包含用户ID；Accept不同的请求可能协商出不同格式，分开缓存
+     * @param request 请求
+     * @return 缓存键
+     */
+    public String keyOf(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return request.getPath().value() + (query == null ? "" : "?" + query) + "|" + (accept == null ? "" : accept);
+    }
+
+    /**
+     * 查询缓存
+     * @param key 缓存键
+     * @return 缓存的响应，不存在或已过期时为null
+     */
+    CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 根据上游响应的状态码和 Cache-Control 计算缓存时长
+     * @param status 响应状态码
+     * @param headers 响应头
+     * @return 缓存时长，不可缓存时为null
+     */
+    Duration ttlOf(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            uncacheableCounter.increment();
+            return null;
+        }
+        long maxAgeSeconds = -1;
+        long sharedMaxAgeSeconds = -1;
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : StringUtils.tokenizeToStringArray(value, ",")) {
+                String name = directive.toLowerCase(Locale.ROOT);
+                if (name.equals("no-store") || name.equals("no-cache") || name.equals("private")) {
+                    uncacheableCounter.increment();
+                    return null;
+                }
+                if (name.startsWith("s-maxage=")) {
+                    sharedMaxAgeSeconds = parseSeconds(name.substring("s-maxage=".length()));
+                } else if (name.startsWith("max-age=")) {
+                    maxAgeSeconds = parseSeconds(name.substring("max-age=".length()));
+                }
+            }
+        }
+        // 共享缓存优先使用s-maxage
+        long seconds = sharedMaxAgeSeconds >= 0 ? sharedMaxAgeSeconds : maxAgeSeconds;
+        if (seconds <= 0) {
+            uncacheableCounter.increment();
+            return null;
+        }
+        Duration ttl = Duration.ofSeconds(seconds);
+        return ttl.compareTo(properties.getMaximumTtl()) > 0 ? properties.getMaximumTtl() : ttl;
+    }
+
+    /**
+     * 写入缓存
+     * @param key 缓存键
+     * @param status 响应状态码
+     * @param headers 响应头
+     * @param body 响应体
+     * @param ttl 缓存时长
+     */
+    void put(String key, HttpStatusCode status, HttpHeaders headers, byte[] body, Duration ttl) {
+        if (body.length > properties.getMaximumEntrySize().toBytes()) {
+            tooLargeCounter.increment();
+            return;
+        }
+        HttpHeaders stored = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (EXCLUDED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                stored.addAll(name, values);
+            }
+        });
+        cache.put(key, new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), body, System.nanoTime(),
+                ttl.toNanos()));
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Counter bypassCounter(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("gateway.response.cache.bypass")
+                .description("上游响应未写入缓存的次数")
+                .tag("cache", CACHE_NAME)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,124 @@
+package com.bank.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 响应缓存过滤器，在路由中以 ResponseCache 引用
+ * GET请求命中缓存时直接返回缓存的响应并带上 Age 和 X-Cache: HIT 响应头，不再转发到上游，If-None-Match 与缓存响应的ETag一致时返回304；
+ * 未命中时转发请求，上游响应可缓存时在写回客户端的同时写入缓存
+ * 请求中的 Cache-Control 不影响缓存，客户端反复下拉刷新在缓存有效期内由网关直接应答
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final EdgeResponseCache edgeResponseCache;
+
+    /**
+     * 构造函数
+     * @param edgeResponseCache 网关边缘响应缓存
+     */
+    public ResponseCacheGatewayFilterFactory(EdgeResponseCache edgeResponseCache) {
+        super(Object.class);
+        this.edgeResponseCache = edgeResponseCache;
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        // 响应装饰器需在NettyWriteResponseFilter写回响应之前生效
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (!edgeResponseCache.isEnabled() || exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            String key = edgeResponseCache.keyOf(exchange.getRequest());
+            CachedResponse cached = edgeResponseCache.get(key);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+            ServerHttpResponse response = new CachingResponse(exchange.getResponse(), key);
+            return chain.filter(exchange.mutate().response(response).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(cached.status());
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(System.nanoTime())));
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (notModified(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.headers().getETag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * 写回响应的同时把可缓存的响应体写入缓存
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+
+        CachingResponse(ServerHttpResponse delegate, String key) {
+            super(delegate);
+            this.key = key;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            Duration ttl = edgeResponseCache.ttlOf(getStatusCode(), getHeaders());
+            if (ttl == null) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                edgeResponseCache.put(key, getStatusCode(), getHeaders(), bytes, ttl);
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+    }
+
+    /**
+     * 按弱比较判断客户端已有版本是否与缓存的响应一致
+     * @param ifNoneMatch If-None-Match 请求头中的ETag
+     * @param etag 缓存响应的ETag
+     * @return 是否一致
+     */
+    private static boolean notModified(List<String> ifNoneMatch, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        return ifNoneMatch.stream().anyMatch(candidate -> candidate.equals("*") || stripWeak(candidate).equals(opaque));
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,36 @@
+package com.bank.gateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 网关响应缓存配置属性
+ * 对应配置文件中 gateway.response-cache 前缀下的配置项
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * 是否启用响应缓存，关闭时 ResponseCache 过滤器直接转发
+     */
+    private boolean enabled = false;
+
+    /**
+     * 缓存占用的最大内存（按响应体字节计算），超出后按访问频率淘汰
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 单个响应体的最大字节数，超过的响应不缓存
+     */
+    private DataSize maximumEntrySize = DataSize.ofKilobytes(256);
+
+    /**
+     * 缓存时长上限，上游返回的 max-age 超过该值时按该值缓存
+     */
+    private Duration maximumTtl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,114 @@
+package com.bank.benchmarks;
+
+import com.bank.aggregation.batch.BatchingHomePageLoader;
+import com.bank.aggregation.cache.HomePageSectionCache;
+import com.bank.aggregation.coalesce.SingleFlight;
+import com.bank.aggregation.config.AggregationProperties;
+import com.bank.aggregation.controller.AggregationController;
+import com.bank.aggregation.etag.ContentHasher;
+import com.bank.aggregation.executor.FanOutExecutor;
+import com.bank.aggregation.executor.FanOutMode;
+import com.bank.aggregation.hotkey.HotKeyDetector;
+import com.bank.aggregation.metrics.AggregationMetrics;
+import com.bank.aggregation.prefetch.UserActivityTracker;
+import com.bank.aggregation.service.FeignHomePageSource;
+import com.bank.aggregation.service.HomePageAggregationService;
+import com.bank.aggregation.trace.RequestTracer;
+import com.bank.common.model.HomePageData;
+import com.bank.common.response.ApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 首页聚合扇出基准
+ * 按生产环境的组件装配AggregationController，下游替换为内存中的客户端并配置固定延迟
+ * 关闭板块缓存、调用合并、热点用户识别和延迟预算，每次请求都完整扇出到三个下游，度量扇出执行器本身的吞吐量和分配
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class AggregationFanOutBenchmark {
+
+    /**
+     * 扇出执行模式
+     */
+    @Param({"VIRTUAL", "PLATFORM"})
+    public FanOutMode fanOutMode;
+
+    /**
+     * 每次下游调用的延迟（微秒）
+     */
+    @Param({"0", "2000"})
+    public long downstreamLatencyMicros;
+
+    private FanOutExecutor fanOutExecutor;
+    private BatchingHomePageLoader homePageLoader;
+    private AggregationController aggregationController;
+
+    @Setup
+    public void setUp() {
+        AggregationProperties properties = new AggregationProperties();
+        properties.setLatencyBudget(Duration.ZERO);
+        properties.getCache().setEnabled(false);
+        properties.getCoalescing().setEnabled(false);
+        properties.getHotKeys().setEnabled(false);
+        properties.getFanOut().setMode(fanOutMode);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AggregationProperties.FanOut fanOut = properties.getFanOut();
+        fanOutExecutor = FanOutExecutor.create(fanOut.getMode(), fanOut.getPlatformPoolSize(),
+                fanOut.getPlatformQueueCapacity(), meterRegistry);
+        FeignHomePageSource homePageSource = new FeignHomePageSource(
+                new StubServiceClients.StubUserClient(downstreamLatencyMicros),
+                new StubServiceClients.StubPointClient(downstreamLatencyMicros),
+                new StubServiceClients.StubProductClient(downstreamLatencyMicros),
+                fanOutExecutor);
+        homePageLoader = new BatchingHomePageLoader(homePageSource, properties, meterRegistry);
+        AggregationMetrics aggregationMetrics = new AggregationMetrics(meterRegistry);
+        ContentHasher contentHasher = new ContentHasher(Jackson2ObjectMapperBuilder.json().build());
+        HomePageSectionCache homePageSectionCache = new HomePageSectionCache(homePageLoader,
+                new SingleFlight(properties, meterRegistry), properties, aggregationMetrics, contentHasher,
+                meterRegistry);
+        HomePageAggregationService homePageAggregationService = new HomePageAggregationService(homePageSectionCache,
+                properties, aggregationMetrics, new RequestTracer(properties),
+                new UserActivityTracker(properties, meterRegistry),
+                new HotKeyDetector(homePageSectionCache, properties, meterRegistry));
+        aggregationController = new AggregationController(homePageAggregationService, properties, contentHasher);
+    }
+
+    @TearDown
+    public void tearDown() {
+        homePageLoader.shutdown();
+        fanOutExecutor.shutdown();
+    }
+
+    @Benchmark
+    public ApiResponse<HomePageData> getHomePageData() {
+        long userId = ThreadLocalRandom.current().nextInt(1, 100_000);
+        return aggregationController.getHomePageData(userId, null, null, null)
+                .join()
+                .getBody();
+    }
+}
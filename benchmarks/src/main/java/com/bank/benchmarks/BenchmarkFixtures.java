@@ -0,0 +1,92 @@
+package com.bank.benchmarks;
+
+import com.bank.common.model.HomePageData;
+import com.bank.common.model.HomePageSection;
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.SectionStatus;
+import com.bank.common.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试数据
+ * 生成字段分布与测试数据相近的用户、积分、产品，结果只依赖入参，保证多次运行可比
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] PRODUCT_TYPES = {"FUND", "INSURANCE", "LOAN", "DEPOSIT"};
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 9, 30, 15);
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setName("测试用户" + userId);
+        user.setPhone("138" + String.format("%08d", userId));
+        user.setEmail("user" + userId + "@bank.com");
+        user.setUserLevel((int) (userId % 4) + 1);
+        user.setRegisterTime(BASE_TIME.minusDays(365));
+        user.setLastLoginTime(BASE_TIME.minusMinutes(userId % 600));
+        user.setStatus(1);
+        return user;
+    }
+
+    static Points points(Long userId) {
+        Points points = new Points();
+        points.setId(userId);
+        points.setUserId(userId);
+        points.setTotalPoints(new BigDecimal("15800.50"));
+        points.setAvailablePoints(new BigDecimal("12500.00"));
+        points.setFrozenPoints(new BigDecimal("3300.50"));
+        points.setPointsLevel(3);
+        points.setUpdateTime(BASE_TIME.minusHours(1));
+        return points;
+    }
+
+    static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductCode(PRODUCT_TYPES[(int) (id % PRODUCT_TYPES.length)] + String.format("%06d", id));
+        product.setProductName("产品" + id);
+        product.setProductType(PRODUCT_TYPES[(int) (id % PRODUCT_TYPES.length)]);
+        product.setExpectedRate(BigDecimal.valueOf(150 + id % 600, 4));
+        product.setMinAmount(BigDecimal.valueOf(1000L * (1 + id % 20)).setScale(2));
+        product.setRiskLevel((int) (id % 5) + 1);
+        // 约90%在售
+        product.setStatus(id % 10 == 0 ? 0 : 1);
+        product.setDescription("基准测试产品" + id + "，中低风险，适合稳健型投资者");
+        product.setCreateTime(BASE_TIME.minusDays(id % 90));
+        return product;
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            products.add(product(id));
+        }
+        return products;
+    }
+
+    static HomePageData homePageData(Long userId, int productCount) {
+        HomePageData homePageData = new HomePageData();
+        homePageData.setUser(user(userId));
+        homePageData.setPoints(points(userId));
+        homePageData.setRecommendedProducts(products(productCount));
+        Map<HomePageSection, SectionStatus> sectionStatus = new EnumMap<>(HomePageSection.class);
+        for (HomePageSection section : HomePageSection.values()) {
+            sectionStatus.put(section, SectionStatus.OK);
+        }
+        homePageData.setSectionStatus(sectionStatus);
+        return homePageData;
+    }
+}
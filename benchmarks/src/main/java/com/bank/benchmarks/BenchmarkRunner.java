@@ -0,0 +1,34 @@
+package com.bank.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * 默认运行全部基准并开启GC分析器，同时输出吞吐量和分配速率（gc.alloc.rate.norm），结果写入JSON便于跨版本对比
+ * 命令行参数与JMH一致，例如：java -jar benchmarks/target/benchmarks.jar ProductCatalogBenchmark -p catalogSize=100000
+ */
+public class BenchmarkRunner {
+
+    /**
+     * 主函数
+     * @param args JMH命令行参数
+     * @throws RunnerException 基准运行失败时抛出异常
+     * @throws CommandLineOptionException 命令行参数错误时抛出异常
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
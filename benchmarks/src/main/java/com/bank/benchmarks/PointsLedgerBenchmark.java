@@ -0,0 +1,91 @@
+package com.bank.benchmarks;
+
+import com.bank.common.model.Points;
+import com.bank.point.ledger.PointsLedger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 积分账本读写混合基准
+ * 读线程与写线程同时在少量热点账户上运行，写操作随机发放、扣减、冻结、解冻，度量CAS争用下的读写吞吐量
+ * 每次写操作使用新的请求ID，去重记录保留时长置为0，只度量去重本身的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointsLedgerBenchmark {
+
+    private static final long FIRST_USER_ID = 1000L;
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+
+    private static final BigDecimal INITIAL = new BigDecimal("1000000000.00");
+
+    /**
+     * 热点账户数，越少争用越激烈
+     */
+    @Param({"1", "16"})
+    public int accountCount;
+
+    private PointsLedger ledger;
+
+    private final AtomicLong requestSequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        ledger = new PointsLedger(Duration.ZERO);
+        for (int i = 0; i < accountCount; i++) {
+            ledger.accrue(FIRST_USER_ID + i, "bench-init-" + i, INITIAL);
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Points read() {
+        return ledger.getPoints(randomUserId());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Points write() {
+        Long userId = randomUserId();
+        String requestId = "bench-" + requestSequence.incrementAndGet();
+        try {
+            return switch (ThreadLocalRandom.current().nextInt(4)) {
+                case 0 -> ledger.accrue(userId, requestId, AMOUNT);
+                case 1 -> ledger.redeem(userId, requestId, AMOUNT);
+                case 2 -> ledger.freeze(userId, requestId, AMOUNT);
+                default -> ledger.unfreeze(userId, requestId, AMOUNT);
+            };
+        } catch (IllegalArgumentException e) {
+            // 冻结积分不足被拒绝的操作不改变余额
+            return null;
+        }
+    }
+
+    private Long randomUserId() {
+        return FIRST_USER_ID + ThreadLocalRandom.current().nextInt(accountCount);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bank.benchmarks;
+
+import com.bank.common.codec.WireFormatProperties;
+import com.bank.common.model.Product;
+import com.bank.common.response.ApiResponse;
+import com.bank.product.catalog.ProductCatalog;
+import com.bank.product.controller.ProductController;
+import com.bank.product.encoded.EncodedResponseCache;
+import com.bank.product.recommend.RecommendationEngine;
+import com.bank.product.recommend.UserSegment;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 产品目录查询基准
+ * 在不同目录规模下直接调用ProductController的推荐和详情接口，模拟处理时间置为0，只度量查询本身
+ * getRecommendedProducts 写出预编码的响应字节，getRecommendedProductsSerialized 为每次请求序列化的对照组
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductCatalogBenchmark {
+
+    /**
+     * 目录中的产品数
+     */
+    @Param({"10", "1000", "100000"})
+    public int catalogSize;
+
+    private ProductController productController;
+    private RecommendationEngine recommendationEngine;
+    private ObjectWriter jsonWriter;
+
+    @Setup
+    public void setUp() {
+        ProductCatalog productCatalog = new ProductCatalog();
+        recommendationEngine = new RecommendationEngine(productCatalog, 5);
+        EncodedResponseCache encodedResponseCache = new EncodedResponseCache(productCatalog, recommendationEngine,
+                Jackson2ObjectMapperBuilder.json().build(), Jackson2ObjectMapperBuilder.json(),
+                new WireFormatProperties());
+        productCatalog.replaceAll(BenchmarkFixtures.products(catalogSize));
+        productController = new ProductController(productCatalog, recommendationEngine, encodedResponseCache,
+                Duration.ZERO);
+        jsonWriter = Jackson2ObjectMapperBuilder.json().build().writer();
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> getRecommendedProducts() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return productController.getRecommendedProducts((long) random.nextInt(1, 100_000),
+                random.nextInt(1, 5), random.nextInt(1, 6), MediaType.APPLICATION_JSON_VALUE, null);
+    }
+
+    @Benchmark
+    public byte[] getRecommendedProductsSerialized() throws JsonProcessingException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Product> recommended = recommendationEngine.recommend(
+                UserSegment.of(random.nextInt(1, 5), random.nextInt(1, 6)));
+        return jsonWriter.writeValueAsBytes(ApiResponse.success(recommended));
+    }
+
+    @Benchmark
+    public ApiResponse<Product> getProductById() {
+        return productController.getProductById((long) ThreadLocalRandom.current().nextInt(1, catalogSize + 1));
+    }
+}
@@ -0,0 +1,67 @@
+package com.bank.benchmarks;
+
+import com.bank.common.model.HomePageData;
+import com.bank.common.response.ApiResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 首页响应序列化基准
+ * 使用与Spring Boot默认配置一致的ObjectMapper序列化、反序列化ApiResponse&lt;HomePageData&gt;，
+ * 覆盖积分、产品中的BigDecimal字段和各处的LocalDateTime字段
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * 推荐产品数
+     */
+    @Param({"3", "20"})
+    public int productCount;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ApiResponse<HomePageData> response;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(new TypeReference<ApiResponse<HomePageData>>() { });
+        reader = objectMapper.readerFor(new TypeReference<ApiResponse<HomePageData>>() { });
+        response = ApiResponse.success(BenchmarkFixtures.homePageData(1L, productCount));
+        json = writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ApiResponse<HomePageData> deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
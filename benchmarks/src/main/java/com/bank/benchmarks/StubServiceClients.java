@@ -0,0 +1,126 @@
+package com.bank.benchmarks;
+
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
+import com.bank.common.model.User;
+import com.bank.common.response.ApiResponse;
+import com.bank.feign.client.PointServiceClient;
+import com.bank.feign.client.ProductServiceClient;
+import com.bank.feign.client.UserServiceClient;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存中的下游服务客户端
+ * 实现Feign客户端接口，按配置的延迟阻塞后返回固定数据，用于在没有注册中心和下游服务时度量聚合扇出
+ */
+final class StubServiceClients {
+
+    private StubServiceClients() {
+    }
+
+    private static void simulateLatency(long latencyMicros) {
+        if (latencyMicros <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MICROSECONDS.sleep(latencyMicros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 用户服务客户端
+     */
+    static final class StubUserClient implements UserServiceClient {
+
+        private final long latencyMicros;
+
+        StubUserClient(long latencyMicros) {
+            this.latencyMicros = latencyMicros;
+        }
+
+        @Override
+        public ApiResponse<User> getUserById(Long userId) {
+            simulateLatency(latencyMicros);
+            return ApiResponse.success(BenchmarkFixtures.user(userId));
+        }
+
+        @Override
+        public ApiResponse<Map<Long, User>> getUsersByIds(List<Long> userIds) {
+            simulateLatency(latencyMicros);
+            Map<Long, User> users = new LinkedHashMap<>();
+            for (Long userId : userIds) {
+                users.put(userId, BenchmarkFixtures.user(userId));
+            }
+            return ApiResponse.success(users);
+        }
+    }
+
+    /**
+     * 积分服务客户端
+     */
+    static final class StubPointClient implements PointServiceClient {
+
+        private final long latencyMicros;
+
+        StubPointClient(long latencyMicros) {
+            this.latencyMicros = latencyMicros;
+        }
+
+        @Override
+        public ApiResponse<Points> getUserPoints(Long userId) {
+            simulateLatency(latencyMicros);
+            return ApiResponse.success(BenchmarkFixtures.points(userId));
+        }
+
+        @Override
+        public ApiResponse<Map<Long, Points>> getUserPointsBatch(List<Long> userIds) {
+            simulateLatency(latencyMicros);
+            Map<Long, Points> points = new LinkedHashMap<>();
+            for (Long userId : userIds) {
+                points.put(userId, BenchmarkFixtures.points(userId));
+            }
+            return ApiResponse.success(points);
+        }
+    }
+
+    /**
+     * 产品服务客户端
+     */
+    static final class StubProductClient implements ProductServiceClient {
+
+        private static final String SEGMENT = "L1-P1";
+
+        private final long latencyMicros;
+        private final List<Product> recommended = BenchmarkFixtures.products(5);
+
+        StubProductClient(long latencyMicros) {
+            this.latencyMicros = latencyMicros;
+        }
+
+        @Override
+        public ApiResponse<List<Product>> getRecommendedProducts(Long userId, Integer userLevel, Integer pointsLevel) {
+            simulateLatency(latencyMicros);
+            return ApiResponse.success(recommended);
+        }
+
+        @Override
+        public ApiResponse<RecommendedProductsBatch> getRecommendedProductsBatch(List<Long> userIds,
+                                                                                 List<Integer> userLevels,
+                                                                                 List<Integer> pointsLevels) {
+            simulateLatency(latencyMicros);
+            RecommendedProductsBatch result = new RecommendedProductsBatch();
+            result.getSegments().put(SEGMENT, recommended);
+            for (Long userId : userIds) {
+                result.getUserSegments().put(userId, SEGMENT);
+            }
+            return ApiResponse.success(result);
+        }
+    }
+}
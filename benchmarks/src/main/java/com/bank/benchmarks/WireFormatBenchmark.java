@@ -0,0 +1,92 @@
+package com.bank.benchmarks;
+
+import com.bank.common.codec.WireFormats;
+import com.bank.common.model.Product;
+import com.bank.common.response.ApiResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务间传输格式基准
+ * 对比JSON、Smile、CBOR编码、解码ApiResponse&lt;List&lt;Product&gt;&gt;的耗时，报文大小在每组参数开始时输出
+ * Smile使用与服务间调用相同的WireFormats配置，CBOR采用相同的日期时间数字形式
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<ApiResponse<List<Product>>> TYPE = new TypeReference<>() { };
+
+    /**
+     * 传输格式
+     */
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    /**
+     * 产品数
+     */
+    @Param({"20", "200"})
+    public int productCount;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ApiResponse<List<Product>> response;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = objectMapper(format);
+        writer = objectMapper.writerFor(TYPE);
+        reader = objectMapper.readerFor(TYPE);
+        response = ApiResponse.success(BenchmarkFixtures.products(productCount));
+        payload = writer.writeValueAsBytes(response);
+        System.out.printf("%n%s 报文大小（%d个产品）: %,d 字节%n", format, productCount, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ApiResponse<List<Product>> decode() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    private static ObjectMapper objectMapper(String format) {
+        return switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> WireFormats.smileObjectMapper(Jackson2ObjectMapperBuilder.json());
+            case "cbor" -> Jackson2ObjectMapperBuilder.json()
+                    .factory(new CBORFactory())
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            default -> throw new IllegalArgumentException("未知的传输格式: " + format);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.bank.common.codec;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 服务间传输格式自动配置
+ * 引入common模块的Servlet服务自动支持Smile请求和响应
+ * Smile转换器追加在默认转换器之后，Accept为空或 *&#47;* 的请求仍然返回JSON，只有明确请求Smile时才返回Smile
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+@ConditionalOnClass(SmileFactory.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(WireFormatProperties.class)
+public class WireFormatAutoConfiguration {
+
+    /**
+     * 注册Smile消息转换器
+     * @param builder Spring Boot配置好的ObjectMapper构建器
+     * @return Web MVC配置
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.wire-format.smile-enabled", havingValue = "true", matchIfMissing = true)
+    public WebMvcConfigurer smileWireFormatConfigurer(Jackson2ObjectMapperBuilder builder) {
+        MappingJackson2SmileHttpMessageConverter smileConverter = WireFormats.smileConverter(builder);
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(smileConverter);
+            }
+        };
+    }
+}
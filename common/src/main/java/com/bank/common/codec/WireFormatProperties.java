@@ -0,0 +1,23 @@
+package com.bank.common.codec;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 服务间传输格式配置属性
+ * 对应配置文件中 bank.wire-format 前缀下的配置项
+ */
+@Data
+@ConfigurationProperties(prefix = "bank.wire-format")
+public class WireFormatProperties {
+
+    /**
+     * 服务方是否支持Smile请求和响应，关闭后只按JSON处理
+     */
+    private boolean smileEnabled = true;
+
+    /**
+     * 调用方是否在Accept中优先请求Smile，服务方不支持时自动回退JSON
+     */
+    private boolean preferSmile = true;
+}
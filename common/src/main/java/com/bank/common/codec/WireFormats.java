@@ -0,0 +1,55 @@
+package com.bank.common.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * 服务间传输格式
+ * 内部调用优先使用Smile二进制编码：字段名在同一报文内只写一次，BigDecimal按二进制写入无需解析字符串，
+ * 日期时间写为数字数组；JSON保留为兜底格式，未声明Accept的调用方仍然收到JSON
+ */
+public final class WireFormats {
+
+    /**
+     * Smile媒体类型
+     */
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Smile媒体类型
+     */
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    /**
+     * 优先Smile、JSON兜底的Accept请求头
+     */
+    public static final String ACCEPT_SMILE_OR_JSON = SMILE_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+
+    private WireFormats() {
+    }
+
+    /**
+     * 创建Smile编码的ObjectMapper，沿用Spring Boot的Jackson配置，日期时间改为数字形式
+     * 调用方与服务方都使用该方法创建，保证两端编码一致
+     * @param builder Spring Boot配置好的ObjectMapper构建器
+     * @return Smile编码的ObjectMapper
+     */
+    public static ObjectMapper smileObjectMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * 创建Smile消息转换器
+     * @param builder Spring Boot配置好的ObjectMapper构建器
+     * @return Smile消息转换器
+     */
+    public static MappingJackson2SmileHttpMessageConverter smileConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileObjectMapper(builder));
+    }
+}
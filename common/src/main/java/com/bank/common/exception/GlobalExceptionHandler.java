@@ -1,13 +1,20 @@
 package com.bank.common.exception;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +23,8 @@ import java.util.stream.Collectors;
 /**
  * 全局异常处理器
  * 统一处理系统中未捕获的异常，返回标准化的错误响应
+ * 不在各服务的组件扫描范围内，需要的服务通过@Import显式注册
+ * 错误响应一律以JSON返回
  */
 @Slf4j
 @RestControllerAdvice
@@ -27,15 +36,14 @@ public class GlobalExceptionHandler {
      * @return 错误响应
      */
     @ExceptionHandler(BindException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ValidationErrorResponse handleBindException(BindException e) {
+    public ResponseEntity<ValidationErrorResponse> handleBindException(BindException e) {
         log.error("参数绑定异常: ", e);
         List<String> details = e.getBindingResult()
                 .getFieldErrors()
                 .stream()
                 .map(FieldError::getDefaultMessage)
                 .collect(Collectors.toList());
-        return new ValidationErrorResponse("请求参数校验失败", details);
+        return respond(HttpStatus.BAD_REQUEST, new ValidationErrorResponse("请求参数校验失败", details));
     }
 
     /**
@@ -44,15 +52,63 @@ public class GlobalExceptionHandler {
      * @return 错误响应
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ValidationErrorResponse handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
+    public ResponseEntity<ValidationErrorResponse> handleMethodArgumentNotValidException(
+            MethodArgumentNotValidException e) {
         log.error("方法参数校验异常: ", e);
         List<String> details = e.getBindingResult()
                 .getFieldErrors()
                 .stream()
                 .map(FieldError::getDefaultMessage)
                 .collect(Collectors.toList());
-        return new ValidationErrorResponse("请求参数校验失败", details);
+        return respond(HttpStatus.BAD_REQUEST, new ValidationErrorResponse("请求参数校验失败", details));
+    }
+
+    /**
+     * 处理方法参数约束校验异常（@Validated放在类上，约束放在路径变量或请求参数上）
+     * @param e 约束校验异常
+     * @return 错误响应
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ValidationErrorResponse> handleConstraintViolationException(ConstraintViolationException e) {
+        log.warn("参数约束校验异常: {}", e.getMessage());
+        List<String> details = e.getConstraintViolations()
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toList());
+        return respond(HttpStatus.BAD_REQUEST, new ValidationErrorResponse("请求参数校验失败", details));
+    }
+
+    /**
+     * 处理请求体无法解析异常
+     * @param e 请求体解析异常
+     * @return 错误响应
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
+        log.warn("请求体解析异常: {}", e.getMessage());
+        return respond(HttpStatus.BAD_REQUEST, new ErrorResponse("400", "请求体格式错误"));
+    }
+
+    /**
+     * 处理请求参数类型不匹配异常
+     * @param e 参数类型不匹配异常
+     * @return 错误响应
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatchException(
+            MethodArgumentTypeMismatchException e) {
+        log.warn("参数类型不匹配: {}", e.getMessage());
+        return respond(HttpStatus.BAD_REQUEST, new ErrorResponse("400", "请求参数错误: " + e.getName()));
+    }
+
+    /**
+     * 处理自带HTTP状态的异常（如ResponseStatusException），保留原状态码
+     * @param e 带状态的异常
+     * @return 错误响应
+     */
+    @ExceptionHandler(ErrorResponseException.class)
+    public ResponseEntity<ErrorResponse> handleErrorResponseException(ErrorResponseException e) {
+        return withFrameworkStatus(e, e);
     }
 
     /**
@@ -61,10 +117,9 @@ public class GlobalExceptionHandler {
      * @return 错误响应
      */
     @ExceptionHandler(RuntimeException.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handleRuntimeException(RuntimeException e) {
+    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException e) {
         log.error("运行时异常: ", e);
-        return new ErrorResponse("500", "系统内部错误: " + e.getMessage());
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, new ErrorResponse("500", "系统内部错误: " + e.getMessage()));
     }
 
     /**
@@ -73,21 +128,41 @@ public class GlobalExceptionHandler {
      * @return 错误响应
      */
     @ExceptionHandler(IllegalArgumentException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handleIllegalArgumentException(IllegalArgumentException e) {
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
         log.error("非法参数异常: ", e);
-        return new ErrorResponse("400", "请求参数错误: " + e.getMessage());
+        return respond(HttpStatus.BAD_REQUEST, new ErrorResponse("400", "请求参数错误: " + e.getMessage()));
     }
 
     /**
      * 处理通用异常
+     * 自带HTTP状态的框架异常（如请求方法不支持、媒体类型不支持、异步请求超时）保留原状态码
      * @param e 通用异常
      * @return 错误响应
      */
     @ExceptionHandler(Exception.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handleException(Exception e) {
+    public ResponseEntity<ErrorResponse> handleException(Exception e) {
+        if (e instanceof org.springframework.web.ErrorResponse framework) {
+            return withFrameworkStatus(e, framework);
+        }
         log.error("未知异常: ", e);
-        return new ErrorResponse("500", "系统错误: " + e.getMessage());
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, new ErrorResponse("500", "系统错误: " + e.getMessage()));
+    }
+
+    private ResponseEntity<ErrorResponse> withFrameworkStatus(Exception e,
+                                                              org.springframework.web.ErrorResponse framework) {
+        int status = framework.getStatusCode().value();
+        log.warn("请求处理异常，状态码: {}, 原因: {}", status, e.getMessage());
+        return respond(framework.getStatusCode(),
+                new ErrorResponse(String.valueOf(status), framework.getBody().getDetail()));
+    }
+
+    /**
+     * 以JSON返回错误响应
+     * 显式指定Content-Type，出错的接口只产出SSE、NDJSON等其他媒体类型时，错误响应仍能以JSON写出
+     */
+    private static <T> ResponseEntity<T> respond(HttpStatusCode status, T body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 }
\ No newline at end of file
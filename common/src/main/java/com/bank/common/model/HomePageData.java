@@ -1,7 +1,9 @@
 package com.bank.common.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 首页数据聚合实体类
@@ -24,6 +26,17 @@ public class HomePageData {
      */
     private List<Product> recommendedProducts;
     
+    /**
+     * 各板块加载状态
+     */
+    private Map<HomePageSection, SectionStatus> sectionStatus;
+    
+    /**
+     * 各板块内容摘要，用于计算ETag，仅在进程内使用，不参与序列化
+     */
+    @JsonIgnore
+    private Map<HomePageSection, String> sectionVersions;
+    
     /**
      * 展示消息
      */
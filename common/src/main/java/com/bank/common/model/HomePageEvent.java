@@ -0,0 +1,95 @@
+package com.bank.common.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 首页流式事件实体类
+ * 流式首页接口每个板块就绪时发送一个 section 事件，所有板块结束后发送一个 complete 事件
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HomePageEvent {
+    /**
+     * 板块事件类型
+     */
+    public static final String SECTION = "section";
+
+    /**
+     * 结束事件类型
+     */
+    public static final String COMPLETE = "complete";
+
+    /**
+     * 事件类型
+     */
+    private String type;
+
+    /**
+     * 板块，仅板块事件有值
+     */
+    private HomePageSection section;
+
+    /**
+     * 板块加载状态，仅板块事件有值
+     */
+    private SectionStatus status;
+
+    /**
+     * 板块内容摘要，客户端可在下次请求的 If-None-Match-Sections 中携带
+     */
+    private String version;
+
+    /**
+     * 板块数据，板块加载失败或内容未变化时为null
+     */
+    private Object data;
+
+    /**
+     * 各板块加载状态，仅结束事件有值
+     */
+    private Map<HomePageSection, SectionStatus> sectionStatus;
+
+    /**
+     * 展示消息，仅结束事件有值
+     */
+    private String displayMessage;
+
+    /**
+     * 时间戳
+     */
+    private Long timestamp = System.currentTimeMillis();
+
+    /**
+     * 构造板块事件
+     * @param section 板块
+     * @param status 板块加载状态
+     * @param version 板块内容摘要
+     * @param data 板块数据
+     * @return 板块事件
+     */
+    public static HomePageEvent section(HomePageSection section, SectionStatus status, String version, Object data) {
+        HomePageEvent event = new HomePageEvent();
+        event.setType(SECTION);
+        event.setSection(section);
+        event.setStatus(status);
+        event.setVersion(version);
+        event.setData(data);
+        return event;
+    }
+
+    /**
+     * 构造结束事件
+     * @param homePageData 聚合完成的首页数据
+     * @return 结束事件
+     */
+    public static HomePageEvent complete(HomePageData homePageData) {
+        HomePageEvent event = new HomePageEvent();
+        event.setType(COMPLETE);
+        event.setSectionStatus(homePageData.getSectionStatus());
+        event.setDisplayMessage(homePageData.getDisplayMessage());
+        return event;
+    }
+}
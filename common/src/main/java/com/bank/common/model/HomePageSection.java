@@ -0,0 +1,22 @@
+package com.bank.common.model;
+
+/**
+ * 首页板块枚举
+ * 用于标识首页聚合数据中的各个板块
+ */
+public enum HomePageSection {
+    /**
+     * 用户信息
+     */
+    USER,
+
+    /**
+     * 用户积分信息
+     */
+    POINTS,
+
+    /**
+     * 推荐产品列表
+     */
+    RECOMMENDED_PRODUCTS
+}
@@ -0,0 +1,34 @@
+package com.bank.common.model;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量推荐结果实体类
+ * 推荐列表按用户分群计算，同一分群的列表只返回一次，用户通过分群标识引用对应的列表
+ */
+@Data
+public class RecommendedProductsBatch {
+    /**
+     * 分群标识到推荐产品列表的映射
+     */
+    private Map<String, List<Product>> segments = new LinkedHashMap<>();
+
+    /**
+     * 用户ID到分群标识的映射
+     */
+    private Map<Long, String> userSegments = new LinkedHashMap<>();
+
+    /**
+     * 获取用户的推荐产品列表
+     * @param userId 用户ID
+     * @return 推荐产品列表，批量结果中不存在该用户时返回null
+     */
+    public List<Product> productsOf(Long userId) {
+        String segment = userSegments.get(userId);
+        return segment != null ? segments.get(segment) : null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.common.model;
+
+/**
+ * 首页板块加载状态
+ * 移动端可根据状态只重新拉取缺失的板块
+ */
+public enum SectionStatus {
+    /**
+     * 加载成功
+     */
+    OK,
+
+    /**
+     * 超出延迟预算，板块数据未返回
+     */
+    TIMED_OUT,
+
+    /**
+     * 下游调用失败，板块数据缺失或为降级数据
+     */
+    FAILED,
+
+    /**
+     * 返回的是缓存中已过期、正在后台刷新的数据
+     */
+    STALE,
+
+    /**
+     * 板块内容与客户端在 If-None-Match-Sections 中声明的版本一致，本次未返回板块数据
+     */
+    NOT_MODIFIED;
+
+    /**
+     * 板块数据是否缺失或为降级数据
+     * 过期数据（STALE）属于正常的后台刷新，版本未变（NOT_MODIFIED）由客户端已有数据补足，两者都不算部分失败
+     * @return 超出延迟预算或下游调用失败时为true
+     */
+    public boolean isDegraded() {
+        return this == TIMED_OUT || this == FAILED;
+    }
+}
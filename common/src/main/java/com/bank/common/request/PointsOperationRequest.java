@@ -0,0 +1,32 @@
+package com.bank.common.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 积分变动请求对象
+ * 用于封装积分发放、扣减、冻结、解冻请求参数
+ */
+@Data
+public class PointsOperationRequest {
+    /**
+     * 请求ID，由调用方为每次积分变动生成，重试时保持不变，积分服务据此去重
+     */
+    @NotBlank(message = "请求ID不能为空")
+    @Size(max = 64, message = "请求ID不能超过64个字符")
+    private String requestId;
+
+    /**
+     * 变动积分数，必须大于0，最多两位小数
+     */
+    @NotNull(message = "积分数不能为空")
+    @DecimalMin(value = "0.01", message = "积分数必须大于0")
+    @Digits(integer = 15, fraction = 2, message = "积分数最多保留两位小数")
+    private BigDecimal amount;
+}
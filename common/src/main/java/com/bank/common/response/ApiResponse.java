@@ -1,5 +1,6 @@
 package com.bank.common.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 /**
@@ -29,6 +30,12 @@ public class ApiResponse<T> {
      */
     private Long timestamp;
     
+    /**
+     * 是否为调用方本地生成的降级响应，仅在进程内使用，不参与序列化
+     */
+    @JsonIgnore
+    private boolean fallback;
+    
     /**
      * 无参构造函数
      */
@@ -62,6 +69,19 @@ public class ApiResponse<T> {
         return response;
     }
     
+    /**
+     * 降级响应（有数据）
+     * 响应码与成功响应一致，调用方可据此区分真实数据与降级数据
+     * @param data 降级数据
+     * @param <T> 响应数据类型
+     * @return API响应
+     */
+    public static <T> ApiResponse<T> fallback(T data) {
+        ApiResponse<T> response = success(data);
+        response.fallback = true;
+        return response;
+    }
+    
     /**
      * 失败响应
      * @param code 错误码
@@ -0,0 +1,74 @@
+package com.bank.common.security;
+
+import com.bank.common.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 内部接口访问令牌校验过滤器
+ * 内部接口（/internal/**）只供服务间调用，请求头中的访问令牌与配置一致时才放行，网关不转发内部接口
+ */
+@Slf4j
+public class InternalApiAuthFilter extends OncePerRequestFilter {
+
+    /**
+     * 内部接口路径前缀
+     */
+    public static final String PATH_PREFIX = "/internal";
+
+    private final String header;
+    private final byte[] expectedToken;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 构造函数
+     * @param properties 内部接口访问配置属性
+     * @param objectMapper 写出错误响应的ObjectMapper
+     */
+    public InternalApiAuthFilter(InternalApiProperties properties, ObjectMapper objectMapper) {
+        this.header = properties.getHeader();
+        this.expectedToken = StringUtils.hasText(properties.getToken())
+                ? properties.getToken().getBytes(StandardCharsets.UTF_8) : null;
+        this.objectMapper = objectMapper;
+        if (expectedToken == null) {
+            log.warn("未配置内部接口访问令牌(bank.internal-api.token)，所有内部接口请求将被拒绝");
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (expectedToken == null) {
+            reject(response, HttpStatus.FORBIDDEN, "内部接口未开放");
+            return;
+        }
+        String token = request.getHeader(header);
+        // 按固定时间比较，避免通过响应耗时猜测令牌
+        if (token == null || !MessageDigest.isEqual(expectedToken, token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("内部接口访问令牌校验失败，路径: {}, 来源: {}", request.getRequestURI(), request.getRemoteAddr());
+            reject(response, HttpStatus.UNAUTHORIZED, "内部接口访问令牌无效");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(String.valueOf(status.value()), message));
+    }
+}
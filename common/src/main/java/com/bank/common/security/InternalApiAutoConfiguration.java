@@ -0,0 +1,36 @@
+package com.bank.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+/**
+ * 内部接口访问控制自动配置
+ * 引入common模块的Servlet服务对 /internal/** 下的接口校验访问令牌
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(InternalApiProperties.class)
+public class InternalApiAutoConfiguration {
+
+    /**
+     * 注册内部接口访问令牌校验过滤器
+     * @param properties 内部接口访问配置属性
+     * @param objectMapper ObjectMapper
+     * @return 过滤器注册
+     */
+    @Bean
+    public FilterRegistrationBean<InternalApiAuthFilter> internalApiAuthFilter(InternalApiProperties properties,
+                                                                               ObjectMapper objectMapper) {
+        FilterRegistrationBean<InternalApiAuthFilter> registration =
+                new FilterRegistrationBean<>(new InternalApiAuthFilter(properties, objectMapper));
+        registration.addUrlPatterns(InternalApiAuthFilter.PATH_PREFIX + "/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
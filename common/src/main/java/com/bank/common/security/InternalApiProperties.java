@@ -0,0 +1,23 @@
+package com.bank.common.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 内部接口访问配置属性
+ * 对应配置文件中 bank.internal-api 前缀下的配置项
+ */
+@Data
+@ConfigurationProperties(prefix = "bank.internal-api")
+public class InternalApiProperties {
+
+    /**
+     * 调用内部接口需要携带的访问令牌，未配置时拒绝所有内部接口请求
+     */
+    private String token;
+
+    /**
+     * 携带访问令牌的请求头
+     */
+    private String header = "X-Internal-Token";
+}
@@ -0,0 +1,71 @@
+package com.bank.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 内部接口访问令牌校验过滤器测试
+ */
+class InternalApiAuthFilterTest {
+
+    @Test
+    void requestWithMatchingTokenPassesThrough() throws Exception {
+        MockHttpServletRequest request = internalRequest();
+        request.addHeader("X-Internal-Token", "secret");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter("secret").doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void requestWithoutTokenIsRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter("secret").doFilter(internalRequest(), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void requestWithWrongTokenIsRejected() throws Exception {
+        MockHttpServletRequest request = internalRequest();
+        request.addHeader("X-Internal-Token", "guess");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter("secret").doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+    }
+
+    @Test
+    void unconfiguredTokenRejectsEveryRequest() throws Exception {
+        MockHttpServletRequest request = internalRequest();
+        request.addHeader("X-Internal-Token", "");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter("").doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    private static InternalApiAuthFilter filter(String token) {
+        InternalApiProperties properties = new InternalApiProperties();
+        properties.setToken(token);
+        return new InternalApiAuthFilter(properties, new ObjectMapper());
+    }
+
+    private static MockHttpServletRequest internalRequest() {
+        return new MockHttpServletRequest("PUT", "/internal/products/admin");
+    }
+}
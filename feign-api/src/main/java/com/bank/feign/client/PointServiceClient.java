@@ -6,8 +6,12 @@ import com.bank.feign.client.fallback.PointServiceClientFallback;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import com.bank.feign.config.FeignConfig;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 积分服务Feign客户端
  * 用于调用积分服务提供的API接口
@@ -22,4 +26,12 @@ public interface PointServiceClient {
      */
     @GetMapping("/user/{userId}")
     ApiResponse<Points> getUserPoints(@PathVariable("userId") Long userId);
+    
+    /**
+     * 根据用户ID批量获取用户积分信息
+     * @param userIds 用户ID列表
+     * @return 用户ID到积分信息的映射
+     */
+    @GetMapping("/batch")
+    ApiResponse<Map<Long, Points>> getUserPointsBatch(@RequestParam("userIds") List<Long> userIds);
 }
\ No newline at end of file
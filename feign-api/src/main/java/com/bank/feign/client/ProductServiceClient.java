@@ -1,6 +1,7 @@
 package com.bank.feign.client;
 
 import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
 import com.bank.common.response.ApiResponse;
 import com.bank.feign.client.fallback.ProductServiceClientFallback;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -19,9 +20,27 @@ public interface ProductServiceClient {
     
     /**
      * 获取推荐产品列表
+     * 产品服务按用户等级和积分等级确定用户分群，等级为0表示未知，按最保守的分群推荐
      * @param userId 用户ID
+     * @param userLevel 用户等级
+     * @param pointsLevel 积分等级
      * @return 推荐产品列表
      */
     @GetMapping("/recommended")
-    ApiResponse<List<Product>> getRecommendedProducts(@RequestParam("userId") Long userId);
+    ApiResponse<List<Product>> getRecommendedProducts(@RequestParam("userId") Long userId,
+                                                      @RequestParam("userLevel") Integer userLevel,
+                                                      @RequestParam("pointsLevel") Integer pointsLevel);
+    
+    /**
+     * 批量获取多个用户的推荐产品列表
+     * 三个列表按位置一一对应
+     * @param userIds 用户ID列表
+     * @param userLevels 用户等级列表
+     * @param pointsLevels 积分等级列表
+     * @return 按分群去重的推荐产品列表及用户ID到分群的映射
+     */
+    @GetMapping("/recommended/batch")
+    ApiResponse<RecommendedProductsBatch> getRecommendedProductsBatch(@RequestParam("userIds") List<Long> userIds,
+                                                                      @RequestParam("userLevels") List<Integer> userLevels,
+                                                                      @RequestParam("pointsLevels") List<Integer> pointsLevels);
 }
\ No newline at end of file
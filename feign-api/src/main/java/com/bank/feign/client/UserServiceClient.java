@@ -6,8 +6,12 @@ import com.bank.feign.client.fallback.UserServiceClientFallback;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import com.bank.feign.config.FeignConfig;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 用户服务Feign客户端
  * 用于调用用户服务提供的API接口
@@ -22,4 +26,12 @@ public interface UserServiceClient {
      */
     @GetMapping("/{userId}")
     ApiResponse<User> getUserById(@PathVariable("userId") Long userId);
+    
+    /**
+     * 根据用户ID批量获取用户信息
+     * @param userIds 用户ID列表
+     * @return 用户ID到用户信息的映射
+     */
+    @GetMapping("/batch")
+    ApiResponse<Map<Long, User>> getUsersByIds(@RequestParam("userIds") List<Long> userIds);
 }
\ No newline at end of file
@@ -7,6 +7,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 积分服务Feign客户端降级处理类
@@ -25,6 +28,16 @@ public class PointServiceClientFallback implements PointServiceClient {
         defaultPoints.setAvailablePoints(BigDecimal.ZERO);
         defaultPoints.setFrozenPoints(BigDecimal.ZERO);
         defaultPoints.setPointsLevel(1);
-        return ApiResponse.success(defaultPoints);
+        return ApiResponse.fallback(defaultPoints);
+    }
+    
+    @Override
+    public ApiResponse<Map<Long, Points>> getUserPointsBatch(List<Long> userIds) {
+        log.error("积分服务批量调用失败，执行降级逻辑，用户数: {}", userIds.size());
+        Map<Long, Points> defaultPoints = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            defaultPoints.put(userId, getUserPoints(userId).getData());
+        }
+        return ApiResponse.fallback(defaultPoints);
     }
 }
\ No newline at end of file
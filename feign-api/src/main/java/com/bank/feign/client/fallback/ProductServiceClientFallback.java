@@ -1,6 +1,7 @@
 package com.bank.feign.client.fallback;
 
 import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
 import com.bank.common.response.ApiResponse;
 import com.bank.feign.client.ProductServiceClient;
 import lombok.extern.slf4j.Slf4j;
@@ -17,10 +18,26 @@ import java.util.List;
 @Component
 public class ProductServiceClientFallback implements ProductServiceClient {
     
+    // 降级时所有用户共用一个空推荐列表
+    private static final String FALLBACK_SEGMENT = "fallback";
+    
     @Override
-    public ApiResponse<List<Product>> getRecommendedProducts(Long userId) {
+    public ApiResponse<List<Product>> getRecommendedProducts(Long userId, Integer userLevel, Integer pointsLevel) {
         log.error("产品服务调用失败，执行降级逻辑，用户ID: {}", userId);
         // 返回空的产品列表而不是null，避免NPE
-        return ApiResponse.success(new ArrayList<>());
+        return ApiResponse.fallback(new ArrayList<>());
+    }
+    
+    @Override
+    public ApiResponse<RecommendedProductsBatch> getRecommendedProductsBatch(List<Long> userIds,
+                                                                             List<Integer> userLevels,
+                                                                             List<Integer> pointsLevels) {
+        log.error("产品服务批量调用失败，执行降级逻辑，用户数: {}", userIds.size());
+        RecommendedProductsBatch defaultProducts = new RecommendedProductsBatch();
+        defaultProducts.getSegments().put(FALLBACK_SEGMENT, new ArrayList<>());
+        for (Long userId : userIds) {
+            defaultProducts.getUserSegments().put(userId, FALLBACK_SEGMENT);
+        }
+        return ApiResponse.fallback(defaultProducts);
     }
 }
\ No newline at end of file
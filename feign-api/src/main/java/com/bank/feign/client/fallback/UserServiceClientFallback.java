@@ -6,6 +6,10 @@ import com.bank.feign.client.UserServiceClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 用户服务Feign客户端降级处理类
  * 当用户服务不可用时，提供降级处理逻辑
@@ -25,6 +29,16 @@ public class UserServiceClientFallback implements UserServiceClient {
         defaultUser.setEmail("未知");
         defaultUser.setUserLevel(1);
         defaultUser.setStatus(1);
-        return ApiResponse.success(defaultUser);
+        return ApiResponse.fallback(defaultUser);
+    }
+    
+    @Override
+    public ApiResponse<Map<Long, User>> getUsersByIds(List<Long> userIds) {
+        log.error("用户服务批量调用失败，执行降级逻辑，用户数: {}", userIds.size());
+        Map<Long, User> defaultUsers = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            defaultUsers.put(userId, getUserById(userId).getData());
+        }
+        return ApiResponse.fallback(defaultUsers);
     }
 }
\ No newline at end of file
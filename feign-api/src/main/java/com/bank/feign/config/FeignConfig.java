@@ -1,18 +1,57 @@
 package com.bank.feign.config;
 
+import com.bank.common.codec.WireFormatProperties;
+import com.bank.common.codec.WireFormats;
+import com.bank.feign.hedge.HedgingCapability;
+import com.bank.feign.hedge.HedgingProperties;
+import com.bank.feign.limit.ConcurrencyLimiterCapability;
+import com.bank.feign.limit.LimiterProperties;
+import com.bank.feign.retry.RetryBudgetCapability;
+import com.bank.feign.retry.RetryProperties;
+import com.bank.feign.transport.ConnectionObserver;
+import com.bank.feign.transport.OkHttpTransport;
+import com.bank.feign.transport.TransportProperties;
+import feign.Client;
 import feign.Contract;
 import feign.Logger;
 import feign.Request;
+import feign.RequestInterceptor;
 import feign.Retryer;
+import feign.codec.Decoder;
+import feign.okhttp.OkHttpClient;
+import feign.optionals.OptionalDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
 import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Feign客户端配置类
  * 用于优化Feign客户端的性能和行为
+ * 作为各Feign客户端独立上下文的配置加载，每个客户端各自持有一份以下Bean
  */
 @Configuration
+@EnableConfigurationProperties({HedgingProperties.class, RetryProperties.class, LimiterProperties.class,
+        TransportProperties.class, WireFormatProperties.class})
 public class FeignConfig {
     
     /**
@@ -24,14 +63,105 @@ public class FeignConfig {
         return new Request.Options(5000, 10000); // 连接超时5秒，读取超时10秒
     }
     
+    /**
+     * 配置该下游独立的OkHttp传输，bank.feign.transport.enabled=false 时回退到全局客户端
+     * @param serviceId 当前Feign客户端的服务名
+     * @param properties 传输层配置属性
+     * @param meterRegistry 指标注册中心
+     * @param connectionObservers 连接获取观察者
+     * @return OkHttp传输
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "bank.feign.transport.enabled", havingValue = "true", matchIfMissing = true)
+    public OkHttpTransport okHttpTransport(@Value("${spring.cloud.openfeign.client.name}") String serviceId,
+                                           TransportProperties properties, MeterRegistry meterRegistry,
+                                           ObjectProvider<ConnectionObserver> connectionObservers) {
+        return new OkHttpTransport(serviceId, properties, meterRegistry, connectionObservers.orderedStream().toList());
+    }
+    
+    /**
+     * 配置Feign客户端，经负载均衡选择实例后通过该下游独立的OkHttp传输发送请求
+     * 覆盖全局的负载均衡客户端，仅对当前Feign客户端生效
+     * @param okHttpTransport OkHttp传输
+     * @param loadBalancerClient 负载均衡客户端
+     * @param loadBalancerClientFactory 负载均衡客户端工厂
+     * @param transformers 负载均衡请求转换器
+     * @return Feign客户端
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.feign.transport.enabled", havingValue = "true", matchIfMissing = true)
+    public Client feignClient(OkHttpTransport okHttpTransport, LoadBalancerClient loadBalancerClient,
+                              LoadBalancerClientFactory loadBalancerClientFactory,
+                              ObjectProvider<LoadBalancerFeignRequestTransformer> transformers) {
+        return new FeignBlockingLoadBalancerClient(new OkHttpClient(okHttpTransport.getOkHttpClient()),
+                loadBalancerClient, loadBalancerClientFactory, transformers.orderedStream().toList());
+    }
+    
+    /**
+     * 配置重试预算，成功响应为该下游积累重试令牌
+     * @param serviceId 当前Feign客户端的服务名
+     * @param properties 重试策略配置属性
+     * @param meterRegistry 指标注册中心
+     * @return 重试预算扩展
+     */
+    @Bean
+    public RetryBudgetCapability retryBudgetCapability(@Value("${spring.cloud.openfeign.client.name}") String serviceId,
+                                                       RetryProperties properties, MeterRegistry meterRegistry) {
+        return new RetryBudgetCapability(serviceId, properties, meterRegistry);
+    }
+    
     /**
      * 配置重试策略
+     * 重试受该下游的重试预算和调用截止时间限制，退避时间带随机抖动
+     * @param retryBudgetCapability 重试预算扩展
      * @return 重试器
      */
     @Bean
-    public Retryer feignRetryer() {
-        // 自定义重试策略
-        return new Retryer.Default(100, 1000, 3); // 初始间隔100ms，最大间隔1000ms，最多重试3次
+    public Retryer feignRetryer(RetryBudgetCapability retryBudgetCapability) {
+        return retryBudgetCapability.newRetryer();
+    }
+    
+    /**
+     * 配置响应解码器，在全局消息转换器之前加入Smile转换器，按响应的Content-Type选择Smile或JSON解码
+     * @param messageConverters 全局消息转换器
+     * @param customizers 消息转换器定制器
+     * @param objectMapperBuilder Spring Boot配置好的ObjectMapper构建器
+     * @return 响应解码器
+     */
+    @Bean
+    public Decoder feignDecoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                ObjectProvider<HttpMessageConverterCustomizer> customizers,
+                                Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        HttpMessageConverter<?> smileConverter = WireFormats.smileConverter(objectMapperBuilder);
+        ObjectFactory<HttpMessageConverters> withSmile = new ObjectFactory<>() {
+            private volatile HttpMessageConverters converters;
+
+            @Override
+            public HttpMessageConverters getObject() {
+                if (converters == null) {
+                    List<HttpMessageConverter<?>> list = new ArrayList<>();
+                    list.add(smileConverter);
+                    list.addAll(messageConverters.getObject().getConverters());
+                    converters = new HttpMessageConverters(false, list);
+                }
+                return converters;
+            }
+        };
+        return new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(withSmile, customizers)));
+    }
+    
+    /**
+     * 配置Accept请求头，优先请求Smile二进制格式，下游不支持时返回JSON
+     * @param wireFormatProperties 传输格式配置属性
+     * @return 请求拦截器
+     */
+    @Bean
+    public RequestInterceptor wireFormatAcceptInterceptor(WireFormatProperties wireFormatProperties) {
+        return template -> {
+            if (wireFormatProperties.isPreferSmile() && !template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, WireFormats.ACCEPT_SMILE_OR_JSON);
+            }
+        };
     }
     
     /**
@@ -51,4 +181,36 @@ public class FeignConfig {
     public Contract feignContract() {
         return new SpringMvcContract();
     }
-}
\ No newline at end of file
+    
+    /**
+     * 配置对冲请求扩展，bank.feign.hedging.enabled=true 时生效
+     * @param serviceId 当前Feign客户端的服务名
+     * @param properties 对冲配置属性
+     * @param loadBalancerClient 负载均衡客户端
+     * @param meterRegistry 指标注册中心
+     * @return 对冲请求扩展
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "bank.feign.hedging.enabled", havingValue = "true")
+    public HedgingCapability hedgingCapability(@Value("${spring.cloud.openfeign.client.name}") String serviceId,
+                                               HedgingProperties properties, LoadBalancerClient loadBalancerClient,
+                                               MeterRegistry meterRegistry) {
+        return new HedgingCapability(serviceId, properties, loadBalancerClient, meterRegistry);
+    }
+    
+    /**
+     * 配置自适应并发限制扩展，bank.feign.limiter.enabled=false 时关闭
+     * 在途请求超过按耗时估算的并发上限时快速失败，进入Feign客户端的降级逻辑
+     * @param serviceId 当前Feign客户端的服务名
+     * @param properties 并发限制配置属性
+     * @param meterRegistry 指标注册中心
+     * @return 并发限制扩展
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.feign.limiter.enabled", havingValue = "true", matchIfMissing = true)
+    public ConcurrencyLimiterCapability concurrencyLimiterCapability(
+            @Value("${spring.cloud.openfeign.client.name}") String serviceId, LimiterProperties properties,
+            MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiterCapability(serviceId, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bank.feign.hedge;
+
+import feign.Capability;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对冲请求扩展
+ * 在Feign客户端构建时把负载均衡客户端替换为HedgingClient，只对开启对冲的服务生效
+ * 每个Feign客户端一个实例，持有该客户端发送下游调用的线程池；线程池不排队，线程数达到上限后拒绝新任务，由HedgingClient直接发送
+ * 排序在其他扩展之前，确保拿到的是未被包装的负载均衡客户端
+ */
+@Slf4j
+public class HedgingCapability implements Capability, Ordered {
+
+    private final String serviceId;
+    private final HedgingProperties properties;
+    private final LoadBalancerClient loadBalancerClient;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+
+    /**
+     * 构造函数
+     * @param serviceId 服务名
+     * @param properties 对冲配置属性
+     * @param loadBalancerClient 负载均衡客户端
+     * @param meterRegistry 指标注册中心
+     */
+    public HedgingCapability(String serviceId, HedgingProperties properties, LoadBalancerClient loadBalancerClient,
+                             MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.properties = properties;
+        this.loadBalancerClient = loadBalancerClient;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, Math.max(2, properties.getMaxThreads()), 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "feign-hedge-" + serviceId + "-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        if (!properties.isEnabledFor(serviceId)) {
+            return client;
+        }
+        if (!(client instanceof FeignBlockingLoadBalancerClient loadBalancedClient)) {
+            // 配置了固定url的客户端不经过负载均衡，没有可对冲的其他实例
+            log.warn("Feign客户端 {} 未使用负载均衡，不开启对冲请求", serviceId);
+            return client;
+        }
+        log.info("Feign客户端 {} 已开启对冲请求，分位数: {}, 预算比例: {}, 线程数上限: {}", serviceId,
+                properties.getPercentile(), properties.getBudgetRatio(), properties.getMaxThreads());
+        return new HedgingClient(serviceId, loadBalancedClient.getDelegate(), loadBalancerClient, executor,
+                properties, meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * 关闭线程池
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,268 @@
+package com.bank.feign.hedge;
+
+import com.bank.feign.support.TokenBudget;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对冲请求Feign客户端
+ * GET请求先发往负载均衡选出的实例，超过该客户端近期p95耗时仍未返回时，在预算允许的情况下向另一个实例再发一次，先返回的响应生效
+ * 落选的响应返回后立即关闭以释放连接；非GET请求不对冲，只按负载均衡发送一次
+ * 线程池拒绝任务（线程用尽）时原请求在调用线程上直接发送、对冲请求不再发出，不会无限增加线程
+ * 替代FeignBlockingLoadBalancerClient：自行通过LoadBalancerClient选择实例，再交给底层HTTP客户端发送
+ */
+@Slf4j
+public class HedgingClient implements Client {
+
+    // 选择另一个实例的最大尝试次数
+    private static final int MAX_CHOOSE_ATTEMPTS = 3;
+
+    // 预算允许的最多连续对冲次数
+    private static final int MAX_BURST = 10;
+
+    private final String serviceId;
+    private final Client delegate;
+    private final LoadBalancerClient loadBalancerClient;
+    private final Executor executor;
+    private final LatencyTracker latencyTracker;
+    private final TokenBudget budget;
+    private final Counter firedCounter;
+    private final Counter wonCounter;
+    private final Counter budgetExhaustedCounter;
+    private final Counter noAlternateCounter;
+    private final Counter saturatedCounter;
+
+    /**
+     * 构造函数
+     * @param serviceId 服务名
+     * @param delegate 底层HTTP客户端
+     * @param loadBalancerClient 负载均衡客户端
+     * @param executor 执行下游调用的线程池
+     * @param properties 对冲配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public HedgingClient(String serviceId, Client delegate, LoadBalancerClient loadBalancerClient, Executor executor,
+                         HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.delegate = delegate;
+        this.loadBalancerClient = loadBalancerClient;
+        this.executor = executor;
+        this.latencyTracker = new LatencyTracker(serviceId, properties, meterRegistry);
+        this.budget = new TokenBudget(properties.getBudgetRatio(), MAX_BURST, false);
+        this.firedCounter = Counter.builder("feign.hedge.fired")
+                .description("发出的对冲请求数")
+                .tag("client", serviceId)
+                .register(meterRegistry);
+        this.wonCounter = Counter.builder("feign.hedge.won")
+                .description("对冲请求先于原请求返回的次数")
+                .tag("client", serviceId)
+                .register(meterRegistry);
+        this.budgetExhaustedCounter = Counter.builder("feign.hedge.skipped")
+                .description("达到对冲条件但未发出对冲请求的次数")
+                .tag("client", serviceId)
+                .tag("reason", "budget")
+                .register(meterRegistry);
+        this.noAlternateCounter = Counter.builder("feign.hedge.skipped")
+                .description("达到对冲条件但未发出对冲请求的次数")
+                .tag("client", serviceId)
+                .tag("reason", "no_alternate")
+                .register(meterRegistry);
+        this.saturatedCounter = Counter.builder("feign.hedge.skipped")
+                .description("达到对冲条件但未发出对冲请求的次数")
+                .tag("client", serviceId)
+                .tag("reason", "saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        URI originalUri = URI.create(request.url());
+        ServiceInstance primaryInstance = loadBalancerClient.choose(serviceId);
+        if (primaryInstance == null) {
+            log.warn("服务 {} 没有可用实例", serviceId);
+            return Response.builder()
+                    .request(request)
+                    .status(503)
+                    .reason("Service Unavailable")
+                    .headers(Collections.emptyMap())
+                    .body("Load balancer does not contain an instance for the service " + serviceId,
+                            StandardCharsets.UTF_8)
+                    .build();
+        }
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return delegate.execute(rebuild(request, primaryInstance, originalUri), options);
+        }
+
+        budget.deposit();
+        CompletableFuture<Response> primary;
+        try {
+            primary = submit(request, primaryInstance, originalUri, options);
+        } catch (RejectedExecutionException e) {
+            saturatedCounter.increment();
+            return send(rebuild(request, primaryInstance, originalUri), options);
+        }
+        long hedgeDelayNanos = latencyTracker.hedgeDelayNanos();
+        if (hedgeDelayNanos < 0) {
+            return await(primary);
+        }
+        try {
+            return primary.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 超过对冲延迟仍未返回，继续判断是否发出对冲请求
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.thenAccept(HedgingClient::closeQuietly);
+            throw new InterruptedIOException("等待服务 " + serviceId + " 响应时被中断");
+        }
+
+        ServiceInstance alternateInstance = chooseAlternate(primaryInstance);
+        if (alternateInstance == null) {
+            noAlternateCounter.increment();
+            return await(primary);
+        }
+        if (!budget.tryAcquire()) {
+            budgetExhaustedCounter.increment();
+            return await(primary);
+        }
+        CompletableFuture<Response> hedge;
+        try {
+            hedge = submit(request, alternateInstance, originalUri, options);
+        } catch (RejectedExecutionException e) {
+            saturatedCounter.increment();
+            return await(primary);
+        }
+        firedCounter.increment();
+        log.debug("服务 {} 请求超过 {}ms 未返回，向实例 {}:{} 发出对冲请求", serviceId,
+                TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos), alternateInstance.getHost(), alternateInstance.getPort());
+        return await(firstSuccessful(primary, hedge));
+    }
+
+    /**
+     * 在线程池上发送请求
+     * @throws RejectedExecutionException 线程池线程用尽
+     */
+    private CompletableFuture<Response> submit(Request request, ServiceInstance instance, URI originalUri,
+                                               Request.Options options) {
+        Request target = rebuild(request, instance, originalUri);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(target, options);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 在当前线程上发送请求并记录耗时
+     */
+    private Response send(Request target, Request.Options options) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.execute(target, options);
+        } finally {
+            latencyTracker.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 先成功返回的响应生效，另一个响应返回后关闭；两者都失败时以后失败的异常结束
+     */
+    private CompletableFuture<Response> firstSuccessful(CompletableFuture<Response> primary,
+                                                        CompletableFuture<Response> hedge) {
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((response, ex) -> settle(winner, failures, response, ex, false));
+        hedge.whenComplete((response, ex) -> settle(winner, failures, response, ex, true));
+        return winner;
+    }
+
+    private void settle(CompletableFuture<Response> winner, AtomicInteger failures, Response response,
+                        Throwable ex, boolean fromHedge) {
+        if (ex != null) {
+            if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(ex);
+            }
+            return;
+        }
+        if (winner.complete(response)) {
+            if (fromHedge) {
+                wonCounter.increment();
+            }
+        } else {
+            closeQuietly(response);
+        }
+    }
+
+    private ServiceInstance chooseAlternate(ServiceInstance primaryInstance) {
+        for (int i = 0; i < MAX_CHOOSE_ATTEMPTS; i++) {
+            ServiceInstance candidate = loadBalancerClient.choose(serviceId);
+            if (candidate != null && !sameInstance(candidate, primaryInstance)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Request rebuild(Request request, ServiceInstance instance, URI originalUri) {
+        String url = loadBalancerClient.reconstructURI(instance, originalUri).toString();
+        return Request.create(request.httpMethod(), url, request.headers(), request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return Objects.equals(a.getHost(), b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    private Response await(CompletableFuture<Response> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.thenAccept(HedgingClient::closeQuietly);
+            throw new InterruptedIOException("等待服务 " + serviceId + " 响应时被中断");
+        }
+    }
+
+    private static IOException unwrap(Throwable cause) {
+        Throwable actual = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        if (actual instanceof IOException ioException) {
+            return ioException;
+        }
+        if (actual instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new IOException(actual);
+    }
+
+    private static void closeQuietly(Response response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.bank.feign.hedge;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 对冲请求配置属性
+ * 对应配置文件中 bank.feign.hedging 前缀下的配置项
+ */
+@Data
+@ConfigurationProperties(prefix = "bank.feign.hedging")
+public class HedgingProperties {
+
+    /**
+     * 是否开启对冲请求，默认关闭
+     */
+    private boolean enabled = false;
+
+    /**
+     * 开启对冲的服务名，为空表示所有Feign客户端
+     */
+    private List<String> services = new ArrayList<>();
+
+    /**
+     * 发出对冲请求的延迟分位数，请求超过该客户端近期此分位的耗时仍未返回时发出对冲请求
+     */
+    private double percentile = 0.95;
+
+    /**
+     * 对冲延迟下限，避免下游很快时过早对冲
+     */
+    private Duration minDelay = Duration.ofMillis(10);
+
+    /**
+     * 对冲预算：对冲请求数占正常请求数的最大比例
+     */
+    private double budgetRatio = 0.05;
+
+    /**
+     * 累计样本数达到该值前不对冲，避免分位数不可信
+     */
+    private long minSamples = 100;
+
+    /**
+     * 每个Feign客户端发送请求的线程数上限，线程用尽时请求在调用线程上直接发送，不再对冲
+     */
+    private int maxThreads = 64;
+
+    /**
+     * 判断服务是否开启对冲
+     * @param serviceId 服务名
+     * @return 是否开启
+     */
+    public boolean isEnabledFor(String serviceId) {
+        return enabled && (services.isEmpty() || services.contains(serviceId));
+    }
+}
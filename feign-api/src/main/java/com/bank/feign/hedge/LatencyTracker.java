@@ -0,0 +1,77 @@
+package com.bank.feign.hedge;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客户端耗时统计
+ * 以Micrometer Timer记录每次下游调用的耗时，Timer按时间窗口衰减计算分位数，反映的是近期而非累计的延迟
+ * 对冲延迟每秒最多重新计算一次，请求路径上只读取缓存值
+ */
+class LatencyTracker {
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Timer timer;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long minSamples;
+
+    // 小于0表示样本不足，暂不对冲
+    private volatile long hedgeDelayNanos = -1L;
+    private volatile long lastRefreshNanos = System.nanoTime() - REFRESH_INTERVAL_NANOS;
+
+    /**
+     * 构造函数
+     * @param serviceId 服务名
+     * @param properties 对冲配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    LatencyTracker(String serviceId, HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.percentile = properties.getPercentile();
+        this.minDelayNanos = properties.getMinDelay().toNanos();
+        this.minSamples = properties.getMinSamples();
+        this.timer = Timer.builder("feign.hedge.client.latency")
+                .description("下游单次调用耗时，用于计算对冲延迟")
+                .tag("client", serviceId)
+                .publishPercentiles(percentile)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .distributionStatisticBufferLength(3)
+                .register(meterRegistry);
+    }
+
+    void record(long nanos) {
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 获取对冲延迟
+     * @return 延迟纳秒数，样本不足时返回负数
+     */
+    long hedgeDelayNanos() {
+        long now = System.nanoTime();
+        if (now - lastRefreshNanos >= REFRESH_INTERVAL_NANOS) {
+            lastRefreshNanos = now;
+            hedgeDelayNanos = compute();
+        }
+        return hedgeDelayNanos;
+    }
+
+    private long compute() {
+        if (timer.count() < minSamples) {
+            return -1L;
+        }
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                long nanos = (long) value.value(TimeUnit.NANOSECONDS);
+                // 统计窗口内没有样本时分位数为0，此时不对冲
+                return nanos > 0 ? Math.max(minDelayNanos, nanos) : -1L;
+            }
+        }
+        return -1L;
+    }
+}
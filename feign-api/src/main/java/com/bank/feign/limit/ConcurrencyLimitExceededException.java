@@ -0,0 +1,17 @@
+package com.bank.feign.limit;
+
+/**
+ * 下游并发达到自适应上限时抛出的异常
+ * 不是IOException，因此不会触发重试，直接进入Feign客户端的降级逻辑
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    /**
+     * 构造函数
+     * @param serviceId 服务名
+     * @param limit 当前并发上限
+     */
+    public ConcurrencyLimitExceededException(String serviceId, int limit) {
+        super("服务 " + serviceId + " 在途请求已达到并发上限 " + limit + "，请求被拒绝");
+    }
+}
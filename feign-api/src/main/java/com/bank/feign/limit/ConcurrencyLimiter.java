@@ -0,0 +1,70 @@
+package com.bank.feign.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个下游的并发限制器
+ * 在途请求达到当前上限时立即拒绝，不排队；每个请求结束后用其耗时调整上限
+ */
+class ConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    // 最近一次调整后的上限，请求路径上只读取该值
+    private volatile int currentLimit;
+
+    ConcurrencyLimiter(String serviceId, LimiterProperties properties, MeterRegistry meterRegistry) {
+        this.limit = new GradientLimit(properties);
+        this.currentLimit = limit.getLimit();
+        Gauge.builder("feign.limiter.limit", this, limiter -> limiter.currentLimit)
+                .description("当前自适应并发上限")
+                .tag("client", serviceId)
+                .register(meterRegistry);
+        Gauge.builder("feign.limiter.inflight", inFlight, AtomicInteger::get)
+                .description("当前在途请求数")
+                .tag("client", serviceId)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("feign.limiter.rejected")
+                .description("超出并发上限被拒绝的请求数")
+                .tag("client", serviceId)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     * @return 占用成功时返回占用时的在途请求数，超出上限时返回-1
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                rejectedCounter.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * 释放并发名额并调整上限
+     * @param rttNanos 请求耗时
+     * @param inFlightAtStart 请求发出时的在途请求数
+     * @param dropped 请求是否失败
+     */
+    void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+        inFlight.decrementAndGet();
+        currentLimit = limit.onSample(rttNanos, inFlightAtStart, dropped);
+    }
+
+    int getLimit() {
+        return currentLimit;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bank.feign.limit;
+
+import feign.Capability;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+
+/**
+ * 自适应并发限制扩展
+ * 在Feign客户端最外层包装LimitingClient，每个Feign客户端一个限制器
+ * 排序在其他扩展之后，使限制作用于每次逻辑调用，而不是对冲等扩展内部发出的每个请求
+ */
+public class ConcurrencyLimiterCapability implements Capability, Ordered {
+
+    private final String serviceId;
+    private final ConcurrencyLimiter limiter;
+
+    /**
+     * 构造函数
+     * @param serviceId 服务名
+     * @param properties 并发限制配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public ConcurrencyLimiterCapability(String serviceId, LimiterProperties properties, MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.limiter = new ConcurrencyLimiter(serviceId, properties, meterRegistry);
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return new LimitingClient(serviceId, client, limiter);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
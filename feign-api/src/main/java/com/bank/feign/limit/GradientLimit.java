@@ -0,0 +1,79 @@
+package com.bank.feign.limit;
+
+/**
+ * 梯度并发上限算法
+ * 比较长期平均耗时与本次耗时：下游开始排队时本次耗时升高，梯度小于1，上限按比例收缩；下游空闲时梯度为1，上限每次增加sqrt(limit)的探测余量
+ * 请求失败（IO异常、5xx、429）视为过载信号，按梯度下限0.5收缩
+ * 在途请求不足上限一半时说明瓶颈不在下游，不再增长上限
+ */
+class GradientLimit {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final int longWindow;
+    private final double longRttFactor;
+
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    GradientLimit(LimiterProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.longWindow = properties.getLongWindow();
+        this.longRttFactor = 2.0 / (longWindow + 1);
+        this.estimatedLimit = properties.getInitialLimit();
+    }
+
+    /**
+     * 当前并发上限
+     * @return 并发上限
+     */
+    synchronized int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    /**
+     * 根据一次请求的结果调整并发上限
+     * @param rttNanos 请求耗时
+     * @param inFlight 请求发出时的在途请求数
+     * @param dropped 请求是否失败
+     * @return 调整后的并发上限
+     */
+    synchronized int onSample(long rttNanos, int inFlight, boolean dropped) {
+        double shortRtt = Math.max(1L, rttNanos);
+        updateLongRtt(shortRtt);
+
+        // 长期耗时远大于本次耗时说明下游已恢复，加快长期耗时回落
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+        if (!dropped && inFlight < estimatedLimit / 2) {
+            return (int) estimatedLimit;
+        }
+
+        double gradient = dropped ? MIN_GRADIENT
+                : Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + (dropped ? 0 : queueSize);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        return (int) estimatedLimit;
+    }
+
+    private void updateLongRtt(double rtt) {
+        samples++;
+        if (samples <= longWindow) {
+            // 样本不足一个窗口时使用算术平均，避免初始值偏差
+            longRttNanos += (rtt - longRttNanos) / samples;
+        } else {
+            longRttNanos += (rtt - longRttNanos) * longRttFactor;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.feign.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 自适应并发限制配置属性
+ * 对应配置文件中 bank.feign.limiter 前缀下的配置项
+ */
+@Data
+@ConfigurationProperties(prefix = "bank.feign.limiter")
+public class LimiterProperties {
+
+    /**
+     * 是否开启自适应并发限制
+     */
+    private boolean enabled = true;
+
+    /**
+     * 初始并发上限
+     */
+    private int initialLimit = 20;
+
+    /**
+     * 并发上限的下限
+     */
+    private int minLimit = 5;
+
+    /**
+     * 并发上限的上限
+     */
+    private int maxLimit = 200;
+
+    /**
+     * 耗时容忍倍数：短期耗时不超过长期耗时的该倍数时视为下游未排队
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * 并发上限调整的平滑系数，越小调整越平缓
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * 长期耗时的指数移动平均窗口（样本数）
+     */
+    private int longWindow = 600;
+}
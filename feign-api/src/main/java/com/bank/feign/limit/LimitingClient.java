@@ -0,0 +1,42 @@
+package com.bank.feign.limit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * 并发限制Feign客户端
+ * 发送前占用下游的并发名额，超出自适应上限时抛出ConcurrencyLimitExceededException快速失败；
+ * 响应返回后按耗时和结果调整上限，IO异常、5xx和429视为过载信号
+ */
+public class LimitingClient implements Client {
+
+    private final String serviceId;
+    private final Client delegate;
+    private final ConcurrencyLimiter limiter;
+
+    LimitingClient(String serviceId, Client delegate, ConcurrencyLimiter limiter) {
+        this.serviceId = serviceId;
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            throw new ConcurrencyLimitExceededException(serviceId, limiter.getLimit());
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            Response response = delegate.execute(request, options);
+            dropped = response.status() >= 500 || response.status() == 429;
+            return response;
+        } finally {
+            limiter.release(System.nanoTime() - start, inFlight, dropped);
+        }
+    }
+}
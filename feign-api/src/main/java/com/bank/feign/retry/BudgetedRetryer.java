@@ -0,0 +1,103 @@
+package com.bank.feign.retry;
+
+import com.bank.feign.support.CallDeadline;
+import com.bank.feign.support.TokenBudget;
+import feign.RetryableException;
+import feign.Retryer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带重试预算的重试器
+ * 每个下游一个令牌桶预算，成功请求存入令牌，每次重试消耗一个令牌，下游整体故障时重试量随成功量一起下降，不会放大流量
+ * 退避时间采用全抖动指数退避；剩余的调用截止时间不足以完成退避和一次尝试时直接放弃
+ * 截止时间取配置的等待上限和调用线程上CallDeadline中调用方截止时间两者中较早的一个
+ * Feign为每次调用在调用线程上克隆一个重试器，克隆出的实例记录本次调用的尝试次数和截止时间，预算和指标在克隆间共享
+ */
+@Slf4j
+public class BudgetedRetryer implements Retryer {
+
+    private final String serviceId;
+    private final RetryProperties properties;
+    private final TokenBudget budget;
+    private final RetryMetrics metrics;
+
+    private final long deadlineNanos;
+    private long lastAttemptStartNanos;
+    private int attempt = 1;
+
+    /**
+     * 构造函数
+     * @param serviceId 服务名
+     * @param properties 重试策略配置属性
+     * @param budget 该下游的重试预算
+     * @param metrics 该下游的重试指标
+     */
+    BudgetedRetryer(String serviceId, RetryProperties properties, TokenBudget budget, RetryMetrics metrics) {
+        this.serviceId = serviceId;
+        this.properties = properties;
+        this.budget = budget;
+        this.metrics = metrics;
+        long startNanos = System.nanoTime();
+        long cappedNanos = startNanos + properties.getDeadline().toNanos();
+        Long callerNanos = CallDeadline.current();
+        this.deadlineNanos = callerNanos != null && callerNanos - cappedNanos < 0 ? callerNanos : cappedNanos;
+        this.lastAttemptStartNanos = startNanos;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (attempt >= properties.getMaxAttempts()) {
+            metrics.maxAttemptsReached.increment();
+            throw e;
+        }
+
+        long now = System.nanoTime();
+        long backoffNanos = backoffNanos(e);
+        // 以上一次尝试的耗时估计下一次尝试的耗时
+        long estimatedAttemptNanos = now - lastAttemptStartNanos;
+        long remainingNanos = deadlineNanos - now;
+        if (backoffNanos + estimatedAttemptNanos > remainingNanos) {
+            metrics.deadlineExceeded.increment();
+            log.debug("服务 {} 剩余时间 {}ms 不足以重试，放弃重试", serviceId, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+            throw e;
+        }
+        if (!budget.tryAcquire()) {
+            metrics.budgetExhausted.increment();
+            log.warn("服务 {} 重试预算已耗尽，放弃重试: {}", serviceId, e.getMessage());
+            throw e;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(backoffNanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        attempt++;
+        lastAttemptStartNanos = System.nanoTime();
+        metrics.attempts.increment();
+        log.debug("服务 {} 第{}次尝试，退避 {}ms", serviceId, attempt, TimeUnit.NANOSECONDS.toMillis(backoffNanos));
+    }
+
+    /**
+     * 计算退避时间：下游通过Retry-After指定了时间时按其执行，否则为全抖动指数退避
+     */
+    private long backoffNanos(RetryableException e) {
+        Date retryAfter = e.retryAfter();
+        if (retryAfter != null) {
+            return Math.max(0L, TimeUnit.MILLISECONDS.toNanos(retryAfter.getTime() - System.currentTimeMillis()));
+        }
+        long ceiling = Math.min(properties.getMaxBackoff().toNanos(),
+                properties.getBaseBackoff().toNanos() << Math.min(attempt - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0L;
+    }
+
+    @Override
+    public Retryer clone() {
+        return new BudgetedRetryer(serviceId, properties, budget, metrics);
+    }
+}
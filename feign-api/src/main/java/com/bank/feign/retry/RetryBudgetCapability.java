@@ -0,0 +1,50 @@
+package com.bank.feign.retry;
+
+import com.bank.feign.support.TokenBudget;
+import feign.Capability;
+import feign.Retryer;
+import feign.codec.Decoder;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 重试预算扩展
+ * 持有单个下游的重试预算：包装解码器，每次成功解码（即2xx响应）存入令牌；由newRetryer创建共享该预算的重试器
+ */
+public class RetryBudgetCapability implements Capability {
+
+    private final String serviceId;
+    private final RetryProperties properties;
+    private final TokenBudget budget;
+    private final RetryMetrics metrics;
+
+    /**
+     * 构造函数
+     * @param serviceId 服务名
+     * @param properties 重试策略配置属性
+     * @param meterRegistry 指标注册中心
+     */
+    public RetryBudgetCapability(String serviceId, RetryProperties properties, MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.properties = properties;
+        // 初始装满，服务刚启动时的偶发失败也能重试
+        this.budget = new TokenBudget(properties.getBudgetRatio(), properties.getMaxBurst(), true);
+        this.metrics = new RetryMetrics(serviceId, meterRegistry);
+    }
+
+    @Override
+    public Decoder enrich(Decoder decoder) {
+        return (response, type) -> {
+            Object result = decoder.decode(response, type);
+            budget.deposit();
+            return result;
+        };
+    }
+
+    /**
+     * 创建共享该预算的重试器
+     * @return 重试器
+     */
+    public Retryer newRetryer() {
+        return new BudgetedRetryer(serviceId, properties, budget, metrics);
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.feign.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 单个Feign客户端的重试指标
+ */
+class RetryMetrics {
+
+    final Counter attempts;
+    final Counter budgetExhausted;
+    final Counter deadlineExceeded;
+    final Counter maxAttemptsReached;
+
+    RetryMetrics(String serviceId, MeterRegistry meterRegistry) {
+        this.attempts = Counter.builder("feign.retry.attempts")
+                .description("发出的重试次数")
+                .tag("client", serviceId)
+                .register(meterRegistry);
+        this.budgetExhausted = rejected(serviceId, "budget", meterRegistry);
+        this.deadlineExceeded = rejected(serviceId, "deadline", meterRegistry);
+        this.maxAttemptsReached = rejected(serviceId, "max_attempts", meterRegistry);
+    }
+
+    private static Counter rejected(String serviceId, String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("feign.retry.rejected")
+                .description("可重试的失败未被重试的次数")
+                .tag("client", serviceId)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
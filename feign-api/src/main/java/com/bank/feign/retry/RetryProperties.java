@@ -0,0 +1,45 @@
+package com.bank.feign.retry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 重试策略配置属性
+ * 对应配置文件中 bank.feign.retry 前缀下的配置项
+ */
+@Data
+@ConfigurationProperties(prefix = "bank.feign.retry")
+public class RetryProperties {
+
+    /**
+     * 单次调用的最大尝试次数，含首次请求
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 首次重试的退避上限，之后每次翻倍，实际退避在0到上限之间随机
+     */
+    private Duration baseBackoff = Duration.ofMillis(50);
+
+    /**
+     * 退避上限
+     */
+    private Duration maxBackoff = Duration.ofSeconds(1);
+
+    /**
+     * 单次调用愿意等待的总时长上限，调用方设置了更早的截止时间时以调用方为准；剩余时间不足以再完成一次尝试时不再重试
+     */
+    private Duration deadline = Duration.ofSeconds(1);
+
+    /**
+     * 重试预算：重试次数占成功请求数的最大比例
+     */
+    private double budgetRatio = 0.1;
+
+    /**
+     * 预算上限，即预算装满时最多连续重试的次数
+     */
+    private int maxBurst = 10;
+}
@@ -0,0 +1,48 @@
+package com.bank.feign.support;
+
+/**
+ * 当前线程上调用方的截止时间
+ * 调用方在发起下游调用前设置（System.nanoTime()时间轴上的绝对时间），由执行下游调用的线程池传递到执行线程，
+ * 重试器据此判断剩余时间是否还够重试
+ */
+public final class CallDeadline {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private CallDeadline() {
+    }
+
+    /**
+     * 获取当前线程上的截止时间
+     * @return 截止时间（纳秒），未设置时为null
+     */
+    public static Long current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在当前线程上设置截止时间
+     * @param deadlineNanos 截止时间（纳秒），为null时清除
+     * @return 作用域，关闭时恢复原值
+     */
+    public static Scope activate(Long deadlineNanos) {
+        Long previous = CURRENT.get();
+        CURRENT.set(deadlineNanos);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * 作用域
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.bank.feign.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 令牌桶预算
+ * 每次存入ratio个令牌，每次额外请求（对冲、重试）消耗1个令牌，长期来看额外请求数不超过存入次数的ratio倍
+ * 令牌数有上限，空闲期间不会无限积累，突发时最多连续消耗上限个令牌
+ */
+public class TokenBudget {
+
+    // 以千分之一令牌为单位计数
+    private static final long UNIT = 1000L;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * 构造函数
+     * @param ratio 每次存入的令牌数，即额外请求占存入次数的最大比例
+     * @param maxBurst 令牌上限，即最多连续的额外请求数
+     * @param initiallyFull 初始是否装满令牌
+     */
+    public TokenBudget(double ratio, int maxBurst, boolean initiallyFull) {
+        this.deposit = Math.round(ratio * UNIT);
+        this.capacity = maxBurst * UNIT;
+        this.balance = new AtomicLong(initiallyFull ? capacity : 0L);
+    }
+
+    /**
+     * 存入令牌
+     */
+    public void deposit() {
+        balance.updateAndGet(current -> Math.min(capacity, current + deposit));
+    }
+
+    /**
+     * 尝试消耗一个令牌
+     * @return 预算充足时返回true
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - UNIT)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.feign.transport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接建立指标
+ * 每次调用一个监听器实例，记录获取连接耗时、新建连接耗时、TLS握手耗时，并统计连接复用情况
+ * 拿到连接时同时通知注册的ConnectionObserver
+ */
+class ConnectionMetricsListener extends EventListener {
+
+    private final Meters meters;
+    private final List<ConnectionObserver> observers;
+    private final long callStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private boolean connected;
+
+    private ConnectionMetricsListener(Meters meters, List<ConnectionObserver> observers) {
+        this.meters = meters;
+        this.observers = observers;
+        this.callStart = System.nanoTime();
+    }
+
+    /**
+     * 创建监听器工厂
+     * @param serviceId 服务名
+     * @param meterRegistry 指标注册中心
+     * @param observers 连接获取观察者
+     * @return 监听器工厂
+     */
+    static EventListener.Factory factory(String serviceId, MeterRegistry meterRegistry,
+                                         List<ConnectionObserver> observers) {
+        Meters meters = new Meters(serviceId, meterRegistry);
+        return call -> new ConnectionMetricsListener(meters, observers);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        connected = true;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        meters.handshake.record(System.nanoTime() - secureConnectStart, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        meters.connectSucceeded.record(System.nanoTime() - connectStart, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        meters.connectFailed.record(System.nanoTime() - connectStart, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        long acquireNanos = System.nanoTime() - callStart;
+        meters.acquire.record(acquireNanos, TimeUnit.NANOSECONDS);
+        (connected ? meters.newConnections : meters.reusedConnections).increment();
+        for (ConnectionObserver observer : observers) {
+            observer.connectionAcquired(meters.serviceId, acquireNanos, !connected);
+        }
+    }
+
+    /**
+     * 单个服务的连接指标，所有调用共享
+     */
+    private static final class Meters {
+        private final String serviceId;
+        private final Timer acquire;
+        private final Timer connectSucceeded;
+        private final Timer connectFailed;
+        private final Timer handshake;
+        private final Counter newConnections;
+        private final Counter reusedConnections;
+
+        Meters(String serviceId, MeterRegistry meterRegistry) {
+            this.serviceId = serviceId;
+            this.acquire = Timer.builder("feign.transport.connection.acquire")
+                    .description("从发起调用到拿到可用连接的耗时，复用连接时接近0")
+                    .tag("client", serviceId)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.connectSucceeded = connectTimer(serviceId, "success", meterRegistry);
+            this.connectFailed = connectTimer(serviceId, "failure", meterRegistry);
+            this.handshake = Timer.builder("feign.transport.tls.handshake")
+                    .description("TLS握手耗时")
+                    .tag("client", serviceId)
+                    .register(meterRegistry);
+            this.newConnections = acquired(serviceId, false, meterRegistry);
+            this.reusedConnections = acquired(serviceId, true, meterRegistry);
+        }
+
+        private static Timer connectTimer(String serviceId, String outcome, MeterRegistry meterRegistry) {
+            return Timer.builder("feign.transport.connect")
+                    .description("新建连接耗时，含TCP连接和TLS握手")
+                    .tag("client", serviceId)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        private static Counter acquired(String serviceId, boolean reused, MeterRegistry meterRegistry) {
+            return Counter.builder("feign.transport.connection.acquired")
+                    .description("调用获取连接的次数，按是否复用已有连接区分")
+                    .tag("client", serviceId)
+                    .tag("reused", Boolean.toString(reused))
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.feign.transport;
+
+/**
+ * 连接获取观察者
+ * 调用方可注册该类型的Bean，在发起调用的线程上获知本次调用获取连接的耗时，用于请求级别的耗时分解
+ */
+public interface ConnectionObserver {
+
+    /**
+     * 调用拿到可用连接时回调，在发起调用的线程上执行，实现需足够轻量
+     * @param serviceId 服务名
+     * @param acquireNanos 从发起调用到拿到连接的耗时，新建连接时包含TCP连接和TLS握手
+     * @param reused 是否复用了连接池中的连接
+     */
+    void connectionAcquired(String serviceId, long acquireNanos, boolean reused);
+}
@@ -0,0 +1,72 @@
+package com.bank.feign.transport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个下游服务的OkHttp传输
+ * 每个Feign客户端持有独立的连接池，一个慢服务占满连接不影响其他服务；
+ * 可按服务开启HTTP/2明文连接，让并发请求在一条连接上多路复用
+ * 连接池的活跃、空闲连接数发布为 feign.transport.pool.connection.count 指标
+ * 连接超时、读取超时仍由Feign的Request.Options按请求设置
+ */
+@Slf4j
+public class OkHttpTransport {
+
+    private final OkHttpClient okHttpClient;
+    private final ConnectionPool connectionPool;
+
+    /**
+     * 构造函数
+     * @param serviceId 服务名
+     * @param properties 传输层配置属性
+     * @param meterRegistry 指标注册中心
+     * @param connectionObservers 连接获取观察者
+     */
+    public OkHttpTransport(String serviceId, TransportProperties properties, MeterRegistry meterRegistry,
+                           List<ConnectionObserver> connectionObservers) {
+        int maxIdleConnections = properties.maxIdleConnectionsFor(serviceId);
+        Duration keepAlive = properties.keepAliveFor(serviceId);
+        this.connectionPool = new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .eventListenerFactory(ConnectionMetricsListener.factory(serviceId, meterRegistry, connectionObservers));
+        boolean h2c = properties.isH2cFor(serviceId);
+        if (h2c) {
+            builder.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE))
+                    .pingInterval(properties.getPingInterval());
+        }
+        this.okHttpClient = builder.build();
+
+        new OkHttpConnectionPoolMetrics(connectionPool, "feign.transport.pool", Tags.of("client", serviceId),
+                maxIdleConnections).bindTo(meterRegistry);
+        log.info("Feign客户端 {} 使用独立连接池，最大空闲连接数: {}, 空闲保留: {}, 协议: {}", serviceId,
+                maxIdleConnections, keepAlive, h2c ? "h2c" : "http/1.1");
+    }
+
+    /**
+     * 获取OkHttp客户端
+     * @return OkHttp客户端
+     */
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    /**
+     * 关闭连接池中的连接和OkHttp的后台线程
+     */
+    public void close() {
+        connectionPool.evictAll();
+        okHttpClient.dispatcher().executorService().shutdown();
+    }
+}
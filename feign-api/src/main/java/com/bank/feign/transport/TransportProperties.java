@@ -0,0 +1,96 @@
+package com.bank.feign.transport;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Feign传输层配置属性
+ * 对应配置文件中 bank.feign.transport 前缀下的配置项，services 下按服务名覆盖默认值
+ */
+@Data
+@ConfigurationProperties(prefix = "bank.feign.transport")
+public class TransportProperties {
+
+    /**
+     * 是否使用按服务独立连接池的OkHttp传输
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个服务连接池保留的最大空闲连接数
+     */
+    private int maxIdleConnections = 20;
+
+    /**
+     * 空闲连接保留时长，应小于下游服务器的keep-alive超时，避免复用已被对端关闭的连接
+     */
+    private Duration keepAlive = Duration.ofSeconds(50);
+
+    /**
+     * HTTP/2连接的心跳间隔，用于及时发现失效的长连接
+     */
+    private Duration pingInterval = Duration.ofSeconds(30);
+
+    /**
+     * 按服务名覆盖的配置
+     */
+    private Map<String, ServiceTransport> services = new HashMap<>();
+
+    /**
+     * 服务的最大空闲连接数
+     * @param serviceId 服务名
+     * @return 最大空闲连接数
+     */
+    public int maxIdleConnectionsFor(String serviceId) {
+        ServiceTransport service = services.get(serviceId);
+        return service != null && service.getMaxIdleConnections() != null
+                ? service.getMaxIdleConnections() : maxIdleConnections;
+    }
+
+    /**
+     * 服务的空闲连接保留时长
+     * @param serviceId 服务名
+     * @return 空闲连接保留时长
+     */
+    public Duration keepAliveFor(String serviceId) {
+        ServiceTransport service = services.get(serviceId);
+        return service != null && service.getKeepAlive() != null ? service.getKeepAlive() : keepAlive;
+    }
+
+    /**
+     * 服务是否使用HTTP/2明文连接
+     * @param serviceId 服务名
+     * @return 是否使用HTTP/2明文连接
+     */
+    public boolean isH2cFor(String serviceId) {
+        ServiceTransport service = services.get(serviceId);
+        return service != null && service.isH2c();
+    }
+
+    /**
+     * 单个服务的传输配置
+     */
+    @Data
+    public static class ServiceTransport {
+
+        /**
+         * 最大空闲连接数，为空时使用默认值
+         */
+        private Integer maxIdleConnections;
+
+        /**
+         * 空闲连接保留时长，为空时使用默认值
+         */
+        private Duration keepAlive;
+
+        /**
+         * 是否直接以HTTP/2明文（prior knowledge）连接，下游需开启 server.http2.enabled
+         * 开启后同一服务实例的并发请求复用一条连接
+         */
+        private boolean h2c = false;
+    }
+}
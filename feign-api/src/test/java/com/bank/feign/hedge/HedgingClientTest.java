@@ -0,0 +1,305 @@
+package com.bank.feign.hedge;
+
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 对冲请求Feign客户端测试
+ * 下游很快时p95低于对冲延迟下限，对冲延迟固定为下限，便于断言对冲发出的时机
+ */
+class HedgingClientTest {
+
+    private static final String SERVICE_ID = "point-service";
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(100);
+
+    private static final ServiceInstance PRIMARY = instance("primary");
+    private static final ServiceInstance ALTERNATE = instance("alternate");
+
+    private final Deque<ServiceInstance> choices = new ArrayDeque<>();
+    private final Map<String, CountDownLatch> blockedHosts = new ConcurrentHashMap<>();
+    private final List<Call> calls = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicBoolean> closedBodies = new ConcurrentHashMap<>();
+
+    // 还能提交到对冲线程池的任务数，用尽后模拟线程池拒绝任务
+    private final AtomicInteger acceptedSubmissions = new AtomicInteger(Integer.MAX_VALUE);
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private HedgingProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setMinSamples(1);
+        properties.setMinDelay(HEDGE_DELAY);
+        properties.setBudgetRatio(1.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blockedHosts.values().forEach(CountDownLatch::countDown);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fastPrimaryDoesNotHedge() throws Exception {
+        HedgingClient client = warmedUpClient();
+
+        try (Response response = client.execute(request(), new Request.Options())) {
+            assertThat(response.status()).isEqualTo(200);
+        }
+
+        assertThat(calls).extracting(Call::host).containsExactly("primary");
+        assertThat(counter("feign.hedge.fired")).isZero();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAfterDelayAndLosingResponseIsClosed() throws Exception {
+        HedgingClient client = warmedUpClient();
+        CountDownLatch primaryRelease = block("primary");
+        choices.add(PRIMARY);
+        choices.add(ALTERNATE);
+
+        long start = System.nanoTime();
+        try (Response response = client.execute(request(), new Request.Options())) {
+            assertThat(response.headers().get("X-Host")).containsExactly("alternate");
+        }
+
+        Call hedge = calls.stream().filter(call -> call.host().equals("alternate")).findFirst().orElseThrow();
+        assertThat(Duration.ofNanos(hedge.startNanos() - start)).isGreaterThanOrEqualTo(HEDGE_DELAY);
+        assertThat(counter("feign.hedge.fired")).isEqualTo(1);
+        assertThat(counter("feign.hedge.won")).isEqualTo(1);
+
+        // 落选的原请求返回后立即关闭
+        primaryRelease.countDown();
+        awaitClosed("primary");
+    }
+
+    @Test
+    void exhaustedBudgetWaitsForPrimaryWithoutHedging() throws Exception {
+        properties.setBudgetRatio(0.05);
+        HedgingClient client = warmedUpClient();
+        CountDownLatch primaryRelease = block("primary");
+        choices.add(PRIMARY);
+        choices.add(ALTERNATE);
+        executor.submit(() -> {
+            TimeUnit.MILLISECONDS.sleep(HEDGE_DELAY.toMillis() * 3);
+            primaryRelease.countDown();
+            return null;
+        });
+
+        try (Response response = client.execute(request(), new Request.Options())) {
+            assertThat(response.headers().get("X-Host")).containsExactly("primary");
+        }
+
+        assertThat(calls).extracting(Call::host).containsOnly("primary");
+        assertThat(counter("feign.hedge.fired")).isZero();
+        assertThat(meterRegistry.get("feign.hedge.skipped").tag("reason", "budget").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void nonGetRequestIsNeverHedged() throws Exception {
+        HedgingClient client = warmedUpClient();
+        CountDownLatch primaryRelease = block("primary");
+        choices.add(PRIMARY);
+        choices.add(ALTERNATE);
+        executor.submit(() -> {
+            TimeUnit.MILLISECONDS.sleep(HEDGE_DELAY.toMillis() * 2);
+            primaryRelease.countDown();
+            return null;
+        });
+
+        Request post = Request.create(Request.HttpMethod.POST, "http://" + SERVICE_ID + "/api/points",
+                Map.of(), new byte[0], StandardCharsets.UTF_8, null);
+        try (Response response = client.execute(post, new Request.Options())) {
+            assertThat(response.headers().get("X-Host")).containsExactly("primary");
+        }
+
+        assertThat(calls).extracting(Call::host).containsOnly("primary");
+        assertThat(counter("feign.hedge.fired")).isZero();
+    }
+
+    @Test
+    void saturatedExecutorSendsPrimaryOnCallerThreadWithoutHedging() throws Exception {
+        HedgingClient client = warmedUpClient();
+        acceptedSubmissions.set(0);
+        CountDownLatch primaryRelease = block("primary");
+        choices.add(PRIMARY);
+        choices.add(ALTERNATE);
+        releaseLater(primaryRelease, HEDGE_DELAY.multipliedBy(3));
+
+        try (Response response = client.execute(request(), new Request.Options())) {
+            assertThat(response.headers().get("X-Host")).containsExactly("primary");
+        }
+
+        assertThat(calls).extracting(Call::host).containsOnly("primary");
+        assertThat(calls).extracting(Call::thread).containsOnly(Thread.currentThread().getName());
+        assertThat(counter("feign.hedge.fired")).isZero();
+        assertThat(skipped("saturated")).isEqualTo(1);
+    }
+
+    @Test
+    void saturatedExecutorSkipsHedgeAndWaitsForPrimary() throws Exception {
+        HedgingClient client = warmedUpClient();
+        acceptedSubmissions.set(1);
+        CountDownLatch primaryRelease = block("primary");
+        choices.add(PRIMARY);
+        choices.add(ALTERNATE);
+        releaseLater(primaryRelease, HEDGE_DELAY.multipliedBy(3));
+
+        try (Response response = client.execute(request(), new Request.Options())) {
+            assertThat(response.headers().get("X-Host")).containsExactly("primary");
+        }
+
+        assertThat(calls).extracting(Call::host).containsOnly("primary");
+        assertThat(counter("feign.hedge.fired")).isZero();
+        assertThat(skipped("saturated")).isEqualTo(1);
+    }
+
+    /**
+     * 创建客户端并完成一次快速请求积累样本，等待对冲延迟的缓存刷新后返回
+     */
+    private HedgingClient warmedUpClient() throws Exception {
+        HedgingClient client = new HedgingClient(SERVICE_ID, this::respond, loadBalancer(), this::submitToHedgePool,
+                properties, meterRegistry);
+        client.execute(request(), new Request.Options()).close();
+        // 对冲延迟每秒最多刷新一次
+        TimeUnit.MILLISECONDS.sleep(1_100);
+        calls.clear();
+        closedBodies.clear();
+        return client;
+    }
+
+    private void submitToHedgePool(Runnable command) {
+        if (acceptedSubmissions.getAndDecrement() <= 0) {
+            throw new RejectedExecutionException("对冲线程池已满");
+        }
+        executor.execute(command);
+    }
+
+    private void releaseLater(CountDownLatch latch, Duration delay) {
+        executor.submit(() -> {
+            TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+            latch.countDown();
+            return null;
+        });
+    }
+
+    private LoadBalancerClient loadBalancer() {
+        LoadBalancerClient loadBalancerClient = mock(LoadBalancerClient.class);
+        when(loadBalancerClient.choose(anyString())).thenAnswer(invocation -> {
+            synchronized (choices) {
+                return choices.isEmpty() ? PRIMARY : choices.poll();
+            }
+        });
+        when(loadBalancerClient.reconstructURI(any(), any())).thenAnswer(invocation -> {
+            ServiceInstance instance = invocation.getArgument(0);
+            URI original = invocation.getArgument(1);
+            return URI.create("http://" + instance.getHost() + ":" + instance.getPort() + original.getPath());
+        });
+        return loadBalancerClient;
+    }
+
+    /**
+     * 模拟下游：被阻塞的实例等待放行后才返回
+     */
+    private Response respond(Request request, Request.Options options) throws IOException {
+        String host = URI.create(request.url()).getHost();
+        calls.add(new Call(host, System.nanoTime(), Thread.currentThread().getName()));
+        CountDownLatch latch = blockedHosts.get(host);
+        if (latch != null) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+        AtomicBoolean closed = closedBodies.computeIfAbsent(host, key -> new AtomicBoolean());
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        return Response.builder()
+                .request(request)
+                .status(200)
+                .headers(Map.of("X-Host", List.of(host)))
+                .body(new ByteArrayInputStream(body) {
+                    @Override
+                    public void close() {
+                        closed.set(true);
+                    }
+                }, body.length)
+                .build();
+    }
+
+    private CountDownLatch block(String host) {
+        CountDownLatch latch = new CountDownLatch(1);
+        blockedHosts.put(host, latch);
+        return latch;
+    }
+
+    private void awaitClosed(String host) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            AtomicBoolean closed = closedBodies.get(host);
+            if (closed != null && closed.get()) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        throw new AssertionError("落选的响应未关闭: " + host);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private double skipped(String reason) {
+        return meterRegistry.get("feign.hedge.skipped").tag("reason", reason).counter().count();
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "http://" + SERVICE_ID + "/api/points/user/1",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host + "-1", SERVICE_ID, host, 8082, false);
+    }
+
+    private record Call(String host, long startNanos, String thread) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.bank.feign.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 梯度并发上限算法测试
+ */
+class GradientLimitTest {
+
+    private static final long BASELINE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private LimiterProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LimiterProperties();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(5);
+        properties.setMaxLimit(200);
+        properties.setLongWindow(100);
+    }
+
+    @Test
+    void growsWhileRttStaysAtBaselineAndLimitIsUsed() {
+        GradientLimit limit = new GradientLimit(properties);
+
+        int previous = limit.getLimit();
+        for (int i = 0; i < 50; i++) {
+            int current = limit.onSample(BASELINE_RTT, limit.getLimit(), false);
+            assertThat(current).isGreaterThanOrEqualTo(previous);
+            previous = current;
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void shrinksWhenRttRisesAboveTolerance() {
+        GradientLimit limit = new GradientLimit(properties);
+        warmUp(limit);
+        int before = limit.getLimit();
+
+        int previous = before;
+        for (int i = 0; i < 10; i++) {
+            int current = limit.onSample(BASELINE_RTT * 10, limit.getLimit(), false);
+            assertThat(current).isLessThanOrEqualTo(previous);
+            previous = current;
+        }
+
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    void rttWithinToleranceDoesNotShrink() {
+        GradientLimit limit = new GradientLimit(properties);
+        warmUp(limit);
+        int before = limit.getLimit();
+
+        // 耗时升高不超过容忍倍数（默认1.5）时梯度仍为1
+        limit.onSample(BASELINE_RTT * 14 / 10, limit.getLimit(), false);
+
+        assertThat(limit.getLimit()).isGreaterThanOrEqualTo(before);
+    }
+
+    @Test
+    void shrinksOnDroppedRequestEvenWhenUnderused() {
+        GradientLimit limit = new GradientLimit(properties);
+        warmUp(limit);
+        int before = limit.getLimit();
+
+        limit.onSample(BASELINE_RTT, 0, true);
+
+        // 平滑系数0.2、梯度下限0.5：每次失败收缩10%
+        assertThat(limit.getLimit()).isEqualTo((int) (before * 0.9));
+    }
+
+    @Test
+    void doesNotGrowWhenInFlightIsBelowHalfTheLimit() {
+        GradientLimit limit = new GradientLimit(properties);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(BASELINE_RTT, 9, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void staysWithinConfiguredBounds() {
+        GradientLimit limit = new GradientLimit(properties);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(BASELINE_RTT, 0, true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(5);
+
+        for (int i = 0; i < 5_000; i++) {
+            limit.onSample(BASELINE_RTT, limit.getLimit(), false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(200);
+    }
+
+    /**
+     * 以基线耗时建立长期耗时，在途请求低于上限一半，不改变上限
+     */
+    private static void warmUp(GradientLimit limit) {
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(BASELINE_RTT, 0, false);
+        }
+    }
+}
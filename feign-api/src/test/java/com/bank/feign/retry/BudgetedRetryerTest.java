@@ -0,0 +1,164 @@
+package com.bank.feign.retry;
+
+import com.bank.feign.support.CallDeadline;
+import com.bank.feign.support.TokenBudget;
+import feign.Request;
+import feign.RetryableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 带重试预算的重试器测试
+ */
+class BudgetedRetryerTest {
+
+    private static final String SERVICE_ID = "point-service";
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "http://point-service/api/points/user/1",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+
+    private RetryProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RetryMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RetryProperties();
+        properties.setBaseBackoff(Duration.ZERO);
+        properties.setDeadline(Duration.ofSeconds(5));
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new RetryMetrics(SERVICE_ID, meterRegistry);
+    }
+
+    @Test
+    void retriesWhileBudgetAndDeadlineAllow() {
+        BudgetedRetryer retryer = retryer(fullBudget());
+
+        assertThatCode(() -> retryer.continueOrPropagate(failure(null))).doesNotThrowAnyException();
+
+        assertThat(metrics.attempts.count()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesRetryWhenBudgetIsExhausted() {
+        BudgetedRetryer retryer = retryer(new TokenBudget(properties.getBudgetRatio(), properties.getMaxBurst(), false));
+        RetryableException failure = failure(null);
+
+        assertThatThrownBy(() -> retryer.continueOrPropagate(failure)).isSameAs(failure);
+
+        assertThat(metrics.budgetExhausted.count()).isEqualTo(1);
+        assertThat(metrics.attempts.count()).isZero();
+    }
+
+    @Test
+    void refusesRetryWhenBackoffWouldPassDeadline() {
+        properties.setDeadline(Duration.ofMillis(100));
+        TokenBudget budget = fullBudget();
+        BudgetedRetryer retryer = retryer(budget);
+        RetryableException failure = failure(new Date(System.currentTimeMillis() + 1_000));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> retryer.continueOrPropagate(failure)).isSameAs(failure);
+
+        // 直接放弃，不等待退避，也不消耗预算
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+        assertThat(metrics.deadlineExceeded.count()).isEqualTo(1);
+        assertThat(metrics.budgetExhausted.count()).isZero();
+        assertThat(drain(budget)).isEqualTo(properties.getMaxBurst());
+    }
+
+    @Test
+    void refusesRetryPastCallerDeadlineEvenWithinConfiguredCap() {
+        BudgetedRetryer retryer;
+        try (CallDeadline.Scope ignored = CallDeadline.activate(System.nanoTime() + Duration.ofMillis(100).toNanos())) {
+            retryer = retryer(fullBudget());
+        }
+        RetryableException failure = failure(new Date(System.currentTimeMillis() + 1_000));
+
+        assertThatThrownBy(() -> retryer.continueOrPropagate(failure)).isSameAs(failure);
+
+        assertThat(metrics.deadlineExceeded.count()).isEqualTo(1);
+    }
+
+    @Test
+    void configuredCapAppliesWhenCallerDeadlineIsLater() {
+        properties.setDeadline(Duration.ofMillis(100));
+        BudgetedRetryer retryer;
+        try (CallDeadline.Scope ignored = CallDeadline.activate(System.nanoTime() + Duration.ofSeconds(10).toNanos())) {
+            retryer = retryer(fullBudget());
+        }
+        RetryableException failure = failure(new Date(System.currentTimeMillis() + 1_000));
+
+        assertThatThrownBy(() -> retryer.continueOrPropagate(failure)).isSameAs(failure);
+
+        assertThat(metrics.deadlineExceeded.count()).isEqualTo(1);
+    }
+
+    @Test
+    void honoursRetryAfter() {
+        BudgetedRetryer retryer = retryer(fullBudget());
+
+        long start = System.nanoTime();
+        retryer.continueOrPropagate(failure(new Date(System.currentTimeMillis() + 300)));
+
+        // Retry-After以毫秒精度换算，留出少量误差
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(250));
+        assertThat(metrics.attempts.count()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsAtMaxAttempts() {
+        properties.setMaxAttempts(2);
+        BudgetedRetryer retryer = retryer(fullBudget());
+        retryer.continueOrPropagate(failure(null));
+        RetryableException failure = failure(null);
+
+        assertThatThrownBy(() -> retryer.continueOrPropagate(failure)).isSameAs(failure);
+
+        assertThat(metrics.maxAttemptsReached.count()).isEqualTo(1);
+    }
+
+    @Test
+    void clonesShareBudgetButNotAttempts() {
+        properties.setMaxAttempts(2);
+        properties.setMaxBurst(1);
+        BudgetedRetryer retryer = retryer(fullBudget());
+        retryer.continueOrPropagate(failure(null));
+
+        RetryableException failure = failure(null);
+        assertThatThrownBy(() -> retryer.clone().continueOrPropagate(failure)).isSameAs(failure);
+
+        assertThat(metrics.budgetExhausted.count()).isEqualTo(1);
+        assertThat(metrics.maxAttemptsReached.count()).isZero();
+    }
+
+    private BudgetedRetryer retryer(TokenBudget budget) {
+        return new BudgetedRetryer(SERVICE_ID, properties, budget, metrics);
+    }
+
+    private TokenBudget fullBudget() {
+        return new TokenBudget(properties.getBudgetRatio(), properties.getMaxBurst(), true);
+    }
+
+    private static RetryableException failure(Date retryAfter) {
+        return new RetryableException(503, "Service Unavailable", Request.HttpMethod.GET, retryAfter, REQUEST);
+    }
+
+    private static int drain(TokenBudget budget) {
+        int tokens = 0;
+        while (budget.tryAcquire()) {
+            tokens++;
+        }
+        return tokens;
+    }
+}
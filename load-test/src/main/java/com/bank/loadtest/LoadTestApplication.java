@@ -0,0 +1,89 @@
+package com.bank.loadtest;
+
+import com.bank.loadtest.driver.LoadDriver;
+import com.bank.loadtest.driver.LoadResult;
+import com.bank.loadtest.standin.StandInServer;
+import com.bank.loadtest.standin.StandInServices;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+/**
+ * 压测工具启动类
+ * stand-ins：启动用户、积分、产品服务替身，之后以loadtest配置启动聚合服务和网关，无需Nacos
+ * run：对聚合服务或网关施加开环或闭环流量并输出吞吐量、延迟分位数和错误率
+ */
+public class LoadTestApplication {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "用法:",
+            "  java -jar load-test.jar stand-ins [--user-port 8081] [--point-port 8082] [--product-port 8083]",
+            "      [--user-latency 10ms] [--point-latency 30ms] [--product-latency 80ms]",
+            "      [--jitter 0.1] [--tail-probability 0.01] [--tail-multiplier 5]",
+            "  java -jar load-test.jar run [--target http://localhost:8084/api/homepage/{userId}]",
+            "      [--mode open|closed] [--rps 200] [--concurrency 64] [--max-in-flight 10000]",
+            "      [--warmup 10s] [--duration 60s] [--users 10000] [--timeout 5s]");
+
+    /**
+     * 主函数
+     * @param args 子命令及参数
+     * @throws Exception 压测失败时抛出异常
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println(USAGE);
+            return;
+        }
+        LoadTestOptions options = LoadTestOptions.parse(Arrays.copyOfRange(args, 1, args.length));
+        switch (args[0]) {
+            case "stand-ins" -> runStandIns(options);
+            case "run" -> runLoad(options).print(System.out);
+            default -> System.out.println(USAGE);
+        }
+    }
+
+    private static void runStandIns(LoadTestOptions options) throws Exception {
+        StandInServices standIns = StandInServices.start(options);
+        for (StandInServer server : standIns.getServers()) {
+            System.out.println("已启动 " + server);
+        }
+        System.out.println("以 --spring.profiles.active=loadtest 启动 aggregation-service 和 api-gateway 后即可压测，Ctrl+C 退出");
+        CountDownLatch shutdown = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            standIns.stop();
+            shutdown.countDown();
+        }));
+        shutdown.await();
+    }
+
+    private static LoadResult runLoad(LoadTestOptions options) throws InterruptedException {
+        String target = options.getString("target", "http://localhost:8084/api/homepage/{userId}");
+        String mode = options.getString("mode", "open");
+        int concurrency = options.getInt("concurrency", 64);
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        Duration timeout = options.getDuration("timeout", Duration.ofSeconds(5));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "load-driver-http");
+                            thread.setDaemon(true);
+                            return thread;
+                        }))
+                .build();
+        LoadDriver driver = new LoadDriver(httpClient, target, options.getInt("users", 10_000), timeout);
+        System.out.printf("开始压测: %s, 模式: %s, 预热: %ss, 统计: %ss%n", target, mode,
+                warmup.toSeconds(), duration.toSeconds());
+        if ("closed".equals(mode)) {
+            return driver.runClosedLoop(concurrency, warmup, duration);
+        }
+        return driver.runOpenLoop(options.getDouble("rps", 200), warmup, duration,
+                options.getInt("max-in-flight", 10_000));
+    }
+}
@@ -0,0 +1,65 @@
+package com.bank.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测命令行参数
+ * 参数格式为 --名称 值，时长支持 500ms、30s、2m 写法
+ */
+public class LoadTestOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * 解析命令行参数
+     * @param args 命令行参数，不含子命令
+     * @return 压测参数
+     * @throws IllegalArgumentException 当参数格式错误时抛出异常
+     */
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("参数格式错误: " + arg + "，应为 --名称 值");
+            }
+            options.values.put(arg.substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    public String getString(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public Duration getDuration(String name, Duration defaultValue) {
+        String value = values.get(name);
+        return value != null ? parseDuration(value) : defaultValue;
+    }
+
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        throw new IllegalArgumentException("时长格式错误: " + value + "，应为 500ms、30s 或 2m");
+    }
+}
@@ -0,0 +1,206 @@
+package com.bank.loadtest.driver;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压测流量驱动器
+ * 开环模式按目标RPS匀速发出请求，不受响应快慢影响，用于观察给定到达率下的延迟；
+ * 闭环模式由固定数量的并发用户逐个发请求，用于测量最大吞吐量
+ * 目标地址中的 {userId} 每次请求替换为随机用户ID，延迟以微秒记录到HdrHistogram
+ */
+public class LoadDriver {
+
+    // 可记录的最大延迟（微秒）
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    // 首页部分板块失败时displayMessage不为null
+    private static final String DEGRADED_MARKER = "\"displayMessage\":\"";
+
+    private final HttpClient httpClient;
+    private final String targetTemplate;
+    private final int userCount;
+    private final Duration requestTimeout;
+
+    /**
+     * 构造函数
+     * @param httpClient HTTP客户端
+     * @param targetTemplate 目标地址模板，可包含 {userId}
+     * @param userCount 随机用户ID的范围
+     * @param requestTimeout 单个请求超时时间
+     */
+    public LoadDriver(HttpClient httpClient, String targetTemplate, int userCount, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.targetTemplate = targetTemplate;
+        this.userCount = userCount;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * 开环压测
+     * @param rps 目标每秒请求数
+     * @param warmup 预热时长，期间的请求不计入结果
+     * @param duration 统计时长
+     * @param maxInFlight 最大在途请求数，超出时本次请求计为未发出
+     * @return 压测结果
+     * @throws InterruptedException 等待在途请求时被中断
+     */
+    public LoadResult runOpenLoop(double rps, Duration warmup, Duration duration, int maxInFlight)
+            throws InterruptedException {
+        Recorder responseTime = newRecorder();
+        Recorder serviceTime = newRecorder();
+        Counters counters = new Counters();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            waitUntil(intended);
+            boolean measured = intended >= measureStart;
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    counters.dropped.increment();
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            long sent = System.nanoTime();
+            httpClient.sendAsync(nextRequest(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, ex) -> {
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            long now = System.nanoTime();
+                            responseTime.recordValue(toMicros(now - intended));
+                            serviceTime.recordValue(toMicros(now - sent));
+                            counters.classify(response, ex);
+                        }
+                    });
+        }
+        awaitInFlight(inFlight);
+        return counters.toResult("open-loop " + rps + " rps", targetTemplate, duration,
+                responseTime.getIntervalHistogram(), serviceTime.getIntervalHistogram());
+    }
+
+    /**
+     * 闭环压测
+     * @param concurrency 并发用户数
+     * @param warmup 预热时长，期间的请求不计入结果
+     * @param duration 统计时长
+     * @return 压测结果
+     * @throws InterruptedException 等待并发用户结束时被中断
+     */
+    public LoadResult runClosedLoop(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        Recorder responseTime = newRecorder();
+        Counters counters = new Counters();
+
+        long measureStart = System.nanoTime() + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                while (true) {
+                    long sent = System.nanoTime();
+                    if (sent >= end) {
+                        return;
+                    }
+                    HttpResponse<String> response = null;
+                    Throwable error = null;
+                    try {
+                        response = httpClient.send(nextRequest(), HttpResponse.BodyHandlers.ofString());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        error = e;
+                    }
+                    if (sent >= measureStart) {
+                        responseTime.recordValue(toMicros(System.nanoTime() - sent));
+                        counters.classify(response, error);
+                    }
+                }
+            }, "load-driver-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Histogram histogram = responseTime.getIntervalHistogram();
+        return counters.toResult("closed-loop " + concurrency + " users", targetTemplate, duration,
+                histogram, histogram);
+    }
+
+    private HttpRequest nextRequest() {
+        long userId = ThreadLocalRandom.current().nextInt(1, userCount + 1);
+        return HttpRequest.newBuilder(URI.create(targetTemplate.replace("{userId}", Long.toString(userId))))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+    }
+
+    private void awaitInFlight(AtomicInteger inFlight) throws InterruptedException {
+        long deadline = System.nanoTime() + requestTimeout.toNanos() * 2;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static Recorder newRecorder() {
+        return new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    /**
+     * 结果计数
+     */
+    private static final class Counters {
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder degraded = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        void classify(HttpResponse<String> response, Throwable error) {
+            completed.increment();
+            if (error != null || response == null || response.statusCode() >= 400) {
+                errors.increment();
+            } else if (response.body() != null && response.body().contains(DEGRADED_MARKER)) {
+                degraded.increment();
+            }
+        }
+
+        LoadResult toResult(String mode, String target, Duration duration, Histogram responseTime,
+                            Histogram serviceTime) {
+            return new LoadResult(mode, target, duration.toMillis() / 1000.0, completed.sum(), errors.sum(),
+                    degraded.sum(), dropped.sum(), responseTime, serviceTime);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bank.loadtest.driver;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+
+/**
+ * 一次压测的结果
+ * 开环模式下响应时间从计划发送时刻算起，包含请求在客户端排队的时间，避免协调遗漏（coordinated omission）低估尾延迟；
+ * 服务时间从实际发出算起，两者差距大说明被测服务已饱和
+ * @param mode 压测模式
+ * @param target 目标地址模板
+ * @param durationSeconds 统计时长（秒），不含预热
+ * @param completed 已结束的请求数，含失败
+ * @param errors 失败的请求数，含网络异常、超时和HTTP错误码
+ * @param degraded 成功返回但标记为部分数据加载失败的请求数
+ * @param dropped 因在途请求达到上限而未发出的请求数，仅开环模式
+ * @param responseTime 响应时间直方图（微秒）
+ * @param serviceTime 服务时间直方图（微秒）
+ */
+public record LoadResult(String mode, String target, double durationSeconds, long completed, long errors,
+                         long degraded, long dropped, Histogram responseTime, Histogram serviceTime) {
+
+    /**
+     * 输出压测报告
+     * @param out 输出流
+     */
+    public void print(PrintStream out) {
+        long attempted = completed + dropped;
+        out.println("========== 压测报告 ==========");
+        out.printf("模式: %s, 目标: %s, 统计时长: %.1fs%n", mode, target, durationSeconds);
+        out.printf("吞吐量: %.1f req/s, 完成: %d, 失败: %d (%.2f%%), 部分降级: %d (%.2f%%), 未发出: %d (%.2f%%)%n",
+                completed / durationSeconds, completed,
+                errors, percent(errors, attempted), degraded, percent(degraded, attempted),
+                dropped, percent(dropped, attempted));
+        printLatency(out, "响应时间", responseTime);
+        if (serviceTime != responseTime) {
+            printLatency(out, "服务时间", serviceTime);
+        }
+    }
+
+    private static void printLatency(PrintStream out, String title, Histogram histogram) {
+        out.printf("%s(ms): p50=%.2f p90=%.2f p99=%.2f p999=%.2f max=%.2f mean=%.2f%n", title,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()), histogram.getMean() / 1000.0);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0.0 : count * 100.0 / total;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bank.loadtest.standin;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 替身服务的延迟分布
+ * 大部分请求在基准延迟上下按比例抖动；按尾部概率抽中的请求耗时为基准延迟乘以尾部倍数，并在此基础上随机延长至两倍，用于模拟慢请求
+ * @param base 基准延迟，与真实服务中模拟的处理时间一致
+ * @param jitter 抖动比例，0.1表示在基准延迟的±10%内均匀分布
+ * @param tailProbability 慢请求概率
+ * @param tailMultiplier 慢请求相对基准延迟的倍数
+ */
+public record LatencyModel(Duration base, double jitter, double tailProbability, double tailMultiplier) {
+
+    /**
+     * 抽取一次请求的延迟
+     * @return 延迟纳秒数
+     */
+    public long sampleNanos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double baseNanos = base.toNanos();
+        if (tailProbability > 0 && random.nextDouble() < tailProbability) {
+            return (long) (baseNanos * tailMultiplier * (1.0 + random.nextDouble()));
+        }
+        return Math.max(0L, (long) (baseNanos * (1.0 + jitter * (2.0 * random.nextDouble() - 1.0))));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%dms±%.0f%%，%.2f%%请求为%.0f-%.0f倍", base.toMillis(), jitter * 100,
+                tailProbability * 100, tailMultiplier, tailMultiplier * 2);
+    }
+}
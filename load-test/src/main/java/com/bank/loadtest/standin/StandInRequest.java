@@ -0,0 +1,39 @@
+package com.bank.loadtest.standin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 替身服务收到的请求
+ * @param pathVariables 路径中按路由正则捕获的变量
+ * @param queryParams 查询参数
+ */
+public record StandInRequest(List<String> pathVariables, Map<String, String> queryParams) {
+
+    /**
+     * 读取路径变量
+     * @param index 捕获组序号，从0开始
+     * @return 变量值
+     */
+    public Long pathLong(int index) {
+        return Long.valueOf(pathVariables.get(index));
+    }
+
+    /**
+     * 读取逗号分隔的ID列表参数
+     * @param name 参数名
+     * @return ID列表，参数不存在时为空列表
+     */
+    public List<Long> queryLongs(String name) {
+        String value = queryParams.get(name);
+        List<Long> ids = new ArrayList<>();
+        if (value == null || value.isBlank()) {
+            return ids;
+        }
+        for (String part : value.split(",")) {
+            ids.add(Long.valueOf(part.trim()));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,148 @@
+package com.bank.loadtest.standin;
+
+import com.bank.common.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 下游服务替身
+ * 基于JDK内置HttpServer，按路由返回与真实服务结构一致的ApiResponse，并按延迟分布阻塞后响应
+ * 每个请求占用一个线程阻塞等待，与真实服务中Thread.sleep模拟处理时间的方式一致
+ */
+public class StandInServer {
+
+    private final String name;
+    private final int port;
+    private final LatencyModel latencyModel;
+    private final ObjectMapper objectMapper;
+    private final List<Route> routes = new ArrayList<>();
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    /**
+     * 构造函数
+     * @param name 替身的服务名
+     * @param port 监听端口
+     * @param latencyModel 延迟分布
+     * @param objectMapper JSON序列化器
+     * @throws IOException 端口无法绑定时抛出异常
+     */
+    public StandInServer(String name, int port, LatencyModel latencyModel, ObjectMapper objectMapper)
+            throws IOException {
+        this.name = name;
+        this.port = port;
+        this.latencyModel = latencyModel;
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, name + "-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    /**
+     * 注册路由，先注册的优先匹配
+     * @param pathPattern 路径正则，捕获组作为路径变量
+     * @param handler 请求处理函数，返回值作为响应数据
+     * @return 当前替身
+     */
+    public StandInServer route(String pathPattern, Function<StandInRequest, Object> handler) {
+        routes.add(new Route(Pattern.compile(pathPattern), handler));
+        return this;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            for (Route route : routes) {
+                Matcher matcher = route.pattern().matcher(path);
+                if (matcher.matches()) {
+                    List<String> pathVariables = new ArrayList<>(matcher.groupCount());
+                    for (int i = 1; i <= matcher.groupCount(); i++) {
+                        pathVariables.add(matcher.group(i));
+                    }
+                    StandInRequest request = new StandInRequest(pathVariables,
+                            parseQuery(exchange.getRequestURI().getRawQuery()));
+                    simulateLatency();
+                    respond(exchange, 200, ApiResponse.success(route.handler().apply(request)));
+                    return;
+                }
+            }
+            respond(exchange, 404, ApiResponse.error(404, name + "替身不支持的路径: " + path));
+        } catch (RuntimeException e) {
+            respond(exchange, 500, ApiResponse.error(500, name + "替身处理失败: " + e.getMessage()));
+        }
+    }
+
+    private void simulateLatency() {
+        long nanos = latencyModel.sampleNanos();
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, ApiResponse<?> body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return name + "替身 :" + port + "，延迟 " + latencyModel;
+    }
+
+    private record Route(Pattern pattern, Function<StandInRequest, Object> handler) {
+    }
+}
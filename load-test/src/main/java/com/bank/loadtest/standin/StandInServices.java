@@ -0,0 +1,147 @@
+package com.bank.loadtest.standin;
+
+import com.bank.common.model.Points;
+import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
+import com.bank.common.model.User;
+import com.bank.loadtest.LoadTestOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 用户、积分、产品服务替身
+ * 提供聚合服务用到的单用户接口和批量接口，默认端口与真实服务一致，聚合服务以loadtest配置启动即可直连替身
+ * 默认延迟与真实服务中模拟的处理时间一致：积分服务30ms，产品服务80ms；用户服务没有模拟处理时间，默认按10ms估算
+ */
+public class StandInServices {
+
+    private final List<StandInServer> servers;
+
+    private StandInServices(List<StandInServer> servers) {
+        this.servers = servers;
+    }
+
+    /**
+     * 按参数启动全部替身
+     * @param options 压测参数
+     * @return 已启动的替身
+     * @throws IOException 端口无法绑定时抛出异常
+     */
+    public static StandInServices start(LoadTestOptions options) throws IOException {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        double jitter = options.getDouble("jitter", 0.1);
+        double tailProbability = options.getDouble("tail-probability", 0.01);
+        double tailMultiplier = options.getDouble("tail-multiplier", 5.0);
+
+        StandInServer userService = new StandInServer("user-service", options.getInt("user-port", 8081),
+                new LatencyModel(options.getDuration("user-latency", Duration.ofMillis(10)), jitter,
+                        tailProbability, tailMultiplier), objectMapper)
+                .route("/api/users/batch", request -> byUserId(request.queryLongs("userIds"), StandInServices::user))
+                .route("/api/users/(\\d+)", request -> user(request.pathLong(0)));
+
+        StandInServer pointService = new StandInServer("point-service", options.getInt("point-port", 8082),
+                new LatencyModel(options.getDuration("point-latency", Duration.ofMillis(30)), jitter,
+                        tailProbability, tailMultiplier), objectMapper)
+                .route("/api/points/batch", request -> byUserId(request.queryLongs("userIds"), StandInServices::points))
+                .route("/api/points/user/(\\d+)", request -> points(request.pathLong(0)));
+
+        List<Product> recommended = recommendedProducts();
+        StandInServer productService = new StandInServer("product-service", options.getInt("product-port", 8083),
+                new LatencyModel(options.getDuration("product-latency", Duration.ofMillis(80)), jitter,
+                        tailProbability, tailMultiplier), objectMapper)
+                .route("/api/products/recommended/batch",
+                        request -> sharedRecommendation(request.queryLongs("userIds"), recommended))
+                .route("/api/products/recommended", request -> recommended);
+
+        List<StandInServer> servers = List.of(userService, pointService, productService);
+        servers.forEach(StandInServer::start);
+        return new StandInServices(servers);
+    }
+
+    public List<StandInServer> getServers() {
+        return servers;
+    }
+
+    public void stop() {
+        servers.forEach(StandInServer::stop);
+    }
+
+    private static <T> Map<Long, T> byUserId(List<Long> userIds, Function<Long, T> loader) {
+        Map<Long, T> result = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            result.put(userId, loader.apply(userId));
+        }
+        return result;
+    }
+
+    private static RecommendedProductsBatch sharedRecommendation(List<Long> userIds, List<Product> recommended) {
+        RecommendedProductsBatch batch = new RecommendedProductsBatch();
+        batch.getSegments().put("L1-P1", recommended);
+        for (Long userId : userIds) {
+            batch.getUserSegments().put(userId, "L1-P1");
+        }
+        return batch;
+    }
+
+    private static User user(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setName("压测用户" + userId);
+        user.setPhone("138" + String.format("%08d", userId % 100_000_000));
+        user.setEmail("user" + userId + "@bank.com");
+        user.setUserLevel((int) (userId % 4) + 1);
+        user.setRegisterTime(LocalDateTime.now().minusDays(365));
+        user.setLastLoginTime(LocalDateTime.now().minusHours(1));
+        user.setStatus(1);
+        return user;
+    }
+
+    private static Points points(Long userId) {
+        Points points = new Points();
+        points.setId(userId);
+        points.setUserId(userId);
+        points.setTotalPoints(new BigDecimal("15800.50"));
+        points.setAvailablePoints(new BigDecimal("12500.00"));
+        points.setFrozenPoints(new BigDecimal("3300.50"));
+        points.setPointsLevel(3);
+        points.setUpdateTime(LocalDateTime.now().minusHours(1));
+        return points;
+    }
+
+    private static List<Product> recommendedProducts() {
+        return List.of(
+                product(1L, "FUND001", "稳健增长基金", "FUND", "0.0385", "1000.00", 2),
+                product(2L, "INS001", "终身寿险", "INSURANCE", "0.0250", "5000.00", 1),
+                product(3L, "LOAN001", "个人消费贷款", "LOAN", "0.0650", "10000.00", 3));
+    }
+
+    private static Product product(Long id, String code, String name, String type, String expectedRate,
+                                   String minAmount, int riskLevel) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductCode(code);
+        product.setProductName(name);
+        product.setProductType(type);
+        product.setExpectedRate(new BigDecimal(expectedRate));
+        product.setMinAmount(new BigDecimal(minAmount));
+        product.setRiskLevel(riskLevel);
+        product.setStatus(1);
+        product.setDescription(name);
+        product.setCreateTime(LocalDateTime.now().minusDays(30));
+        return product;
+    }
+}
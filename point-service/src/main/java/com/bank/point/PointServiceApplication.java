@@ -1,8 +1,10 @@
 package com.bank.point;
 
+import com.bank.common.exception.GlobalExceptionHandler;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 /**
  * 积分服务启动类
@@ -10,6 +12,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import(GlobalExceptionHandler.class)
 public class PointServiceApplication {
     /**
      * 主函数，启动积分服务应用
@@ -2,52 +2,30 @@ package com.bank.point.controller;
 
 import com.bank.common.model.Points;
 import com.bank.common.response.ApiResponse;
+import com.bank.point.ledger.PointsLedger;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 积分服务控制器
- * 提供用户积分信息相关的API接口
+ * 提供用户积分查询相关的API接口，积分数据由PointsLedger维护
+ * 积分变动接口见PointLedgerController，不经网关对外暴露
  */
 @Slf4j
 @RestController
+@RequiredArgsConstructor
 @RequestMapping("/api/points")
 public class PointController {
     
-    // 模拟积分数据
-    private final Map<Long, Points> pointsDatabase = new HashMap<>();
+    // 单次批量查询的最大用户数
+    private static final int MAX_BATCH_SIZE = 200;
     
-    /**
-     * 构造函数
-     * 初始化测试积分数据
-     */
-    public PointController() {
-        // 初始化测试数据
-        Points points1 = new Points();
-        points1.setId(1L);
-        points1.setUserId(1L);
-        points1.setTotalPoints(new BigDecimal("15800.50"));
-        points1.setAvailablePoints(new BigDecimal("12500.00"));
-        points1.setFrozenPoints(new BigDecimal("3300.50"));
-        points1.setPointsLevel(3);
-        points1.setUpdateTime(LocalDateTime.now().minusHours(1));
-        pointsDatabase.put(1L, points1);
-        
-        Points points2 = new Points();
-        points2.setId(2L);
-        points2.setUserId(2L);
-        points2.setTotalPoints(new BigDecimal("5800.00"));
-        points2.setAvailablePoints(new BigDecimal("5800.00"));
-        points2.setFrozenPoints(BigDecimal.ZERO);
-        points2.setPointsLevel(2);
-        points2.setUpdateTime(LocalDateTime.now().minusDays(1));
-        pointsDatabase.put(2L, points2);
-    }
+    private final PointsLedger pointsLedger;
     
     /**
      * 根据用户ID获取用户积分信息
@@ -59,7 +37,7 @@ public class PointController {
     public ApiResponse<Points> getUserPoints(@PathVariable Long userId) {
         log.info("查询用户积分，用户ID: {}", userId);
         
-        Points points = pointsDatabase.get(userId);
+        Points points = pointsLedger.getPoints(userId);
         if (points == null) {
             throw new RuntimeException("用户积分信息不存在: " + userId);
         }
@@ -74,6 +52,38 @@ public class PointController {
         return ApiResponse.success(points);
     }
     
+    /**
+     * 根据用户ID批量获取用户积分信息
+     * 不存在积分信息的用户不出现在结果中，整批只模拟一次处理时间
+     * @param userIds 用户ID列表
+     * @return 用户ID到积分信息的映射
+     * @throws IllegalArgumentException 当用户ID数量超过上限时抛出异常
+     */
+    @GetMapping("/batch")
+    public ApiResponse<Map<Long, Points>> getUserPointsBatch(@RequestParam("userIds") List<Long> userIds) {
+        log.info("批量查询用户积分，用户数: {}", userIds.size());
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("批量查询用户数不能超过" + MAX_BATCH_SIZE);
+        }
+        
+        Map<Long, Points> result = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            Points points = pointsLedger.getPoints(userId);
+            if (points != null) {
+                result.put(userId, points);
+            }
+        }
+        
+        // 模拟处理时间
+        try {
+            Thread.sleep(30);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        return ApiResponse.success(result);
+    }
+    
     /**
      * 健康检查接口
      * @return 服务状态信息
@@ -0,0 +1,75 @@
+package com.bank.point.controller;
+
+import com.bank.common.model.Points;
+import com.bank.common.request.PointsOperationRequest;
+import com.bank.common.response.ApiResponse;
+import com.bank.point.ledger.PointsLedger;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 积分变动控制器
+ * 提供积分发放、扣减、冻结、解冻接口，每次请求携带请求ID，重复提交只变动一次余额
+ * 接口位于内部路径下，网关不转发，调用方需携带内部接口访问令牌
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/points")
+public class PointLedgerController {
+
+    private final PointsLedger pointsLedger;
+
+    /**
+     * 发放积分，用户尚无积分账户时自动开户
+     * @param userId 用户ID
+     * @param request 积分变动请求
+     * @return 变动后的用户积分信息
+     */
+    @PostMapping("/user/{userId}/accrue")
+    public ApiResponse<Points> accrue(@PathVariable Long userId, @Valid @RequestBody PointsOperationRequest request) {
+        log.info("发放积分，用户ID: {}, 请求ID: {}, 积分数: {}", userId, request.getRequestId(), request.getAmount());
+        return ApiResponse.success(pointsLedger.accrue(userId, request.getRequestId(), request.getAmount()));
+    }
+
+    /**
+     * 扣减可用积分
+     * @param userId 用户ID
+     * @param request 积分变动请求
+     * @return 变动后的用户积分信息
+     * @throws IllegalArgumentException 当可用积分不足时抛出异常
+     */
+    @PostMapping("/user/{userId}/redeem")
+    public ApiResponse<Points> redeem(@PathVariable Long userId, @Valid @RequestBody PointsOperationRequest request) {
+        log.info("扣减积分，用户ID: {}, 请求ID: {}, 积分数: {}", userId, request.getRequestId(), request.getAmount());
+        return ApiResponse.success(pointsLedger.redeem(userId, request.getRequestId(), request.getAmount()));
+    }
+
+    /**
+     * 冻结可用积分
+     * @param userId 用户ID
+     * @param request 积分变动请求
+     * @return 变动后的用户积分信息
+     * @throws IllegalArgumentException 当可用积分不足时抛出异常
+     */
+    @PostMapping("/user/{userId}/freeze")
+    public ApiResponse<Points> freeze(@PathVariable Long userId, @Valid @RequestBody PointsOperationRequest request) {
+        log.info("冻结积分，用户ID: {}, 请求ID: {}, 积分数: {}", userId, request.getRequestId(), request.getAmount());
+        return ApiResponse.success(pointsLedger.freeze(userId, request.getRequestId(), request.getAmount()));
+    }
+
+    /**
+     * 解冻积分
+     * @param userId 用户ID
+     * @param request 积分变动请求
+     * @return 变动后的用户积分信息
+     * @throws IllegalArgumentException 当冻结积分不足时抛出异常
+     */
+    @PostMapping("/user/{userId}/unfreeze")
+    public ApiResponse<Points> unfreeze(@PathVariable Long userId, @Valid @RequestBody PointsOperationRequest request) {
+        log.info("解冻积分，用户ID: {}, 请求ID: {}, 积分数: {}", userId, request.getRequestId(), request.getAmount());
+        return ApiResponse.success(pointsLedger.unfreeze(userId, request.getRequestId(), request.getAmount()));
+    }
+}
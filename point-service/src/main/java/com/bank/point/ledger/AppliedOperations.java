@@ -0,0 +1,128 @@
+package com.bank.point.ledger;
+
+import com.bank.common.model.Points;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 已执行的积分变动记录
+ * 按用户ID和请求ID去重：同一请求重复提交（客户端或Feign重试）时不再变动余额，直接返回首次执行的结果
+ * 首次执行尚未结束时到达的重复请求等待其结果；执行失败的请求没有变动余额，不留记录，可以用同一请求ID重试
+ * 成功的记录保留一段时间后清理，清理在写操作中分摊进行
+ */
+class AppliedOperations {
+
+    // 每执行多少次写操作清理一次过期记录
+    private static final int PURGE_INTERVAL = 1024;
+
+    private final ConcurrentMap<OperationKey, Applied> applied = new ConcurrentHashMap<>();
+    private final long retentionMillis;
+    private final AtomicInteger writesSincePurge = new AtomicInteger();
+
+    /**
+     * 构造函数
+     * @param retentionMillis 成功记录的保留时长（毫秒）
+     */
+    AppliedOperations(long retentionMillis) {
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * 执行积分变动，同一用户的同一请求ID只执行一次
+     * @param userId 用户ID
+     * @param requestId 请求ID
+     * @param operation 操作类型
+     * @param amount 变动积分数（放大100倍）
+     * @param change 积分变动
+     * @return 首次执行的结果
+     * @throws IllegalArgumentException 当请求ID已用于其他操作或金额时抛出异常
+     */
+    Points apply(Long userId, String requestId, String operation, long amount, Supplier<Points> change) {
+        OperationKey key = new OperationKey(userId, requestId);
+        Applied mine = new Applied(operation, amount);
+        Applied existing = applied.putIfAbsent(key, mine);
+        if (existing != null) {
+            if (!existing.operation.equals(operation) || existing.amount != amount) {
+                throw new IllegalArgumentException("请求ID已用于其他积分变动: " + requestId);
+            }
+            return existing.await();
+        }
+        try {
+            Points points = change.get();
+            mine.complete(points);
+            return points;
+        } catch (RuntimeException e) {
+            applied.remove(key, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (writesSincePurge.incrementAndGet() >= PURGE_INTERVAL) {
+                writesSincePurge.set(0);
+                purgeExpired(System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * 当前保留的记录数
+     * @return 记录数
+     */
+    int size() {
+        return applied.size();
+    }
+
+    /**
+     * 清理超过保留时长的成功记录
+     * @param nowMillis 当前时间（毫秒时间戳）
+     */
+    void purgeExpired(long nowMillis) {
+        applied.values().removeIf(entry -> entry.isExpired(nowMillis, retentionMillis));
+    }
+
+    private record OperationKey(Long userId, String requestId) {
+    }
+
+    /**
+     * 一次积分变动的执行记录
+     */
+    private static final class Applied {
+
+        private final String operation;
+        private final long amount;
+        private final CompletableFuture<Points> result = new CompletableFuture<>();
+
+        // 执行成功的时间，执行中为0
+        private volatile long completedAtMillis;
+
+        Applied(String operation, long amount) {
+            this.operation = operation;
+            this.amount = amount;
+        }
+
+        void complete(Points points) {
+            completedAtMillis = System.currentTimeMillis();
+            result.complete(points);
+        }
+
+        boolean isExpired(long nowMillis, long retentionMillis) {
+            long completedAt = completedAtMillis;
+            return completedAt != 0 && nowMillis - completedAt > retentionMillis;
+        }
+
+        Points await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.point.ledger;
+
+import com.bank.common.model.Points;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * 单个用户的积分账户
+ * 余额保存在AtomicReference中，写操作以CAS循环整体替换不可变余额，读操作只读取当前引用，不会被写操作阻塞
+ */
+class PointsAccount {
+
+    private final Long id;
+    private final Long userId;
+    private final AtomicReference<PointsBalance> balance;
+
+    PointsAccount(Long id, Long userId, PointsBalance initial) {
+        this.id = id;
+        this.userId = userId;
+        this.balance = new AtomicReference<>(initial);
+    }
+
+    /**
+     * 原子地变更余额
+     * 变更函数可能因竞争被重复调用，必须无副作用；余额不足时抛出的异常直接传给调用方，余额保持不变
+     * @param change 余额变更函数
+     * @return 变更后的余额
+     */
+    PointsBalance update(UnaryOperator<PointsBalance> change) {
+        while (true) {
+            PointsBalance current = balance.get();
+            PointsBalance next = change.apply(current);
+            if (balance.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    PointsBalance balance() {
+        return balance.get();
+    }
+
+    Points toPoints(PointsBalance snapshot) {
+        return snapshot.toPoints(id, userId);
+    }
+}
@@ -0,0 +1,111 @@
+package com.bank.point.ledger;
+
+import com.bank.common.model.Points;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 不可变的账户余额
+ * 积分以放大100倍的long保存（精确到0.01），每次变动生成新实例，由PointsAccount通过CAS整体替换
+ * 总积分始终等于可用积分与冻结积分之和，各项余额都不会为负，运算溢出时拒绝变动
+ * @param available 可用积分（放大100倍）
+ * @param frozen 冻结积分（放大100倍）
+ * @param pointsLevel 积分等级
+ * @param updateTimeMillis 最后变动时间（毫秒时间戳）
+ */
+record PointsBalance(long available, long frozen, Integer pointsLevel, long updateTimeMillis) {
+
+    /**
+     * 积分小数位数
+     */
+    static final int SCALE = 2;
+
+    long total() {
+        return Math.addExact(available, frozen);
+    }
+
+    PointsBalance accrue(long amount) {
+        long nextAvailable = add(available, amount);
+        // 总积分同样不能溢出
+        add(nextAvailable, frozen);
+        return new PointsBalance(nextAvailable, frozen, pointsLevel, System.currentTimeMillis());
+    }
+
+    PointsBalance redeem(long amount) {
+        requireEnough(available, amount, "可用积分不足");
+        return new PointsBalance(subtract(available, amount), frozen, pointsLevel, System.currentTimeMillis());
+    }
+
+    PointsBalance freeze(long amount) {
+        requireEnough(available, amount, "可用积分不足");
+        return new PointsBalance(subtract(available, amount), add(frozen, amount), pointsLevel,
+                System.currentTimeMillis());
+    }
+
+    PointsBalance unfreeze(long amount) {
+        requireEnough(frozen, amount, "冻结积分不足");
+        return new PointsBalance(add(available, amount), subtract(frozen, amount), pointsLevel,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * 转换为对外返回的积分信息
+     * @param id 积分记录ID
+     * @param userId 用户ID
+     * @return 积分信息
+     */
+    Points toPoints(Long id, Long userId) {
+        Points points = new Points();
+        points.setId(id);
+        points.setUserId(userId);
+        points.setTotalPoints(toDecimal(total()));
+        points.setAvailablePoints(toDecimal(available));
+        points.setFrozenPoints(toDecimal(frozen));
+        points.setPointsLevel(pointsLevel);
+        points.setUpdateTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(updateTimeMillis), ZoneId.systemDefault()));
+        return points;
+    }
+
+    /**
+     * 积分数转换为放大后的long
+     * @param amount 积分数
+     * @return 放大100倍的积分数
+     * @throws IllegalArgumentException 当小数位超过两位或数值溢出时抛出异常
+     */
+    static long toScaled(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("积分数最多保留两位小数且不能超出范围: " + amount);
+        }
+    }
+
+    static BigDecimal toDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    private static long add(long balance, long amount) {
+        try {
+            return Math.addExact(balance, amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("积分超出上限，当前: " + toDecimal(balance) + "，变动: " + toDecimal(amount));
+        }
+    }
+
+    private static long subtract(long balance, long amount) {
+        try {
+            return Math.subtractExact(balance, amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("积分超出下限，当前: " + toDecimal(balance) + "，变动: " + toDecimal(amount));
+        }
+    }
+
+    private static void requireEnough(long balance, long amount, String message) {
+        if (balance < amount) {
+            throw new IllegalArgumentException(message + "，当前: " + toDecimal(balance) + "，需要: " + toDecimal(amount));
+        }
+    }
+}
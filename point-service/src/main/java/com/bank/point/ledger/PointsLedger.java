@@ -0,0 +1,157 @@
+package com.bank.point.ledger;
+
+import com.bank.common.model.Points;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 积分账本
+ * 每个用户一个账户，账户之间互不加锁；同一账户的并发写通过CAS串行化，读操作无锁
+ * 积分以放大100倍的long运算，避免高并发下BigDecimal的分配和比较开销
+ * 每次写操作携带调用方生成的请求ID，同一用户的同一请求ID只执行一次，重试时返回首次执行的结果
+ */
+@Slf4j
+@Component
+public class PointsLedger {
+
+    // 新开账户的积分等级
+    private static final int DEFAULT_POINTS_LEVEL = 1;
+
+    private final ConcurrentMap<Long, PointsAccount> accounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong accountIdSequence = new AtomicLong();
+
+    private final AppliedOperations appliedOperations;
+
+    /**
+     * 构造函数
+     * 初始化测试积分数据
+     * @param idempotencyRetention 请求ID去重记录的保留时长，应覆盖调用方重试的时间范围
+     */
+    public PointsLedger(@Value("${point.ledger.idempotency-retention:1h}") Duration idempotencyRetention) {
+        this.appliedOperations = new AppliedOperations(idempotencyRetention.toMillis());
+        // 初始化测试数据
+        open(1L, new BigDecimal("12500.00"), new BigDecimal("3300.50"), 3, LocalDateTime.now().minusHours(1));
+        open(2L, new BigDecimal("5800.00"), BigDecimal.ZERO, 2, LocalDateTime.now().minusDays(1));
+    }
+
+    /**
+     * 查询用户积分，不会被并发写阻塞
+     * @param userId 用户ID
+     * @return 用户积分信息，账户不存在时返回null
+     */
+    public Points getPoints(Long userId) {
+        PointsAccount account = accounts.get(userId);
+        return account != null ? account.toPoints(account.balance()) : null;
+    }
+
+    /**
+     * 发放积分，账户不存在时自动开户
+     * @param userId 用户ID
+     * @param requestId 请求ID
+     * @param amount 发放积分数
+     * @return 变动后的积分信息
+     * @throws IllegalArgumentException 当积分超出上限或请求ID已用于其他变动时抛出异常
+     */
+    public Points accrue(Long userId, String requestId, BigDecimal amount) {
+        long scaled = requirePositive(amount);
+        return apply(userId, requestId, "发放", scaled, () -> accounts.computeIfAbsent(userId, id -> newAccount(id,
+                new PointsBalance(0L, 0L, DEFAULT_POINTS_LEVEL, System.currentTimeMillis()))),
+                balance -> balance.accrue(scaled));
+    }
+
+    /**
+     * 扣减可用积分
+     * @param userId 用户ID
+     * @param requestId 请求ID
+     * @param amount 扣减积分数
+     * @return 变动后的积分信息
+     * @throws IllegalArgumentException 当可用积分不足或请求ID已用于其他变动时抛出异常
+     */
+    public Points redeem(Long userId, String requestId, BigDecimal amount) {
+        long scaled = requirePositive(amount);
+        return apply(userId, requestId, "扣减", scaled, () -> requireAccount(userId),
+                balance -> balance.redeem(scaled));
+    }
+
+    /**
+     * 冻结可用积分
+     * @param userId 用户ID
+     * @param requestId 请求ID
+     * @param amount 冻结积分数
+     * @return 变动后的积分信息
+     * @throws IllegalArgumentException 当可用积分不足或请求ID已用于其他变动时抛出异常
+     */
+    public Points freeze(Long userId, String requestId, BigDecimal amount) {
+        long scaled = requirePositive(amount);
+        return apply(userId, requestId, "冻结", scaled, () -> requireAccount(userId),
+                balance -> balance.freeze(scaled));
+    }
+
+    /**
+     * 解冻积分，解冻部分回到可用积分
+     * @param userId 用户ID
+     * @param requestId 请求ID
+     * @param amount 解冻积分数
+     * @return 变动后的积分信息
+     * @throws IllegalArgumentException 当冻结积分不足或请求ID已用于其他变动时抛出异常
+     */
+    public Points unfreeze(Long userId, String requestId, BigDecimal amount) {
+        long scaled = requirePositive(amount);
+        return apply(userId, requestId, "解冻", scaled, () -> requireAccount(userId),
+                balance -> balance.unfreeze(scaled));
+    }
+
+    private Points apply(Long userId, String requestId, String operation, long amount,
+                         Supplier<PointsAccount> accountLookup, UnaryOperator<PointsBalance> change) {
+        if (!StringUtils.hasText(requestId)) {
+            throw new IllegalArgumentException("请求ID不能为空");
+        }
+        return appliedOperations.apply(userId, requestId, operation, amount, () -> {
+            PointsAccount account = accountLookup.get();
+            Points points = account.toPoints(account.update(change));
+            log.debug("积分{}完成，用户ID: {}, 请求ID: {}, 积分数: {}, 可用积分: {}, 冻结积分: {}", operation,
+                    userId, requestId, PointsBalance.toDecimal(amount), points.getAvailablePoints(),
+                    points.getFrozenPoints());
+            return points;
+        });
+    }
+
+    private void open(Long userId, BigDecimal available, BigDecimal frozen, int pointsLevel,
+                      LocalDateTime updateTime) {
+        long updateTimeMillis = updateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        accounts.put(userId, newAccount(userId, new PointsBalance(PointsBalance.toScaled(available),
+                PointsBalance.toScaled(frozen), pointsLevel, updateTimeMillis)));
+    }
+
+    private PointsAccount newAccount(Long userId, PointsBalance initial) {
+        return new PointsAccount(accountIdSequence.incrementAndGet(), userId, initial);
+    }
+
+    private PointsAccount requireAccount(Long userId) {
+        PointsAccount account = accounts.get(userId);
+        if (account == null) {
+            throw new RuntimeException("用户积分信息不存在: " + userId);
+        }
+        return account;
+    }
+
+    private static long requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("积分数必须大于0");
+        }
+        return PointsBalance.toScaled(amount);
+    }
+}
@@ -0,0 +1,191 @@
+package com.bank.point.ledger;
+
+import com.bank.common.model.Points;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 积分账本测试
+ */
+class PointsLedgerTest {
+
+    private static final long FIRST_USER_ID = 1000L;
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+
+    private PointsLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new PointsLedger(Duration.ofHours(1));
+    }
+
+    @Test
+    void concurrentWritesKeepBalancesNonNegativeAndConserveTotals() throws Exception {
+        int accountCount = 4;
+        int threads = 8;
+        int operationsPerThread = 20_000;
+        BigDecimal initial = new BigDecimal("50.00");
+        for (int i = 0; i < accountCount; i++) {
+            ledger.accrue(FIRST_USER_ID + i, "init-" + i, initial);
+        }
+
+        // 发放与扣减的净额（放大100倍）
+        LongAdder netAccrued = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        AtomicLong requestSequence = new AtomicLong();
+        AtomicBoolean negativeSeen = new AtomicBoolean();
+        long scaledAmount = PointsBalance.toScaled(AMOUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        Long userId = FIRST_USER_ID + random.nextInt(accountCount);
+                        String requestId = "req-" + requestSequence.incrementAndGet();
+                        try {
+                            Points points;
+                            // 扣减和冻结占多数，余额经常耗尽，覆盖余额不足时的竞争
+                            switch (random.nextInt(6)) {
+                                case 0 -> {
+                                    points = ledger.accrue(userId, requestId, AMOUNT);
+                                    netAccrued.add(scaledAmount);
+                                }
+                                case 1, 2 -> {
+                                    points = ledger.redeem(userId, requestId, AMOUNT);
+                                    netAccrued.add(-scaledAmount);
+                                }
+                                case 3, 4 -> points = ledger.freeze(userId, requestId, AMOUNT);
+                                default -> points = ledger.unfreeze(userId, requestId, AMOUNT);
+                            }
+                            if (points.getAvailablePoints().signum() < 0 || points.getFrozenPoints().signum() < 0) {
+                                negativeSeen.set(true);
+                            }
+                        } catch (IllegalArgumentException e) {
+                            rejected.increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long expectedTotal = PointsBalance.toScaled(initial) * accountCount + netAccrued.sum();
+        long actualTotal = 0L;
+        for (int i = 0; i < accountCount; i++) {
+            Points points = ledger.getPoints(FIRST_USER_ID + i);
+            assertThat(points.getAvailablePoints()).isNotNegative();
+            assertThat(points.getFrozenPoints()).isNotNegative();
+            assertThat(points.getTotalPoints()).isEqualByComparingTo(
+                    points.getAvailablePoints().add(points.getFrozenPoints()));
+            actualTotal += PointsBalance.toScaled(points.getTotalPoints());
+        }
+        assertThat(negativeSeen).isFalse();
+        assertThat(rejected.sum()).isPositive();
+        assertThat(actualTotal).isEqualTo(expectedTotal);
+    }
+
+    @Test
+    void repeatedRequestIdIsAppliedOnce() {
+        Points first = ledger.redeem(1L, "order-1", new BigDecimal("100.00"));
+        Points retried = ledger.redeem(1L, "order-1", new BigDecimal("100.00"));
+
+        assertThat(retried).isSameAs(first);
+        assertThat(ledger.getPoints(1L).getAvailablePoints()).isEqualByComparingTo("12400.00");
+    }
+
+    @Test
+    void concurrentDuplicatesOfOneRequestApplyOnce() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Points>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return ledger.freeze(2L, "freeze-1", new BigDecimal("800.00"));
+                }));
+            }
+            start.countDown();
+            for (Future<Points> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).getFrozenPoints()).isEqualByComparingTo("800.00");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(ledger.getPoints(2L).getAvailablePoints()).isEqualByComparingTo("5000.00");
+    }
+
+    @Test
+    void requestIdReusedForDifferentChangeIsRejected() {
+        ledger.redeem(1L, "order-2", new BigDecimal("10.00"));
+
+        assertThatThrownBy(() -> ledger.freeze(1L, "order-2", new BigDecimal("10.00")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledger.redeem(1L, "order-2", new BigDecimal("20.00")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ledger.getPoints(1L).getAvailablePoints()).isEqualByComparingTo("12490.00");
+        assertThat(ledger.getPoints(1L).getFrozenPoints()).isEqualByComparingTo("3300.50");
+    }
+
+    @Test
+    void rejectedRequestCanBeRetriedWithSameRequestId() {
+        assertThatThrownBy(() -> ledger.redeem(2L, "order-3", new BigDecimal("6000.00")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        ledger.accrue(2L, "topup-1", new BigDecimal("200.00"));
+        Points points = ledger.redeem(2L, "order-3", new BigDecimal("6000.00"));
+
+        assertThat(points.getAvailablePoints()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void overflowIsRejectedWithoutChangingBalance() {
+        BigDecimal half = PointsBalance.toDecimal(Long.MAX_VALUE / 2);
+        ledger.accrue(3L, "big-1", half);
+        ledger.freeze(3L, "big-freeze", half);
+        ledger.accrue(3L, "big-2", half);
+
+        assertThatThrownBy(() -> ledger.accrue(3L, "big-3", half))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledger.accrue(3L, "small", new BigDecimal("100.00")))
+                .isInstanceOf(IllegalArgumentException.class);
+        Points points = ledger.getPoints(3L);
+        assertThat(points.getAvailablePoints()).isEqualByComparingTo(half);
+        assertThat(points.getFrozenPoints()).isEqualByComparingTo(half);
+    }
+
+    @Test
+    void blankRequestIdIsRejected() {
+        assertThatThrownBy(() -> ledger.accrue(1L, " ", AMOUNT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.product.catalog;
+
+import com.bank.common.model.Product;
+
+import java.util.List;
+
+/**
+ * 产品目录变更事件
+ * @param previous 变更前的目录快照
+ * @param current 变更后的目录快照
+ * @param upserted 新增或更新的产品，整体替换时为空
+ * @param removedIds 删除的产品ID，整体替换时为空
+ * @param fullReplace 是否整体替换目录
+ */
+public record CatalogChange(CatalogSnapshot previous, CatalogSnapshot current, List<Product> upserted,
+                            List<Long> removedIds, boolean fullReplace) {
+}
@@ -0,0 +1,14 @@
+package com.bank.product.catalog;
+
+/**
+ * 产品目录变更监听器
+ * 在新快照生效后同步回调，用于刷新依赖目录的预计算数据
+ */
+public interface CatalogListener {
+
+    /**
+     * 目录变更回调
+     * @param change 目录变更事件
+     */
+    void onCatalogChanged(CatalogChange change);
+}
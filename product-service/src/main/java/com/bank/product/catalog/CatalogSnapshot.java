@@ -0,0 +1,158 @@
+package com.bank.product.catalog;
+
+import com.bank.common.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 产品目录快照
+ * 不可变对象，构建时一次性生成按ID、编码的哈希索引以及按状态、类型、风险等级的预计算视图，
+ * 读取时无需加锁，也不再分配新的集合
+ * 构建时复制传入的产品，调用方之后修改原对象不会影响快照
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final List<Product> products;
+    private final Map<Long, Product> byId;
+    private final Map<String, Product> byCode;
+    private final Map<Integer, List<Product>> byStatus;
+    private final Map<String, List<Product>> byType;
+    private final Map<Integer, List<Product>> byRiskLevel;
+
+    private CatalogSnapshot(long version, List<Product> products) {
+        this.version = version;
+        this.products = products;
+        Map<Long, Product> idIndex = new HashMap<>(products.size() * 2);
+        Map<String, Product> codeIndex = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            idIndex.put(product.getId(), product);
+            codeIndex.put(product.getProductCode(), product);
+        }
+        this.byId = Collections.unmodifiableMap(idIndex);
+        this.byCode = Collections.unmodifiableMap(codeIndex);
+        this.byStatus = group(products, Product::getStatus);
+        this.byType = group(products, Product::getProductType);
+        this.byRiskLevel = group(products, Product::getRiskLevel);
+    }
+
+    /**
+     * 构建产品目录快照，快照持有产品的副本
+     * @param version 快照版本号
+     * @param products 产品列表
+     * @return 产品目录快照
+     * @throws IllegalArgumentException 当产品ID或编码为空、重复时抛出异常
+     */
+    public static CatalogSnapshot of(long version, Collection<Product> products) {
+        Map<Long, Product> ids = new HashMap<>(products.size() * 2);
+        Map<String, Product> codes = new HashMap<>(products.size() * 2);
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (product.getId() == null || product.getProductCode() == null) {
+                throw new IllegalArgumentException("产品ID和产品编码不能为空");
+            }
+            if (ids.put(product.getId(), product) != null) {
+                throw new IllegalArgumentException("产品ID重复: " + product.getId());
+            }
+            if (codes.put(product.getProductCode(), product) != null) {
+                throw new IllegalArgumentException("产品编码重复: " + product.getProductCode());
+            }
+            copies.add(copyOf(product));
+        }
+        return new CatalogSnapshot(version, List.copyOf(copies));
+    }
+
+    /**
+     * 获取快照版本号，每次目录变更递增
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取全部产品
+     * @return 不可修改的产品列表
+     */
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    /**
+     * 根据产品ID查找产品
+     * @param productId 产品ID
+     * @return 产品，不存在时返回null
+     */
+    public Product findById(Long productId) {
+        return byId.get(productId);
+    }
+
+    /**
+     * 根据产品编码查找产品
+     * @param productCode 产品编码
+     * @return 产品，不存在时返回null
+     */
+    public Product findByCode(String productCode) {
+        return byCode.get(productCode);
+    }
+
+    /**
+     * 获取指定状态的产品视图
+     * @param status 产品状态
+     * @return 不可修改的产品列表
+     */
+    public List<Product> byStatus(Integer status) {
+        return byStatus.getOrDefault(status, List.of());
+    }
+
+    /**
+     * 获取指定类型的产品视图
+     * @param productType 产品类型
+     * @return 不可修改的产品列表
+     */
+    public List<Product> byType(String productType) {
+        return byType.getOrDefault(productType, List.of());
+    }
+
+    /**
+     * 获取指定风险等级的产品视图
+     * @param riskLevel 风险等级
+     * @return 不可修改的产品列表
+     */
+    public List<Product> byRiskLevel(Integer riskLevel) {
+        return byRiskLevel.getOrDefault(riskLevel, List.of());
+    }
+
+    private static Product copyOf(Product product) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setProductCode(product.getProductCode());
+        copy.setProductName(product.getProductName());
+        copy.setProductType(product.getProductType());
+        copy.setExpectedRate(product.getExpectedRate());
+        copy.setMinAmount(product.getMinAmount());
+        copy.setRiskLevel(product.getRiskLevel());
+        copy.setStatus(product.getStatus());
+        copy.setDescription(product.getDescription());
+        copy.setCreateTime(product.getCreateTime());
+        return copy;
+    }
+
+    private static <K> Map<K, List<Product>> group(List<Product> products, Function<Product, K> classifier) {
+        Map<K, List<Product>> groups = new HashMap<>();
+        for (Product product : products) {
+            K key = classifier.apply(product);
+            if (key != null) {
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(product);
+            }
+        }
+        groups.replaceAll((key, group) -> List.copyOf(group));
+        return Collections.unmodifiableMap(groups);
+    }
+}
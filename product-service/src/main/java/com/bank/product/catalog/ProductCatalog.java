@@ -0,0 +1,154 @@
+package com.bank.product.catalog;
+
+import com.bank.common.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 产品目录
+ * 持有当前的不可变目录快照，读操作无锁；变更通过管理接口串行执行，构建新快照后原子替换（copy-on-write）
+ * 新快照生效后依次通知已注册的监听器
+ */
+@Slf4j
+@Component
+public class ProductCatalog {
+
+    /**
+     * 在售状态
+     */
+    public static final int STATUS_ON_SALE = 1;
+
+    private volatile CatalogSnapshot snapshot;
+    
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 构造函数
+     * 初始化测试产品数据
+     */
+    public ProductCatalog() {
+        // 初始化测试数据
+        Product product1 = new Product();
+        product1.setId(1L);
+        product1.setProductCode("FUND001");
+        product1.setProductName("稳健增长基金");
+        product1.setProductType("FUND");
+        product1.setExpectedRate(new BigDecimal("0.0385"));
+        product1.setMinAmount(new BigDecimal("1000.00"));
+        product1.setRiskLevel(2);
+        product1.setStatus(1);
+        product1.setDescription("中低风险，适合稳健型投资者");
+        product1.setCreateTime(LocalDateTime.now().minusDays(30));
+        
+        Product product2 = new Product();
+        product2.setId(2L);
+        product2.setProductCode("INS001");
+        product2.setProductName("终身寿险");
+        product2.setProductType("INSURANCE");
+        product2.setExpectedRate(new BigDecimal("0.0250"));
+        product2.setMinAmount(new BigDecimal("5000.00"));
+        product2.setRiskLevel(1);
+        product2.setStatus(1);
+        product2.setDescription("保障终身，兼顾理财功能");
+        product2.setCreateTime(LocalDateTime.now().minusDays(15));
+        
+        Product product3 = new Product();
+        product3.setId(3L);
+        product3.setProductCode("LOAN001");
+        product3.setProductName("个人消费贷款");
+        product3.setProductType("LOAN");
+        product3.setExpectedRate(new BigDecimal("0.0650"));
+        product3.setMinAmount(new BigDecimal("10000.00"));
+        product3.setRiskLevel(3);
+        product3.setStatus(1);
+        product3.setDescription("快速审批，额度灵活");
+        product3.setCreateTime(LocalDateTime.now().minusDays(7));
+        
+        this.snapshot = CatalogSnapshot.of(1L, List.of(product1, product2, product3));
+    }
+
+    /**
+     * 获取当前目录快照
+     * 同一次请求内应只读取一次快照，保证看到一致的数据
+     * @return 当前目录快照
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * 注册目录变更监听器
+     * @param listener 目录变更监听器
+     */
+    public void addListener(CatalogListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 新增或更新产品
+     * @param product 产品信息
+     * @return 变更后的目录快照
+     * @throws IllegalArgumentException 当产品ID或编码为空、编码与其他产品冲突时抛出异常
+     */
+    public synchronized CatalogSnapshot upsert(Product product) {
+        Map<Long, Product> products = mutableCopy();
+        products.put(product.getId(), product);
+        return swap(products.values(), List.of(product), List.of(), false);
+    }
+
+    /**
+     * 下架删除产品
+     * @param productId 产品ID
+     * @return 变更后的目录快照
+     * @throws IllegalArgumentException 当产品不存在时抛出异常
+     */
+    public synchronized CatalogSnapshot remove(Long productId) {
+        Map<Long, Product> products = mutableCopy();
+        if (products.remove(productId) == null) {
+            throw new IllegalArgumentException("产品不存在: " + productId);
+        }
+        return swap(products.values(), List.of(), List.of(productId), false);
+    }
+
+    /**
+     * 整体替换产品目录
+     * @param products 新的产品列表
+     * @return 变更后的目录快照
+     * @throws IllegalArgumentException 当产品ID或编码为空、重复时抛出异常
+     */
+    public synchronized CatalogSnapshot replaceAll(Collection<Product> products) {
+        return swap(products, List.of(), List.of(), true);
+    }
+
+    private Map<Long, Product> mutableCopy() {
+        Map<Long, Product> products = new LinkedHashMap<>();
+        for (Product product : snapshot.getProducts()) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    private CatalogSnapshot swap(Collection<Product> products, List<Product> upserted, List<Long> removedIds,
+                                 boolean fullReplace) {
+        CatalogSnapshot previous = snapshot;
+        CatalogSnapshot next = CatalogSnapshot.of(previous.getVersion() + 1, new ArrayList<>(products));
+        snapshot = next;
+        log.info("产品目录已更新，版本: {}, 产品数: {}", next.getVersion(), next.getProducts().size());
+        // 监听器拿到的是快照中的副本，而不是调用方传入的对象
+        List<Product> upsertedCopies = upserted.stream().map(product -> next.findById(product.getId())).toList();
+        CatalogChange change = new CatalogChange(previous, next, upsertedCopies, removedIds, fullReplace);
+        for (CatalogListener listener : listeners) {
+            listener.onCatalogChanged(change);
+        }
+        return next;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bank.product.controller;
+
+import com.bank.common.model.Product;
+import com.bank.common.response.ApiResponse;
+import com.bank.product.catalog.CatalogSnapshot;
+import com.bank.product.catalog.ProductCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 产品目录管理控制器
+ * 提供产品上架、更新、下架接口，每次变更生成新的目录快照并原子替换，不影响正在进行的读请求
+ * 接口位于内部路径下，网关不转发，调用方需携带内部接口访问令牌
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/products/admin")
+@RequiredArgsConstructor
+public class ProductAdminController {
+
+    private final ProductCatalog productCatalog;
+
+    /**
+     * 新增或更新产品
+     * @param product 产品信息
+     * @return 变更后的目录版本号
+     */
+    @PutMapping
+    public ApiResponse<Long> upsertProduct(@RequestBody Product product) {
+        log.info("更新产品，产品ID: {}, 产品编码: {}", product.getId(), product.getProductCode());
+        CatalogSnapshot snapshot = productCatalog.upsert(product);
+        return ApiResponse.success(snapshot.getVersion());
+    }
+
+    /**
+     * 删除产品
+     * @param productId 产品ID
+     * @return 变更后的目录版本号
+     */
+    @DeleteMapping("/{productId}")
+    public ApiResponse<Long> removeProduct(@PathVariable Long productId) {
+        log.info("删除产品，产品ID: {}", productId);
+        CatalogSnapshot snapshot = productCatalog.remove(productId);
+        return ApiResponse.success(snapshot.getVersion());
+    }
+
+    /**
+     * 整体发布产品目录
+     * @param products 新的产品列表
+     * @return 变更后的目录版本号
+     */
+    @PostMapping("/publish")
+    public ApiResponse<Long> publishCatalog(@RequestBody List<Product> products) {
+        log.info("整体发布产品目录，产品数: {}", products.size());
+        CatalogSnapshot snapshot = productCatalog.replaceAll(products);
+        return ApiResponse.success(snapshot.getVersion());
+    }
+
+    /**
+     * 获取当前目录版本号
+     * @return 目录版本号
+     */
+    @GetMapping("/version")
+    public ApiResponse<Long> catalogVersion() {
+        return ApiResponse.success(productCatalog.current().getVersion());
+    }
+}
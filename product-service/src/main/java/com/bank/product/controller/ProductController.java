@@ -1,101 +1,119 @@
 package com.bank.product.controller;
 
 import com.bank.common.model.Product;
+import com.bank.common.model.RecommendedProductsBatch;
 import com.bank.common.response.ApiResponse;
+import com.bank.product.catalog.CatalogSnapshot;
+import com.bank.product.catalog.ProductCatalog;
+import com.bank.product.encoded.EncodedResponseCache;
+import com.bank.product.recommend.RecommendationEngine;
+import com.bank.product.recommend.UserSegment;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
 
 /**
  * 产品服务控制器
  * 提供银行产品信息相关的API接口
+ * 推荐列表和完整产品列表直接写出预编码的响应字节，不在请求时序列化
  */
 @Slf4j
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
     
-    // 模拟产品数据
-    private final List<Product> productDatabase = new ArrayList<>();
+    // 单次批量推荐的最大用户数
+    private static final int MAX_BATCH_SIZE = 200;
+    
+    private final ProductCatalog productCatalog;
+    private final RecommendationEngine recommendationEngine;
+    private final EncodedResponseCache encodedResponseCache;
+    
+    // 推荐接口模拟的处理时间，基准测试中配置为0
+    private final Duration simulatedLatency;
     
     /**
      * 构造函数
-     * 初始化测试产品数据
+     * @param productCatalog 产品目录
+     * @param recommendationEngine 分群推荐引擎
+     * @param encodedResponseCache 预编码响应缓存
+     * @param simulatedLatency 推荐接口模拟的处理时间
      */
-    public ProductController() {
-        // 初始化测试数据
-        Product product1 = new Product();
-        product1.setId(1L);
-        product1.setProductCode("FUND001");
-        product1.setProductName("稳健增长基金");
-        product1.setProductType("FUND");
-        product1.setExpectedRate(new BigDecimal("0.0385"));
-        product1.setMinAmount(new BigDecimal("1000.00"));
-        product1.setRiskLevel(2);
-        product1.setStatus(1);
-        product1.setDescription("中低风险，适合稳健型投资者");
-        product1.setCreateTime(LocalDateTime.now().minusDays(30));
-        
-        Product product2 = new Product();
-        product2.setId(2L);
-        product2.setProductCode("INS001");
-        product2.setProductName("终身寿险");
-        product2.setProductType("INSURANCE");
-        product2.setExpectedRate(new BigDecimal("0.0250"));
-        product2.setMinAmount(new BigDecimal("5000.00"));
-        product2.setRiskLevel(1);
-        product2.setStatus(1);
-        product2.setDescription("保障终身，兼顾理财功能");
-        product2.setCreateTime(LocalDateTime.now().minusDays(15));
-        
-        Product product3 = new Product();
-        product3.setId(3L);
-        product3.setProductCode("LOAN001");
-        product3.setProductName("个人消费贷款");
-        product3.setProductType("LOAN");
-        product3.setExpectedRate(new BigDecimal("0.0650"));
-        product3.setMinAmount(new BigDecimal("10000.00"));
-        product3.setRiskLevel(3);
-        product3.setStatus(1);
-        product3.setDescription("快速审批，额度灵活");
-        product3.setCreateTime(LocalDateTime.now().minusDays(7));
-        
-        productDatabase.add(product1);
-        productDatabase.add(product2);
-        productDatabase.add(product3);
+    public ProductController(ProductCatalog productCatalog, RecommendationEngine recommendationEngine,
+                             EncodedResponseCache encodedResponseCache,
+                             @Value("${product.simulated-latency:80ms}") Duration simulatedLatency) {
+        this.productCatalog = productCatalog;
+        this.recommendationEngine = recommendationEngine;
+        this.encodedResponseCache = encodedResponseCache;
+        this.simulatedLatency = simulatedLatency;
     }
     
     /**
      * 获取推荐产品列表
+     * 按用户分群返回预计算的Top-K推荐，未提供分群信息时按最保守的分群推荐
+     * 响应为目录变更时预先编码的 ApiResponse，按 Accept 返回JSON或Smile，客户端接受gzip时返回预先压缩的字节
      * @param userId 用户ID（可选）
+     * @param userLevel 用户等级（可选）
+     * @param pointsLevel 积分等级（可选）
+     * @param accept Accept 请求头
+     * @param acceptEncoding Accept-Encoding 请求头
      * @return 推荐产品列表
      */
     @GetMapping("/recommended")
-    public ApiResponse<List<Product>> getRecommendedProducts(@RequestParam(required = false) Long userId) {
-        log.info("获取推荐产品列表，用户ID: {}", userId);
+    public ResponseEntity<byte[]> getRecommendedProducts(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Integer userLevel,
+            @RequestParam(required = false) Integer pointsLevel,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        UserSegment segment = UserSegment.of(userLevel, pointsLevel);
+        log.info("获取推荐产品列表，用户ID: {}, 用户分群: {}", userId, segment);
         
-        // 模拟基于用户等级的推荐逻辑
-        List<Product> recommended = new ArrayList<>();
+        simulateProcessing();
         
-        // 默认返回所有在售产品
-        for (Product product : productDatabase) {
-            if (product.getStatus() == 1) { // 在售状态
-                recommended.add(product);
-            }
+        return encodedResponseCache.recommended(segment).toResponse(accept, acceptEncoding);
+    }
+    
+    /**
+     * 批量获取多个用户的推荐产品列表
+     * 整批只计算和模拟一次处理时间；同一分群的推荐列表只返回一次，用户通过分群标识引用
+     * 等级列表与用户ID列表按位置一一对应，未提供时按最保守的分群推荐
+     * @param userIds 用户ID列表
+     * @param userLevels 用户等级列表（可选）
+     * @param pointsLevels 积分等级列表（可选）
+     * @return 按分群去重的推荐产品列表及用户ID到分群的映射
+     * @throws IllegalArgumentException 当用户ID数量超过上限或等级列表长度与用户ID列表不一致时抛出异常
+     */
+    @GetMapping("/recommended/batch")
+    public ApiResponse<RecommendedProductsBatch> getRecommendedProductsBatch(
+            @RequestParam("userIds") List<Long> userIds,
+            @RequestParam(required = false) List<Integer> userLevels,
+            @RequestParam(required = false) List<Integer> pointsLevels) {
+        log.info("批量获取推荐产品列表，用户数: {}", userIds.size());
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("批量推荐用户数不能超过" + MAX_BATCH_SIZE);
+        }
+        if ((userLevels != null && userLevels.size() != userIds.size())
+                || (pointsLevels != null && pointsLevels.size() != userIds.size())) {
+            throw new IllegalArgumentException("等级列表长度必须与用户ID列表一致");
         }
         
-        // 模拟处理时间
-        try {
-            Thread.sleep(80);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        RecommendedProductsBatch result = new RecommendedProductsBatch();
+        for (int i = 0; i < userIds.size(); i++) {
+            UserSegment segment = UserSegment.of(userLevels != null ? userLevels.get(i) : null,
+                    pointsLevels != null ? pointsLevels.get(i) : null);
+            result.getSegments().computeIfAbsent(segment.key(), key -> recommendationEngine.recommend(segment));
+            result.getUserSegments().put(userIds.get(i), segment.key());
         }
         
-        return ApiResponse.success(recommended);
+        simulateProcessing();
+        
+        return ApiResponse.success(result);
     }
     
     /**
@@ -108,14 +126,91 @@ public class ProductController {
     public ApiResponse<Product> getProductById(@PathVariable Long productId) {
         log.info("查询产品详情，产品ID: {}", productId);
         
-        Product product = productDatabase.stream()
-                .filter(p -> p.getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("产品不存在: " + productId));
+        Product product = productCatalog.current().findById(productId);
+        if (product == null) {
+            throw new RuntimeException("产品不存在: " + productId);
+        }
+        
+        return ApiResponse.success(product);
+    }
+    
+    /**
+     * 根据产品编码获取产品详情
+     * @param productCode 产品编码
+     * @return 产品详情
+     * @throws RuntimeException 当产品不存在时抛出异常
+     */
+    @GetMapping("/code/{productCode}")
+    public ApiResponse<Product> getProductByCode(@PathVariable String productCode) {
+        log.info("查询产品详情，产品编码: {}", productCode);
+        
+        Product product = productCatalog.current().findByCode(productCode);
+        if (product == null) {
+            throw new RuntimeException("产品不存在: " + productCode);
+        }
         
         return ApiResponse.success(product);
     }
     
+    /**
+     * 查询完整产品列表，没有任何查询条件时匹配该接口，直接写出预编码的响应
+     * @param accept Accept 请求头
+     * @param acceptEncoding Accept-Encoding 请求头
+     * @return 产品列表
+     */
+    @GetMapping(params = {"!status", "!productType", "!riskLevel"})
+    public ResponseEntity<byte[]> listAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return encodedResponseCache.catalog().toResponse(accept, acceptEncoding);
+    }
+    
+    /**
+     * 按条件查询产品列表
+     * 只传一个条件时直接返回预计算视图，多个条件时在最小的视图上过滤
+     * @param status 产品状态（可选）
+     * @param productType 产品类型（可选）
+     * @param riskLevel 风险等级（可选）
+     * @return 产品列表
+     */
+    @GetMapping
+    public ApiResponse<List<Product>> listProducts(@RequestParam(required = false) Integer status,
+                                                   @RequestParam(required = false) String productType,
+                                                   @RequestParam(required = false) Integer riskLevel) {
+        CatalogSnapshot snapshot = productCatalog.current();
+        List<Product> candidates = snapshot.getProducts();
+        if (status != null && snapshot.byStatus(status).size() < candidates.size()) {
+            candidates = snapshot.byStatus(status);
+        }
+        if (productType != null && snapshot.byType(productType).size() < candidates.size()) {
+            candidates = snapshot.byType(productType);
+        }
+        if (riskLevel != null && snapshot.byRiskLevel(riskLevel).size() < candidates.size()) {
+            candidates = snapshot.byRiskLevel(riskLevel);
+        }
+        
+        List<Product> result = candidates.stream()
+                .filter(p -> status == null || status.equals(p.getStatus()))
+                .filter(p -> productType == null || productType.equals(p.getProductType()))
+                .filter(p -> riskLevel == null || riskLevel.equals(p.getRiskLevel()))
+                .toList();
+        return ApiResponse.success(result);
+    }
+    
+    /**
+     * 模拟处理时间
+     */
+    private void simulateProcessing() {
+        if (simulatedLatency.isZero() || simulatedLatency.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(simulatedLatency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
     /**
      * 健康检查接口
      * @return 服务状态信息
@@ -124,4 +219,4 @@ public class ProductController {
     public ApiResponse<String> health() {
         return ApiResponse.success("Product Service is UP");
     }
-}
\ No newline at end of file
+}
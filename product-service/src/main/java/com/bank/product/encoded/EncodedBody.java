@@ -0,0 +1,44 @@
+package com.bank.product.encoded;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 一种编码格式的响应体，同时保存原始字节和gzip压缩后的字节
+ * 只在目录变更时生成，压缩使用最高压缩级别
+ * @param identity 未压缩的响应体
+ * @param gzip gzip压缩后的响应体
+ */
+public record EncodedBody(byte[] identity, byte[] gzip) {
+
+    /**
+     * 由未压缩的响应体生成，同时预先压缩
+     * @param identity 未压缩的响应体
+     * @return 响应体
+     */
+    public static EncodedBody of(byte[] identity) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, identity.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(identity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("响应体压缩失败", e);
+        }
+        return new EncodedBody(identity, out.toByteArray());
+    }
+
+    /**
+     * 选择响应体
+     * @param gzipAccepted 客户端是否接受gzip
+     * @return 响应体字节
+     */
+    public byte[] select(boolean gzipAccepted) {
+        return gzipAccepted ? gzip : identity;
+    }
+}
@@ -0,0 +1,119 @@
+package com.bank.product.encoded;
+
+import com.bank.common.codec.WireFormatProperties;
+import com.bank.common.codec.WireFormats;
+import com.bank.common.model.Product;
+import com.bank.common.response.ApiResponse;
+import com.bank.product.catalog.CatalogChange;
+import com.bank.product.catalog.CatalogListener;
+import com.bank.product.catalog.ProductCatalog;
+import com.bank.product.recommend.RecommendationEngine;
+import com.bank.product.recommend.UserSegment;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 产品目录接口的预编码响应缓存
+ * 每个分群的推荐列表和完整产品列表在目录变更时编码为JSON、Smile两种格式并各自预先gzip压缩，请求时直接写出字节
+ * 依赖推荐引擎的结果，注册在推荐引擎之后，目录变更时推荐引擎先刷新；推荐列表未变化的分群复用原有编码
+ */
+@Slf4j
+@Component
+public class EncodedResponseCache implements CatalogListener {
+
+    private final RecommendationEngine recommendationEngine;
+    private final ObjectWriter jsonWriter;
+    private final ObjectWriter smileWriter;
+
+    // 整体替换，读取无锁
+    private volatile Views views;
+
+    /**
+     * 构造函数
+     * @param productCatalog 产品目录
+     * @param recommendationEngine 分群推荐引擎
+     * @param objectMapper Spring Boot配置的ObjectMapper
+     * @param objectMapperBuilder Spring Boot配置好的ObjectMapper构建器，用于创建Smile编码器
+     * @param wireFormatProperties 传输格式配置属性
+     */
+    public EncodedResponseCache(ProductCatalog productCatalog, RecommendationEngine recommendationEngine,
+                                ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                WireFormatProperties wireFormatProperties) {
+        this.recommendationEngine = recommendationEngine;
+        this.jsonWriter = objectMapper.writer();
+        this.smileWriter = wireFormatProperties.isSmileEnabled()
+                ? WireFormats.smileObjectMapper(objectMapperBuilder).writer() : null;
+        this.views = encodeAll(productCatalog.current().getProducts(), null);
+        productCatalog.addListener(this);
+    }
+
+    /**
+     * 获取分群推荐列表的预编码响应
+     * @param segment 用户分群
+     * @return 预编码响应
+     */
+    public EncodedView recommended(UserSegment segment) {
+        EncodedView view = views.recommended().get(segment);
+        return view != null ? view : views.empty();
+    }
+
+    /**
+     * 获取完整产品列表的预编码响应
+     * @return 预编码响应
+     */
+    public EncodedView catalog() {
+        return views.catalog();
+    }
+
+    @Override
+    public void onCatalogChanged(CatalogChange change) {
+        long start = System.nanoTime();
+        Views next = encodeAll(change.current().getProducts(), views);
+        views = next;
+        log.info("产品目录预编码响应已刷新，目录版本: {}, 完整列表JSON: {}字节（gzip {}字节），耗时: {}ms",
+                change.current().getVersion(), next.catalog().json().identity().length,
+                next.catalog().json().gzip().length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Views encodeAll(List<Product> products, Views previous) {
+        Map<UserSegment, EncodedView> recommended = new HashMap<>();
+        for (UserSegment segment : UserSegment.all()) {
+            List<Product> list = recommendationEngine.recommend(segment);
+            EncodedView old = previous != null ? previous.recommended().get(segment) : null;
+            // 推荐引擎对未受影响的分群返回同一个列表实例
+            recommended.put(segment, old != null && old.source() == list ? old : encode(list));
+        }
+        return new Views(Collections.unmodifiableMap(recommended), encode(products),
+                previous != null ? previous.empty() : encode(List.of()));
+    }
+
+    private EncodedView encode(List<Product> products) {
+        ApiResponse<List<Product>> response = ApiResponse.success(products);
+        try {
+            return new EncodedView(EncodedBody.of(jsonWriter.writeValueAsBytes(response)),
+                    smileWriter != null ? EncodedBody.of(smileWriter.writeValueAsBytes(response)) : null,
+                    products);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("产品列表编码失败", e);
+        }
+    }
+
+    /**
+     * 全部预编码响应
+     * @param recommended 分群到推荐列表响应的映射
+     * @param catalog 完整产品列表响应
+     * @param empty 空列表响应
+     */
+    private record Views(Map<UserSegment, EncodedView> recommended, EncodedView catalog, EncodedView empty) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.product.encoded;
+
+import com.bank.common.codec.WireFormats;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * 预先编码的接口响应
+ * 保存同一个 ApiResponse 的JSON和Smile编码，按 Accept 和 Accept-Encoding 选择后直接写出字节，不再经过对象序列化
+ * 响应中的 timestamp 为编码时间
+ * @param json JSON编码
+ * @param smile Smile编码，未开启Smile传输时为null
+ * @param source 编码时使用的数据，数据未变时复用编码结果
+ */
+public record EncodedView(EncodedBody json, EncodedBody smile, Object source) {
+
+    private static final String GZIP = "gzip";
+
+    /**
+     * 按请求头生成响应
+     * 与消息转换器的协商规则一致：只有 Accept 中Smile的权重不低于JSON时才返回Smile，Accept为空或 *&#47;* 时返回JSON
+     * @param accept Accept 请求头
+     * @param acceptEncoding Accept-Encoding 请求头
+     * @return 响应
+     */
+    public ResponseEntity<byte[]> toResponse(String accept, String acceptEncoding) {
+        boolean useSmile = smile != null && prefersSmile(accept);
+        boolean gzipAccepted = acceptsGzip(acceptEncoding);
+        EncodedBody body = useSmile ? smile : json;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(useSmile ? WireFormats.SMILE : MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipAccepted) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return builder.body(body.select(gzipAccepted));
+    }
+
+    private static boolean prefersSmile(String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return false;
+        }
+        double smileQuality = 0;
+        double jsonQuality = 0;
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.equalsTypeAndSubtype(WireFormats.SMILE)) {
+                smileQuality = Math.max(smileQuality, mediaType.getQualityValue());
+            } else if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                jsonQuality = Math.max(jsonQuality, mediaType.getQualityValue());
+            }
+        }
+        return smileQuality > 0 && smileQuality >= jsonQuality;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+            String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+            if (parts.length > 0 && (parts[0].equalsIgnoreCase(GZIP) || parts[0].equals("*"))) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
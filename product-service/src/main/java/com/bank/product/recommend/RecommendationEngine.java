@@ -0,0 +1,202 @@
+package com.bank.product.recommend;
+
+import com.bank.common.model.Product;
+import com.bank.product.catalog.CatalogChange;
+import com.bank.product.catalog.CatalogListener;
+import com.bank.product.catalog.CatalogSnapshot;
+import com.bank.product.catalog.ProductCatalog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 分群推荐引擎
+ * 按用户分群对在售产品打分，为每个分群预计算有限长度的Top-K推荐列表，请求时只需一次Map查找
+ * 目录变更时增量刷新：变更未涉及某分群当前的Top-K成员时只合并新产品，否则仅重算该分群
+ * 只推荐风险等级不超过用户风险承受等级的产品
+ */
+@Slf4j
+@Component
+public class RecommendationEngine implements CatalogListener {
+
+    // 按排序先后比较：得分高的在前，得分相同按产品ID升序，保证结果稳定
+    private static final Comparator<ScoredProduct> RANKING_ORDER = Comparator
+            .comparingDouble(ScoredProduct::score).reversed()
+            .thenComparing(scored -> scored.product().getId());
+
+    private final int topK;
+
+    // 分群到推荐结果的映射，整体替换
+    private volatile Map<UserSegment, SegmentRanking> rankings;
+
+    /**
+     * 构造函数
+     * @param productCatalog 产品目录
+     * @param topK 每个分群的推荐产品数
+     */
+    public RecommendationEngine(ProductCatalog productCatalog,
+                                @Value("${product.recommendation.top-k:5}") int topK) {
+        this.topK = topK;
+        this.rankings = rankAll(productCatalog.current());
+        productCatalog.addListener(this);
+    }
+
+    /**
+     * 获取分群的推荐产品列表
+     * @param segment 用户分群
+     * @return 不可修改的推荐产品列表
+     */
+    public List<Product> recommend(UserSegment segment) {
+        SegmentRanking ranking = rankings.get(segment);
+        return ranking != null ? ranking.products() : List.of();
+    }
+
+    @Override
+    public void onCatalogChanged(CatalogChange change) {
+        if (change.fullReplace()) {
+            rankings = rankAll(change.current());
+            log.info("产品目录整体替换，重算全部分群推荐，目录版本: {}", change.current().getVersion());
+            return;
+        }
+
+        Set<Long> changedIds = new HashSet<>(change.removedIds());
+        for (Product product : change.upserted()) {
+            changedIds.add(product.getId());
+        }
+
+        Map<UserSegment, SegmentRanking> next = new HashMap<>(rankings.size() * 2);
+        int recomputed = 0;
+        for (Map.Entry<UserSegment, SegmentRanking> entry : rankings.entrySet()) {
+            UserSegment segment = entry.getKey();
+            SegmentRanking ranking = entry.getValue();
+            if (ranking.containsAny(changedIds)) {
+                // Top-K成员被修改或删除，原先排在K之后的产品可能进入榜单，只能重算该分群
+                next.put(segment, rank(segment, change.current().getProducts()));
+                recomputed++;
+            } else {
+                next.put(segment, ranking.merge(scoreAll(segment, change.upserted()), topK));
+            }
+        }
+        rankings = Collections.unmodifiableMap(next);
+        log.info("分群推荐已增量刷新，目录版本: {}, 重算分群数: {}/{}",
+                change.current().getVersion(), recomputed, next.size());
+    }
+
+    private Map<UserSegment, SegmentRanking> rankAll(CatalogSnapshot snapshot) {
+        Map<UserSegment, SegmentRanking> result = new HashMap<>();
+        for (UserSegment segment : UserSegment.all()) {
+            result.put(segment, rank(segment, snapshot.getProducts()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 对产品全量打分并取Top-K
+     * @param segment 用户分群
+     * @param products 全部产品
+     * @return 分群推荐结果
+     */
+    private SegmentRanking rank(UserSegment segment, Collection<Product> products) {
+        // 小顶堆只保留K个最优产品
+        PriorityQueue<ScoredProduct> heap = new PriorityQueue<>(topK + 1, RANKING_ORDER.reversed());
+        for (ScoredProduct scored : scoreAll(segment, products)) {
+            heap.offer(scored);
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+        return SegmentRanking.of(new ArrayList<>(heap));
+    }
+
+    private List<ScoredProduct> scoreAll(UserSegment segment, Collection<Product> products) {
+        List<ScoredProduct> scored = new ArrayList<>();
+        for (Product product : products) {
+            if (isEligible(segment, product)) {
+                scored.add(new ScoredProduct(product, score(segment, product)));
+            }
+        }
+        return scored;
+    }
+
+    /**
+     * 产品是否可推荐给该分群：在售，且风险等级不超过用户风险承受等级
+     */
+    private static boolean isEligible(UserSegment segment, Product product) {
+        return product.getStatus() != null && product.getStatus() == ProductCatalog.STATUS_ON_SALE
+                && product.getRiskLevel() != null && product.getRiskLevel() <= segment.riskTolerance();
+    }
+
+    /**
+     * 产品推荐得分
+     * 风险匹配度占50%，预期收益率占30%，起购金额是否在分群可投资额度内占20%
+     */
+    private static double score(UserSegment segment, Product product) {
+        double riskFit = 1.0 - Math.abs(segment.riskTolerance() - product.getRiskLevel()) / 3.0;
+        double rate = product.getExpectedRate() != null ? product.getExpectedRate().doubleValue() : 0.0;
+        double rateScore = Math.min(Math.max(rate, 0.0) / 0.10, 1.0);
+        BigDecimal minAmount = product.getMinAmount();
+        double affordability = minAmount == null || minAmount.compareTo(investableAmountOf(segment)) <= 0 ? 1.0 : 0.3;
+        return 0.5 * riskFit + 0.3 * rateScore + 0.2 * affordability;
+    }
+
+    /**
+     * 按用户等级和积分等级估算分群的可投资额度
+     */
+    private static BigDecimal investableAmountOf(UserSegment segment) {
+        return BigDecimal.valueOf(1000L * (1L << (segment.userLevel() - 1)) * segment.pointsLevel());
+    }
+
+    /**
+     * 单个分群的推荐结果
+     * @param entries 按排序先后排列的带分产品
+     * @param products 对外返回的不可修改产品列表
+     * @param productIds 榜单内的产品ID
+     */
+    private record SegmentRanking(List<ScoredProduct> entries, List<Product> products, Set<Long> productIds) {
+
+        static SegmentRanking of(List<ScoredProduct> entries) {
+            entries.sort(RANKING_ORDER);
+            List<Product> products = new ArrayList<>(entries.size());
+            Set<Long> productIds = new HashSet<>();
+            for (ScoredProduct entry : entries) {
+                products.add(entry.product());
+                productIds.add(entry.product().getId());
+            }
+            return new SegmentRanking(List.copyOf(entries), List.copyOf(products), Set.copyOf(productIds));
+        }
+
+        boolean containsAny(Set<Long> ids) {
+            for (Long id : ids) {
+                if (productIds.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 合并新增产品，榜单成员未变更时只需与候选产品比较
+         */
+        SegmentRanking merge(List<ScoredProduct> candidates, int topK) {
+            if (candidates.isEmpty()) {
+                return this;
+            }
+            List<ScoredProduct> merged = new ArrayList<>(entries);
+            merged.addAll(candidates);
+            merged.sort(RANKING_ORDER);
+            return of(new ArrayList<>(merged.subList(0, Math.min(topK, merged.size()))));
+        }
+    }
+}
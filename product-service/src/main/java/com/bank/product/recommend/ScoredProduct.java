@@ -0,0 +1,11 @@
+package com.bank.product.recommend;
+
+import com.bank.common.model.Product;
+
+/**
+ * 带推荐得分的产品
+ * @param product 产品
+ * @param score 推荐得分，越高越靠前
+ */
+record ScoredProduct(Product product, double score) {
+}
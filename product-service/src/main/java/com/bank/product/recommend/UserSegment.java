@@ -0,0 +1,74 @@
+package com.bank.product.recommend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户分群
+ * 由用户等级、风险承受等级和积分等级组成，推荐结果按分群预计算
+ * @param userLevel 用户等级：1-普通，2-白银，3-黄金，4-钻石
+ * @param riskTolerance 风险承受等级，对应产品风险等级：1-低风险，2-中风险，3-高风险
+ * @param pointsLevel 积分等级
+ */
+public record UserSegment(int userLevel, int riskTolerance, int pointsLevel) {
+
+    /**
+     * 最高用户等级
+     */
+    public static final int MAX_USER_LEVEL = 4;
+
+    /**
+     * 最高积分等级
+     */
+    public static final int MAX_POINTS_LEVEL = 5;
+
+    /**
+     * 根据用户等级和积分等级确定分群，缺省时归入最保守的分群
+     * @param userLevel 用户等级（可为空）
+     * @param pointsLevel 积分等级（可为空）
+     * @return 用户分群
+     */
+    public static UserSegment of(Integer userLevel, Integer pointsLevel) {
+        int level = clamp(userLevel, MAX_USER_LEVEL);
+        int points = clamp(pointsLevel, MAX_POINTS_LEVEL);
+        return new UserSegment(level, riskToleranceOf(level), points);
+    }
+
+    /**
+     * 分群标识，批量推荐结果中用于引用同一分群的推荐列表
+     * @return 分群标识，如 L2-P3
+     */
+    public String key() {
+        return "L" + userLevel + "-P" + pointsLevel;
+    }
+
+    /**
+     * 列出全部分群
+     * @return 全部用户分群
+     */
+    public static List<UserSegment> all() {
+        List<UserSegment> segments = new ArrayList<>(MAX_USER_LEVEL * MAX_POINTS_LEVEL);
+        for (int level = 1; level <= MAX_USER_LEVEL; level++) {
+            for (int points = 1; points <= MAX_POINTS_LEVEL; points++) {
+                segments.add(new UserSegment(level, riskToleranceOf(level), points));
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * 用户等级映射为风险承受等级：普通-低风险，白银-中风险，黄金及以上-高风险
+     * @param userLevel 用户等级
+     * @return 风险承受等级
+     */
+    private static int riskToleranceOf(int userLevel) {
+        return Math.min(userLevel, 3);
+    }
+
+    private static int clamp(Integer value, int max) {
+        if (value == null || value < 1) {
+            return 1;
+        }
+        return Math.min(value, max);
+    }
+}
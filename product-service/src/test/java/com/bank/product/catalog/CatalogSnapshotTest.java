@@ -0,0 +1,66 @@
+package com.bank.product.catalog;
+
+import com.bank.common.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 产品目录快照测试
+ */
+class CatalogSnapshotTest {
+
+    @Test
+    void callerMutationsDoNotLeakIntoSnapshot() {
+        Product product = product(1L, "FUND001", 2);
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1L, List.of(product));
+
+        product.setRiskLevel(3);
+        product.setProductCode("CHANGED");
+        product.setStatus(2);
+
+        Product stored = snapshot.findById(1L);
+        assertThat(stored).isNotSameAs(product);
+        assertThat(stored.getRiskLevel()).isEqualTo(2);
+        assertThat(snapshot.findByCode("FUND001")).isSameAs(stored);
+        assertThat(snapshot.byRiskLevel(2)).containsExactly(stored);
+        assertThat(snapshot.byStatus(1)).containsExactly(stored);
+    }
+
+    @Test
+    void duplicateCodesAreRejected() {
+        assertThatThrownBy(() -> CatalogSnapshot.of(1L, List.of(product(1L, "FUND001", 1), product(2L, "FUND001", 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void upsertNotifiesListenersWithSnapshotCopy() {
+        ProductCatalog catalog = new ProductCatalog();
+        Product[] notified = new Product[1];
+        catalog.addListener(change -> notified[0] = change.upserted().get(0));
+
+        Product product = product(10L, "FUND010", 1);
+        CatalogSnapshot snapshot = catalog.upsert(product);
+        product.setStatus(2);
+
+        assertThat(notified[0]).isSameAs(snapshot.findById(10L));
+        assertThat(notified[0].getStatus()).isEqualTo(ProductCatalog.STATUS_ON_SALE);
+    }
+
+    private static Product product(Long id, String code, int riskLevel) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductCode(code);
+        product.setProductName(code);
+        product.setProductType("FUND");
+        product.setExpectedRate(new BigDecimal("0.03"));
+        product.setMinAmount(new BigDecimal("1000"));
+        product.setRiskLevel(riskLevel);
+        product.setStatus(ProductCatalog.STATUS_ON_SALE);
+        return product;
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -25,6 +27,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class UserController {
     
+    // 单次批量查询的最大用户数
+    private static final int MAX_BATCH_SIZE = 200;
+    
     private final UserService userService;
 
     @Value("${feature.user-service.new-feature-enabled:false}")
@@ -71,6 +76,28 @@ public class UserController {
         return ApiResponse.success(user);
     }
     
+    /**
+     * 根据用户ID批量获取用户信息（用于聚合服务批量调用）
+     * 不存在的用户不出现在结果中
+     * @param userIds 用户ID列表
+     * @return 用户ID到用户信息的映射
+     * @throws IllegalArgumentException 当用户ID数量超过上限时抛出异常
+     */
+    @GetMapping("/batch")
+    public ApiResponse<Map<Long, User>> getUsersByIds(@RequestParam("userIds") List<Long> userIds) {
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("批量查询用户数不能超过" + MAX_BATCH_SIZE);
+        }
+        Map<Long, User> users = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            User user = userService.getUserById(userId);
+            if (user != null) {
+                users.put(userId, user);
+            }
+        }
+        return ApiResponse.success(users);
+    }
+    
     /**
      * 根据用户ID获取用户信息（用于后台管理查询）
      * 这是后台管理的用户查询入口，具有较低优先级